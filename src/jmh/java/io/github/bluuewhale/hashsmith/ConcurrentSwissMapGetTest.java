@@ -105,6 +105,8 @@ public class ConcurrentSwissMapGetTest {
 	public static class Cursor {
 		int hitIndex;
 		int missIndex;
+		final Object[] batchKeys = new Object[OPS_PER_INVOCATION];
+		final Object[] batchOut = new Object[OPS_PER_INVOCATION];
 
 		@Setup(Level.Iteration)
 		public void reset() {
@@ -400,6 +402,25 @@ public class ConcurrentSwissMapGetTest {
 		c.missIndex = idx;
 		bh.consume(acc);
 	}
-}
-
 
+	@Benchmark
+	@OperationsPerInvocation(OPS_PER_INVOCATION)
+	@Threads(4)
+	public void concurrentSwiss_getAllHit_t4(SharedState s, Cursor c, Blackhole bh) {
+		final String[] keys = s.keys;
+		final int len = keys.length;
+		final Object[] batch = c.batchKeys;
+		int idx = c.hitIndex;
+		for (int n = 0; n < OPS_PER_INVOCATION; n++) {
+			batch[n] = keys[idx++];
+			if (idx == len) idx = 0;
+		}
+		s.concurrentSwiss.getAll(batch, c.batchOut, OPS_PER_INVOCATION);
+		int acc = 0;
+		for (Object v : c.batchOut) {
+			acc += (v == null) ? 1 : (Integer) v;
+		}
+		c.hitIndex = idx;
+		bh.consume(acc);
+	}
+}
@@ -25,6 +25,8 @@ import org.openjdk.jmh.annotations.Warmup;
 public class SwissSimdMapGetHitTest {
 
 	private static final int RANDOM_COUNT = 9;
+	/** Keys per {@code getAll} call. */
+	private static final int BATCH = 256;
 
 	@Param({ "250000", "500000", "750000", "1000000", "1250000", "1500000", "1750000", "2000000", "2250000", "2500000", "2750000", "3000000",
 			"3250000", "3500000", "3750000", "4000000", "4250000", "4500000", "4750000", "5000000", "5250000", "5500000", "5750000", "6000000",
@@ -66,5 +68,23 @@ public class SwissSimdMapGetHitTest {
 			}
 		}
 	}
-}
 
+//	@Benchmark
+	public void getAll() {
+		int localSize = this.size;
+		String[] localElements = this.elements;
+		SwissSimdMap<String, String> localSwissMap = this.swissMap;
+		Object[] batch = new Object[BATCH];
+		Object[] out = new Object[BATCH];
+		for (int i = 0; i < localSize; i += BATCH) {
+			int n = Math.min(BATCH, localSize - i);
+			System.arraycopy(localElements, i, batch, 0, n);
+			localSwissMap.getAll(batch, out, n);
+			for (int j = 0; j < n; j++) {
+				if (out[j] == null) {
+					throw new AssertionError(i + j);
+				}
+			}
+		}
+	}
+}
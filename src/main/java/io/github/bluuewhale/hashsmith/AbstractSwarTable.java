@@ -0,0 +1,109 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Arrays;
+
+/**
+ * Control words and bookkeeping shared by the primitive-specialized SWAR tables such as
+ * {@link SwissLongObjectMap}: sizing, the rehash policy, claiming an insert slot and deleting. Subclasses own
+ * the typed slot arrays and the loops that compare keys, so lookups never box or dispatch through this class.
+ */
+abstract class AbstractSwarTable {
+
+	/* Load factor: similar to Abseil SwissTable (7/8) */
+	static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	/* Storage and state */
+	final double loadFactor;
+	long[] ctrl;     // each long packs 8 control bytes
+	int capacity;
+	int size;
+	int tombstones;  // deleted slots
+	int maxLoad;
+
+	AbstractSwarTable(int initialCapacity, double loadFactor) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		}
+		Utils.validateLoadFactor(loadFactor);
+		this.loadFactor = loadFactor;
+		initCtrl(Swar.groupsFor(initialCapacity));
+	}
+
+	/**
+	 * Installs empty control words for {@code nGroups} groups; the caller then allocates its slot arrays for
+	 * {@link #capacity} slots. The constructor has already done this for the initial capacity.
+	 */
+	final void initCtrl(int nGroups) {
+		this.capacity = nGroups * Swar.GROUP_SIZE;
+		this.ctrl = Swar.newCtrl(nGroups);
+		this.size = 0;
+		this.tombstones = 0;
+		this.maxLoad = Utils.calcMaxLoad(capacity, loadFactor);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(ctrl, Swar.EMPTY_WORD);
+		size = 0;
+		tombstones = 0;
+	}
+
+	/**
+	 * Claims the slot for a key whose probe just missed: the first EMPTY or DELETED slot on its sequence.
+	 * Writes the control byte and counts the entry; the caller stores the key.
+	 */
+	final int claimSlot(int smearedHash) {
+		int idx = Swar.findFirstNonFull(ctrl, Swar.h1(smearedHash));
+		if (Swar.isDeleted(Swar.ctrlAt(ctrl, idx))) tombstones--;
+		Swar.setCtrlAt(ctrl, idx, Swar.h2(smearedHash));
+		size++;
+		return idx;
+	}
+
+	/**
+	 * Tombstones slot {@code idx}; the caller has already read (and cleared, for references) its slots.
+	 */
+	final void deleteAt(int idx) {
+		Swar.setCtrlAt(ctrl, idx, Swar.DELETED);
+		size--;
+		tombstones++;
+		maybeRehash();
+	}
+
+	/* Resize/rehash */
+	final void maybeRehash() {
+		// trigger when over load or too many tombstones
+		boolean overMaxLoad = (size + tombstones) >= maxLoad;
+		boolean tooManyTombstones = tombstones > (size >>> 1);
+		if (!overMaxLoad && !tooManyTombstones) return;
+
+		// Only grow the table when we are actually over the max load threshold.
+		// If we are rehashing just to clean up tombstones, keep the capacity.
+		int newCap = overMaxLoad ? capacity * 2 : capacity;
+		rehash(newCap);
+	}
+
+	/**
+	 * Moves every entry into a fresh table of {@code newCapacity} slots: the subclass saves its arrays, calls
+	 * {@link #initCtrl} and re-allocates, then puts each full old slot back with {@link #placeRehashed}.
+	 */
+	abstract void rehash(int newCapacity);
+
+	/**
+	 * Claims the slot for an entry moved by {@link #rehash} and counts it; fresh tables have no tombstones, so
+	 * the first EMPTY slot is the right one.
+	 */
+	final int placeRehashed(int smearedHash) {
+		int idx = Swar.findEmpty(ctrl, Swar.h1(smearedHash));
+		Swar.setCtrlAt(ctrl, idx, Swar.h2(smearedHash));
+		size++;
+		return idx;
+	}
+}
@@ -0,0 +1,158 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.BiFunction;
+
+/**
+ * Common base of {@link SwissMap} (SWAR probing) and {@link SwissSimdMap} (Vector API probing): the
+ * package-private hooks {@link ConcurrentSwissMap} drives its shards through, whichever probe engine backs them,
+ * and the slot access {@link SwissSnapshot} reads and writes tables through.
+ * <p>
+ * Publish protocol: writers store key/value before release-storing the FULL ctrl tag, and store the DELETED tag
+ * before clearing key/value. Readers acquire-load ctrl before reading key/value, tolerate null keys and torn
+ * array references, and rely on the caller's {@code StampedLock} stamp to discard what they saw.
+ * <p>
+ * Slot-level primitives ({@link #indexOfConcurrent}, {@link #findOrReserveConcurrent} and the {@code *At}
+ * methods) require the shard write lock; a slot stays valid until the next mutation.
+ */
+abstract class AbstractSwissMap<K, V> extends AbstractArrayMap<K, V> {
+
+	protected AbstractSwissMap(int initialCapacity, double loadFactor) {
+		super(initialCapacity, loadFactor);
+	}
+
+	/**
+	 * Marks this map as a {@link ConcurrentSwissMap} shard. Its arrays may be probed by optimistic readers
+	 * at any time, so every rehash rebuilds into fresh arrays, even when reached through the plain
+	 * {@code put}/{@code remove} paths.
+	 * <p>
+	 * Every key of the shard shares the top {@code prefixBits} bits of its smeared hash (the directory prefix),
+	 * so H1 takes the low hash bits in their place; otherwise a table wider than {@code 2^(25 - prefixBits)}
+	 * groups would home all keys in a fraction of its groups.
+	 */
+	abstract void markConcurrentShard(int prefixBits);
+
+	/* Optimistic-read safe */
+
+	abstract V getConcurrent(Object key, int smearedHash);
+
+	abstract boolean containsKeyConcurrent(Object key, int smearedHash);
+
+	/**
+	 * Copies the live entries, in slot order, into {@code keysOut}/{@code valsOut} and returns how many were
+	 * copied, or {@code -1} for torn state (or more entries than the buffers hold).
+	 */
+	abstract int copyEntriesConcurrent(Object[] keysOut, Object[] valsOut);
+
+	/**
+	 * Number of groups a lookup of {@code key} visits before finding it, or {@code -1} if it is absent. For tests.
+	 */
+	abstract int probeLength(Object key, int smearedHash);
+
+	/**
+	 * The table this shard is currently rebuilding from, or {@code null}. Only set while the shard's write lock
+	 * is held; its contents are then exactly the shard's mappings.
+	 */
+	abstract FrozenTable<V> frozenTable();
+
+	/**
+	 * Read-only view of a table being replaced by a shard rehash. Its arrays were last written before the
+	 * volatile publish that made it visible.
+	 */
+	interface FrozenTable<V> {
+		int size();
+
+		V get(Object key, int smearedHash);
+
+		boolean containsKey(Object key, int smearedHash);
+
+		int copyEntries(Object[] keysOut, Object[] valsOut);
+	}
+
+	/* Write lock held */
+
+	abstract V putConcurrent(K key, V value, int smearedHash);
+
+	abstract V removeConcurrent(Object key, int smearedHash);
+
+	/**
+	 * Rehashes at most once so that {@code additional} new entries can be inserted without another rehash.
+	 */
+	abstract void reserveConcurrent(int additional);
+
+	/**
+	 * Returns the slot holding {@code key}, or {@code -1}.
+	 */
+	abstract int indexOfConcurrent(Object key, int smearedHash);
+
+	/**
+	 * Returns the first slot (in slot order) whose value equals {@code value}, or {@code -1}.
+	 */
+	abstract int indexOfValueConcurrent(Object value);
+
+	/**
+	 * Returns the slot holding {@code key}, or {@code ~slot} for the slot an insert of {@code key} would take.
+	 * A miss first makes room for one more entry (possibly rehashing), so the reserved slot can be filled by
+	 * {@link #insertReservedConcurrent} without further checks.
+	 */
+	abstract int findOrReserveConcurrent(Object key, int smearedHash);
+
+	abstract V valueAtConcurrent(int idx);
+
+	/**
+	 * Replaces the value in a FULL slot and returns the previous one. The key and ctrl tag are unchanged, so
+	 * optimistic readers see either value.
+	 */
+	abstract V setValueAtConcurrent(int idx, V value);
+
+	/**
+	 * Fills a slot returned (as {@code ~slot}) by {@link #findOrReserveConcurrent}.
+	 */
+	abstract void insertReservedConcurrent(int slot, K key, V value, int smearedHash);
+
+	/**
+	 * Removes the entry in a FULL slot and returns its value.
+	 */
+	abstract V removeAtConcurrent(int idx);
+
+	/**
+	 * Replaces every value in place with {@code function.apply(key, value)}.
+	 */
+	abstract void replaceAllConcurrent(BiFunction<? super K, ? super V, ? extends V> function);
+
+	/* Snapshot (plain access, not for shards) */
+
+	/**
+	 * Slots per probe group. A snapshot is restored slot for slot only into a table with the same group size.
+	 */
+	abstract int groupSize();
+
+	abstract int tombstoneCount();
+
+	/**
+	 * Writes the {@code capacity} control bytes in slot order.
+	 */
+	abstract void writeCtrl(DataOutput out) throws IOException;
+
+	/**
+	 * Reads control bytes written by {@link #writeCtrl} into this table, which has the writer's capacity.
+	 */
+	abstract void readCtrl(DataInput in) throws IOException;
+
+	abstract byte ctrlAt(int idx);
+
+	abstract K keyAt(int idx);
+
+	/**
+	 * Fills a slot whose control byte was restored as FULL.
+	 */
+	abstract void restoreEntryAt(int idx, K key, V value);
+
+	/**
+	 * Sets the counts once every slot is restored. With {@code rehash}, the keys' hash codes differ from the
+	 * writer's, so the table is rebuilt by their current hashes.
+	 */
+	abstract void restoreCounts(int size, int tombstones, boolean rehash);
+}
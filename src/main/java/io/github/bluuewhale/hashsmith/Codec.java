@@ -0,0 +1,59 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of keys or values in {@link SwissMap} / {@link SwissSimdMap} snapshots
+ * ({@code writeTo} / {@code readFrom}). Implementations never see {@code null}: null values are
+ * flagged by the snapshot format itself, and keys are never null.
+ */
+public interface Codec<T> {
+
+	void write(DataOutput out, T value) throws IOException;
+
+	T read(DataInput in) throws IOException;
+
+	/** UTF-8 bytes with an {@code int} length prefix (no 64 KiB limit, unlike {@link DataOutput#writeUTF}). */
+	Codec<String> STRING = new Codec<>() {
+		@Override
+		public void write(DataOutput out, String value) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public String read(DataInput in) throws IOException {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	Codec<Long> LONG = new Codec<>() {
+		@Override
+		public void write(DataOutput out, Long value) throws IOException {
+			out.writeLong(value);
+		}
+
+		@Override
+		public Long read(DataInput in) throws IOException {
+			return in.readLong();
+		}
+	};
+
+	Codec<Integer> INTEGER = new Codec<>() {
+		@Override
+		public void write(DataOutput out, Integer value) throws IOException {
+			out.writeInt(value);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	};
+}
@@ -3,12 +3,19 @@ package io.github.bluuewhale.hashsmith;
 import java.util.AbstractCollection;
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.BiConsumer;
@@ -16,13 +23,22 @@ import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
- * A sharded, thread-safe wrapper around {@link SwissMap}.
+ * A sharded, thread-safe wrapper around {@link SwissMap}, or {@link SwissSimdMap} shards when constructed with
+ * {@link ProbeEngine#SIMD}.
  *
  * <p>Concurrency model:
  * <ul>
- *   <li><b>Shard selection</b>: choose a shard by the high bits of {@code Hashing.smearedHash(key)}.</li>
- *   <li><b>Reads</b>: {@link StampedLock#tryOptimisticRead()} first, fallback to {@code readLock()}.</li>
- *   <li><b>Writes</b>: {@code writeLock()} per shard, covering put/remove/clear/rehash inside the shard.</li>
+ *   <li><b>Shard selection</b>: choose a shard by the high bits of {@code Hashing.smearedHash(key)}, through a
+ *   directory that {@link #withShardSplitting} lets grow by splitting full shards in two.</li>
+ *   <li><b>Reads</b>: {@link StampedLock#tryOptimisticRead()} first, fallback to {@code readLock()}. Hits in
+ *   {@code putIfAbsent}/{@code computeIfAbsent} are answered the same way, without the write lock, and
+ *   {@link #getAll} validates one stamp per shard for a whole batch of keys.</li>
+ *   <li><b>Writes</b>: {@code writeLock()} per shard, covering put/remove/clear/rehash inside the shard. While
+ *   a shard rebuilds its table, readers that find it write-locked probe the old arrays instead of blocking.</li>
+ *   <li><b>Size</b>: a {@link LongAdder} adjusted inside each shard write section, so {@link #size()} and
+ *   {@link #mappingCount()} are lock-free and weakly consistent.</li>
+ *   <li><b>Iteration</b>: views and {@link #forEach} copy one shard at a time into a reused buffer, so memory
+ *   is bounded by the largest shard; iterators are weakly consistent.</li>
  * </ul>
  *
  * <p>Note: The underlying {@link SwissMap} is written for single-threaded use. If an optimistic read
@@ -34,11 +50,33 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 	private static final int DEFAULT_INITIAL_CAPACITY = 16;
 	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
 
-	private final StampedLock[] locks;
-	private final SwissMap<K, V>[] maps;
-	private final int shardBits;
-	/** Right-shift count to extract shard bits from the MSBs of the smeared hash. */
-	private final int shardShift;
+	/**
+	 * Probe engine backing the shards. Both follow the same publish protocol for optimistic readers.
+	 */
+	public enum ProbeEngine {
+		/** {@link SwissMap}: 8-slot groups scanned with SWAR word operations. */
+		SWAR,
+		/**
+		 * {@link SwissSimdMap}: groups as wide as the preferred Vector API species (e.g. 64 slots with AVX-512).
+		 * Requires {@code --add-modules jdk.incubator.vector}.
+		 */
+		SIMD
+	}
+
+	/** Directory bits (smeared-hash MSBs) beyond which shards are no longer split. */
+	private static final int MAX_SPLIT_BITS = 16;
+	/** Size of the smeared-hash space, {@code 2^32}; shard ranges and traversal cursors are unsigned in it. */
+	private static final long HASH_SPACE = 1L << Integer.SIZE;
+
+	private final double loadFactor;
+	private final ProbeEngine engine;
+	/** Current shard directory; replaced (copy-on-write, under {@link #splitLock}) when a shard splits. */
+	private volatile Directory<K, V> directory;
+	private final Object splitLock = new Object();
+	/** Shards holding more mappings than this are split in two; {@code Integer.MAX_VALUE} never splits. */
+	private int splitThreshold = Integer.MAX_VALUE;
+	/** Total mapping count; striped cells keep concurrent writers from contending on one word. */
+	private final LongAdder sizeCounter = new LongAdder();
 
 	public ConcurrentSwissMap() {
 		this(defaultShardCount(), DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -53,29 +91,31 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 	}
 
 	public ConcurrentSwissMap(int shardCount, int initialCapacity, double loadFactor) {
+		this(shardCount, initialCapacity, loadFactor, ProbeEngine.SWAR);
+	}
+
+	public ConcurrentSwissMap(int shardCount, int initialCapacity, double loadFactor, ProbeEngine engine) {
+		Objects.requireNonNull(engine, "engine");
 		if (shardCount <= 0) throw new IllegalArgumentException("shardCount must be > 0");
 		int sc = Utils.ceilPow2(shardCount);
-		this.shardBits = Integer.numberOfTrailingZeros(sc);
-		this.shardShift = Integer.SIZE - shardBits;
+		int shardBits = Integer.numberOfTrailingZeros(sc);
 		// SwissMap stores H2 in the lower 7 bits (control byte tag). Do not use those bits for sharding.
 		// We shard by the high bits of H1 (hash >>> 7), mirroring hashbrown's "leave tag bits out" approach.
-		int shift = shardShift - 7;
+		int shift = Integer.SIZE - shardBits - 7;
 		if (shift < 0) {
 			throw new IllegalArgumentException("shardCount too large: max shards is 2^(Integer.SIZE-7)");
 		}
+		this.loadFactor = loadFactor;
+		this.engine = engine;
 
-		StampedLock[] locks = new StampedLock[sc];
 		@SuppressWarnings("unchecked")
-		SwissMap<K, V>[] maps = (SwissMap<K, V>[]) new SwissMap[sc];
-
+		Shard<K, V>[] shards = (Shard<K, V>[]) new Shard[sc];
 		int cap = Math.max(DEFAULT_INITIAL_CAPACITY, initialCapacity);
 		int perShard = Math.max(1, (cap + sc - 1) / sc);
 		for (int i = 0; i < sc; i++) {
-			locks[i] = new StampedLock();
-			maps[i] = new SwissMap<>(perShard, loadFactor);
+			shards[i] = new Shard<>(newShardMap(perShard, shardBits), i, shardBits);
 		}
-		this.locks = locks;
-		this.maps = maps;
+		this.directory = new Directory<>(shards, shardBits);
 	}
 
 	private static int defaultShardCount() {
@@ -83,77 +123,362 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 		return Utils.ceilPow2(Math.max(1, cores * 4));
 	}
 
+	private AbstractSwissMap<K, V> newShardMap(int initialCapacity, int depth) {
+		AbstractSwissMap<K, V> map = (engine == ProbeEngine.SIMD)
+			? new SwissSimdMap<>(initialCapacity, loadFactor)
+			: new SwissMap<>(initialCapacity, loadFactor);
+		map.markConcurrentShard(depth);
+		return map;
+	}
+
+	/**
+	 * Lets the shard count grow with the data: once a write leaves a shard holding more than
+	 * {@code maxShardSize} mappings, that shard is split in two on the next smeared-hash bit below its own (and
+	 * further, until no part exceeds {@code maxShardSize}, after a bulk {@link #putAll}), so a skewed or
+	 * growing key set does not keep funnelling writers through one lock. The split holds only the
+	 * splitting shard's write lock; every other shard keeps serving reads and writes, and operations that
+	 * raced with the split retry on the new halves. Splitting stops once a shard is selected by
+	 * {@value #MAX_SPLIT_BITS} hash bits; such a shard keeps growing past {@code maxShardSize} like an unsplit
+	 * one, which takes that many keys sharing their top {@value #MAX_SPLIT_BITS} smeared-hash bits (a heavily
+	 * colliding {@code hashCode}). Shard tables derive their group index from the hash bits below the shard's
+	 * prefix, so a deep shard still probes as well as a plain map. Configure before the map is shared.
+	 *
+	 * @return this map
+	 */
+	public ConcurrentSwissMap<K, V> withShardSplitting(int maxShardSize) {
+		if (maxShardSize <= 0) throw new IllegalArgumentException("maxShardSize must be > 0: " + maxShardSize);
+		this.splitThreshold = maxShardSize;
+		return this;
+	}
+
 	private static int smearedHashNonNull(Object key) {
 		if (key == null) throw new NullPointerException("Null keys not supported");
 		return Hashing.smearedHash(key);
 	}
 
-	private int shardOfHash(int smearedHash) {
-		if (shardBits == 0) return 0;
-		// shardBits are taken from the MSBs of the smeared hash.
-		return smearedHash >>> shardShift;
+	/**
+	 * Write-locks and returns the live shard owning {@code smearedHash}; release it with {@link #unlockWrite}.
+	 */
+	private Shard<K, V> writeLockShard(int smearedHash) {
+		for (;;) {
+			Shard<K, V> shard = directory.shardOf(smearedHash);
+			shard.lock.writeLock();
+			if (!shard.retired) return shard;
+			// Split while we waited: its mappings now live in the halves of a newer directory.
+			shard.lock.tryUnlockWrite();
+		}
+	}
+
+	/**
+	 * Publishes the write section's size change to {@link #sizeCounter}, releases the shard and splits it if
+	 * it has outgrown {@link #splitThreshold}.
+	 */
+	private void unlockWrite(Shard<K, V> shard, int sizeBefore) {
+		int size = shard.map.size();
+		if (size != sizeBefore) sizeCounter.add(size - sizeBefore);
+		shard.lock.tryUnlockWrite();
+		if (size > splitThreshold && shard.depth < MAX_SPLIT_BITS) split(shard);
+	}
+
+	/**
+	 * Moves {@code shard}'s mappings into new shards, one per value of the next hash bit, publishes a directory
+	 * pointing at them and retires {@code shard}. A half that is still over {@link #splitThreshold} (a bulk load
+	 * can fill a shard far past it in one write section) is split again before anything is published, so no
+	 * new shard starts oversized. Mappings only move, so the size is unchanged.
+	 */
+	private void split(Shard<K, V> shard) {
+		long stamp = shard.lock.writeLock();
+		try {
+			AbstractSwissMap<K, V> map = shard.map;
+			int n = map.size();
+			if (shard.retired || n <= splitThreshold) return; // another writer got here first
+
+			Object[] keys = new Object[n];
+			Object[] vals = new Object[n];
+			map.copyEntriesConcurrent(keys, vals);
+			int[] hashes = new int[n];
+			for (int i = 0; i < n; i++) hashes[i] = Hashing.smearedHash(keys[i]);
+			List<Shard<K, V>> parts = new ArrayList<>();
+			splitRange(keys, vals, hashes, 0, n, shard.prefix, shard.depth, parts);
+
+			synchronized (splitLock) {
+				directory = directory.split(parts);
+			}
+			shard.retired = true;
+		} finally {
+			shard.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Partitions {@code [from, to)} on the hash bit below a shard of {@code depth}/{@code prefix} and adds a new
+	 * shard per half to {@code parts}, recursing into halves still over {@link #splitThreshold}.
+	 */
+	private void splitRange(Object[] keys, Object[] vals, int[] hashes, int from, int to, int prefix, int depth,
+			List<Shard<K, V>> parts) {
+		int n = to - from;
+		int bit = Integer.SIZE - depth - 1;
+		int mid = from;
+		for (int i = from; i < to; i++) {
+			if (((hashes[i] >>> bit) & 1) != 0) continue;
+			Object k = keys[i];
+			keys[i] = keys[mid];
+			keys[mid] = k;
+			Object v = vals[i];
+			vals[i] = vals[mid];
+			vals[mid] = v;
+			int h = hashes[i];
+			hashes[i] = hashes[mid];
+			hashes[mid] = h;
+			mid++;
+		}
+		int childDepth = depth + 1;
+		for (int half = 0; half < 2; half++) {
+			int lo = (half == 0) ? from : mid;
+			int hi = (half == 0) ? mid : to;
+			int childPrefix = (prefix << 1) | half;
+			if (hi - lo > splitThreshold && childDepth < MAX_SPLIT_BITS) {
+				splitRange(keys, vals, hashes, lo, hi, childPrefix, childDepth, parts);
+				continue;
+			}
+			// Room for the whole parent run, capped at the threshold: the half will not rehash before splitting.
+			Shard<K, V> part = new Shard<>(newShardMap(Math.max(hi - lo, Math.min(n, splitThreshold)), childDepth),
+				childPrefix, childDepth);
+			for (int i = lo; i < hi; i++) {
+				@SuppressWarnings("unchecked")
+				K key = (K) keys[i];
+				@SuppressWarnings("unchecked")
+				V value = (V) vals[i];
+				part.map.putConcurrent(key, value, hashes[i]);
+			}
+			parts.add(part);
+		}
+	}
+
+	/**
+	 * The live shards in hash order. Weakly consistent; for tests.
+	 */
+	List<Shard<K, V>> shards() {
+		List<Shard<K, V>> out = new ArrayList<>();
+		for (long cursor = 0L; cursor < HASH_SPACE; ) {
+			Shard<K, V> shard = directory.shardOf((int) cursor);
+			out.add(shard);
+			cursor = shard.end();
+		}
+		return out;
 	}
 
-	private int shardOf(Object key) {
-		return shardOfHash(smearedHashNonNull(key));
+	/**
+	 * A lock and the map it guards, owning the smeared hashes whose top {@code depth} bits equal
+	 * {@code prefix}. Never changes owner range: a split replaces it with two new shards.
+	 */
+	static final class Shard<K, V> {
+		final StampedLock lock = new StampedLock();
+		final AbstractSwissMap<K, V> map;
+		final int prefix;
+		final int depth;
+		/**
+		 * Set under the write lock once the mappings have moved to the halves. Lock holders and validated
+		 * optimistic readers that see it re-resolve the shard from {@link #directory}.
+		 */
+		volatile boolean retired;
+
+		Shard(AbstractSwissMap<K, V> map, int prefix, int depth) {
+			this.map = map;
+			this.prefix = prefix;
+			this.depth = depth;
+		}
+
+		boolean owns(int smearedHash) {
+			return depth == 0 || (smearedHash >>> (Integer.SIZE - depth)) == prefix;
+		}
+
+		/** First smeared hash (unsigned) past this shard's range. */
+		long end() {
+			return ((long) prefix + 1) << (Integer.SIZE - depth);
+		}
+	}
+
+	/**
+	 * Immutable {@code 2^bits}-slot table indexed by the top bits of the smeared hash. A shard of depth
+	 * {@code d} fills the {@code 2^(bits - d)} consecutive slots its prefix covers.
+	 */
+	private static final class Directory<K, V> {
+		final Shard<K, V>[] slots;
+		final int bits;
+
+		Directory(Shard<K, V>[] slots, int bits) {
+			this.slots = slots;
+			this.bits = bits;
+		}
+
+		Shard<K, V> shardOf(int smearedHash) {
+			return slots[slotOf(smearedHash)];
+		}
+
+		int slotOf(int smearedHash) {
+			if (bits == 0) return 0;
+			// Shard bits are taken from the MSBs of the smeared hash.
+			return smearedHash >>> (Integer.SIZE - bits);
+		}
+
+		/**
+		 * Copy with a split shard's slots handed to {@code parts}, the shards that now tile its range, doubled
+		 * first as often as the deepest part needs.
+		 */
+		Directory<K, V> split(List<Shard<K, V>> parts) {
+			int newBits = bits;
+			for (Shard<K, V> part : parts) newBits = Math.max(newBits, part.depth);
+			int grow = newBits - bits;
+			@SuppressWarnings("unchecked")
+			Shard<K, V>[] out = (Shard<K, V>[]) new Shard[1 << newBits];
+			for (int i = 0; i < out.length; i++) {
+				out[i] = slots[i >>> grow];
+			}
+			for (Shard<K, V> part : parts) {
+				int span = 1 << (newBits - part.depth);
+				int from = part.prefix << (newBits - part.depth);
+				Arrays.fill(out, from, from + span, part);
+			}
+			return new Directory<>(out, newBits);
+		}
 	}
 
 	@Override
 	public V get(Object key) {
 		int h = smearedHashNonNull(key);
-		int idx = shardOfHash(h);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
+		for (;;) {
+			Shard<K, V> shard = directory.shardOf(h);
+			StampedLock lock = shard.lock;
+			AbstractSwissMap<K, V> map = shard.map;
+
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0L) {
+				V v = map.getConcurrent(key, h);
+				if (!shard.retired && lock.validate(stamp)) return v;
+			}
 
-		long stamp = lock.tryOptimisticRead();
-		if (stamp != 0L) {
-			V v = map.getConcurrent(key, h);
-			if (lock.validate(stamp)) return v;
-		}
+			// A writer holds the shard. If it is rebuilding the table, the old one still answers reads.
+			AbstractSwissMap.FrozenTable<V> frozen = map.frozenTable();
+			if (frozen != null) return frozen.get(key, h);
 
-		// Fallback to read lock.
-		stamp = lock.readLock();
-		try {
-			return map.getConcurrent(key, h);
-		} finally {
-			lock.unlockRead(stamp);
+			// Fallback to read lock; a retired shard was split, so look the key up again in its half.
+			stamp = lock.readLock();
+			try {
+				if (!shard.retired) return map.getConcurrent(key, h);
+			} finally {
+				lock.unlockRead(stamp);
+			}
 		}
 	}
 
 	@Override
 	public boolean containsKey(Object key) {
 		int h = smearedHashNonNull(key);
-		int idx = shardOfHash(h);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
+		for (;;) {
+			Shard<K, V> shard = directory.shardOf(h);
+			StampedLock lock = shard.lock;
+			AbstractSwissMap<K, V> map = shard.map;
+
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0L) {
+				boolean ok = map.containsKeyConcurrent(key, h);
+				if (!shard.retired && lock.validate(stamp)) return ok;
+			}
+
+			AbstractSwissMap.FrozenTable<V> frozen = map.frozenTable();
+			if (frozen != null) return frozen.containsKey(key, h);
+
+			// Fallback to read lock.
+			stamp = lock.readLock();
+			try {
+				if (!shard.retired) return map.containsKeyConcurrent(key, h);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+	}
+
+	/**
+	 * Looks up {@code keys[0..n)} into {@code out[0..n)} ({@code null} where absent), like {@code n} calls to
+	 * {@link #get} but with one optimistic stamp per shard: the keys are hashed up front and grouped by shard,
+	 * and only a group whose stamp fails validation is read again, from the shard's frozen table or under its
+	 * read lock. Each group is read atomically; different shards may be seen at different moments.
+	 */
+	public void getAll(Object[] keys, Object[] out, int n) {
+		Objects.checkFromIndexSize(0, n, keys.length);
+		Objects.checkFromIndexSize(0, n, out.length);
+		// (hash << 32 | index), sorted: every shard owns one contiguous hash range, so its keys end up adjacent.
+		long[] order = new long[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = ((long) smearedHashNonNull(keys[i]) << 32) | i;
+		}
+		Arrays.sort(order);
+
+		Directory<K, V> dir = directory;
+		for (int from = 0; from < n; ) {
+			Shard<K, V> shard = dir.shardOf((int) (order[from] >>> 32));
+			int to = from + 1;
+			while (to < n && shard.owns((int) (order[to] >>> 32))) to++;
+			getGroup(shard, keys, order, from, to, out);
+			from = to;
+		}
+	}
+
+	private void getGroup(Shard<K, V> shard, Object[] keys, long[] order, int from, int to, Object[] out) {
+		StampedLock lock = shard.lock;
+		AbstractSwissMap<K, V> map = shard.map;
 
 		long stamp = lock.tryOptimisticRead();
 		if (stamp != 0L) {
-			boolean ok = map.containsKeyConcurrent(key, h);
-			if (lock.validate(stamp)) return ok;
+			for (int j = from; j < to; j++) {
+				int i = (int) order[j];
+				out[i] = map.getConcurrent(keys[i], (int) (order[j] >>> 32));
+			}
+			if (!shard.retired && lock.validate(stamp)) return;
+		}
+
+		AbstractSwissMap.FrozenTable<V> frozen = map.frozenTable();
+		if (frozen != null) {
+			for (int j = from; j < to; j++) {
+				int i = (int) order[j];
+				out[i] = frozen.get(keys[i], (int) (order[j] >>> 32));
+			}
+			return;
 		}
 
-		// Fallback to read lock.
 		stamp = lock.readLock();
 		try {
-			return map.containsKeyConcurrent(key, h);
+			if (!shard.retired) {
+				for (int j = from; j < to; j++) {
+					int i = (int) order[j];
+					out[i] = map.getConcurrent(keys[i], (int) (order[j] >>> 32));
+				}
+				return;
+			}
 		} finally {
 			lock.unlockRead(stamp);
 		}
+		// Split since the directory was read: the group may now span both halves.
+		for (int j = from; j < to; j++) {
+			int i = (int) order[j];
+			out[i] = get(keys[i]);
+		}
 	}
 
 	@Override
 	public boolean containsValue(Object value) {
 		// Read-only scan; lock each shard to avoid concurrent structural changes.
-		for (int i = 0; i < maps.length; i++) {
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.readLock();
+		for (long cursor = 0L; cursor < HASH_SPACE; ) {
+			Shard<K, V> shard = directory.shardOf((int) cursor);
+			long stamp = shard.lock.readLock();
 			try {
-				if (map.containsValue(value)) return true;
+				if (shard.retired) continue; // split: rescan its range in the new halves
+				if (shard.map.containsValue(value)) return true;
 			} finally {
-				lock.unlockRead(stamp);
+				shard.lock.unlockRead(stamp);
 			}
+			cursor = shard.end();
 		}
 		return false;
 	}
@@ -161,236 +486,358 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 	@Override
 	public V put(K key, V value) {
 		int h = smearedHashNonNull(key);
-		int idx = shardOfHash(h);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-
-		long stamp = lock.writeLock();
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
 			return map.putConcurrent(key, value, h);
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public V remove(Object key) {
 		int h = smearedHashNonNull(key);
-		int idx = shardOfHash(h);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-
-		long stamp = lock.writeLock();
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
 			return map.removeConcurrent(key, h);
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public void putAll(Map<? extends K, ? extends V> m) {
-		// Batch by shard to reduce lock acquisitions.
-		@SuppressWarnings("unchecked")
-		ArrayList<Entry<? extends K, ? extends V>>[] buckets = (ArrayList<Entry<? extends K, ? extends V>>[])
-			new ArrayList[maps.length];
+		putAll(Long.MAX_VALUE, m);
+	}
 
+	/**
+	 * Bulk load: copies the mappings of {@code m} into flat arrays, hashing each key once, and groups them by
+	 * shard in place. Each shard is then write-locked once, grown at most once to fit its group and filled
+	 * through the hashed insert path. Once {@code m} holds at least {@code parallelismThreshold} mappings,
+	 * groups are loaded by tasks on the common {@link ForkJoinPool}, as in {@link #forEach(long, BiConsumer)};
+	 * {@link #putAll(Map)} loads sequentially. A null key is rejected before anything is inserted.
+	 */
+	public void putAll(long parallelismThreshold, Map<? extends K, ? extends V> m) {
+		if (parallelismThreshold <= 0L) throw new IllegalArgumentException("parallelismThreshold must be > 0");
+		int cap = m.size();
+		if (cap == 0) return;
+		Object[] keys = new Object[cap];
+		Object[] vals = new Object[cap];
+		int[] hashes = new int[cap];
+		int n = 0;
 		for (Entry<? extends K, ? extends V> e : m.entrySet()) {
-			int idx = shardOf(e.getKey());
-			ArrayList<Entry<? extends K, ? extends V>> b = buckets[idx];
-			if (b == null) {
-				b = new ArrayList<>();
-				buckets[idx] = b;
+			if (n == keys.length) { // m grew while being copied
+				int len = n + (n >> 1) + 1;
+				keys = Arrays.copyOf(keys, len);
+				vals = Arrays.copyOf(vals, len);
+				hashes = Arrays.copyOf(hashes, len);
 			}
-			b.add(e);
+			keys[n] = e.getKey();
+			vals[n] = e.getValue();
+			hashes[n] = smearedHashNonNull(keys[n]);
+			n++;
 		}
 
-		for (int i = 0; i < buckets.length; i++) {
-			ArrayList<Entry<? extends K, ? extends V>> b = buckets[i];
-			if (b == null) continue;
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.writeLock();
-			try {
-				for (Entry<? extends K, ? extends V> e : b) {
-					map.put(e.getKey(), e.getValue());
+		Directory<K, V> dir = directory;
+		groupBySlot(dir, keys, vals, hashes, n);
+		BulkLoad task = new BulkLoad(dir, keys, vals, hashes, 0, n, parallelismThreshold);
+		if (n < parallelismThreshold) task.compute();
+		else ForkJoinPool.commonPool().invoke(task);
+	}
+
+	/**
+	 * Permutes the first {@code n} entries in place so that those of each directory slot are adjacent, in slot
+	 * order (a one-pass American flag sort).
+	 */
+	private static void groupBySlot(Directory<?, ?> dir, Object[] keys, Object[] vals, int[] hashes, int n) {
+		int slots = dir.slots.length;
+		if (slots == 1) return;
+		int[] next = new int[slots];
+		int[] end = new int[slots];
+		for (int i = 0; i < n; i++) {
+			end[dir.slotOf(hashes[i])]++;
+		}
+		for (int s = 0, sum = 0; s < slots; s++) {
+			next[s] = sum;
+			sum += end[s];
+			end[s] = sum;
+		}
+		for (int s = 0; s < slots; s++) {
+			while (next[s] < end[s]) {
+				int i = next[s];
+				int t = dir.slotOf(hashes[i]);
+				if (t == s) {
+					next[s]++;
+					continue;
+				}
+				// Move entry i to its own slot's next free position and look at what came back.
+				int j = next[t]++;
+				Object k = keys[i];
+				keys[i] = keys[j];
+				keys[j] = k;
+				Object v = vals[i];
+				vals[i] = vals[j];
+				vals[j] = v;
+				int h = hashes[i];
+				hashes[i] = hashes[j];
+				hashes[j] = h;
+			}
+		}
+	}
+
+	/**
+	 * Inserts entries {@code [from, to)}, grouped by slot of {@code dir}. Ranges above the threshold are halved
+	 * at the nearest slot boundary, so a shard's group is normally loaded by one task under one lock.
+	 */
+	@SuppressWarnings("serial")
+	private final class BulkLoad extends RecursiveAction {
+		private final Directory<K, V> dir;
+		private final Object[] keys;
+		private final Object[] vals;
+		private final int[] hashes;
+		private final int from;
+		private final int to;
+		private final long threshold;
+
+		BulkLoad(Directory<K, V> dir, Object[] keys, Object[] vals, int[] hashes, int from, int to, long threshold) {
+			this.dir = dir;
+			this.keys = keys;
+			this.vals = vals;
+			this.hashes = hashes;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > threshold) {
+				int mid = (from + to) >>> 1;
+				while (mid < to && dir.slotOf(hashes[mid]) == dir.slotOf(hashes[mid - 1])) mid++;
+				if (mid < to) {
+					invokeAll(new BulkLoad(dir, keys, vals, hashes, from, mid, threshold),
+						new BulkLoad(dir, keys, vals, hashes, mid, to, threshold));
+					return;
+				}
+			}
+
+			for (int i = from; i < to; ) {
+				Shard<K, V> shard = writeLockShard(hashes[i]);
+				AbstractSwissMap<K, V> map = shard.map;
+				int before = map.size();
+				try {
+					// The run ends early only if the shard was split after dir was read.
+					int end = i + 1;
+					while (end < to && shard.owns(hashes[end])) end++;
+					map.reserveConcurrent(end - i);
+					for (; i < end; i++) {
+						@SuppressWarnings("unchecked")
+						K key = (K) keys[i];
+						@SuppressWarnings("unchecked")
+						V value = (V) vals[i];
+						map.putConcurrent(key, value, hashes[i]);
+					}
+				} finally {
+					unlockWrite(shard, before);
 				}
-			} finally {
-				lock.unlockWrite(stamp);
 			}
 		}
 	}
 
 	@Override
 	public void clear() {
-		for (int i = 0; i < maps.length; i++) {
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.writeLock();
+		// Shards are visited by hash range, so halves created by a concurrent split are not skipped.
+		for (long cursor = 0L; cursor < HASH_SPACE; ) {
+			Shard<K, V> shard = writeLockShard((int) cursor);
+			int before = shard.map.size();
 			try {
-				map.clear();
+				shard.map.clear();
 			} finally {
-				lock.unlockWrite(stamp);
+				unlockWrite(shard, before);
 			}
+			cursor = shard.end();
 		}
 	}
 
+	/**
+	 * Lock-free and weakly consistent: concurrent updates may or may not be reflected.
+	 */
 	@Override
 	public int size() {
-		long sum = 0L;
-		for (int i = 0; i < maps.length; i++) {
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.readLock();
-			try {
-				sum += map.size();
-			} finally {
-				lock.unlockRead(stamp);
-			}
-			if (sum > Integer.MAX_VALUE) return Integer.MAX_VALUE;
-		}
-		return (int) sum;
+		long n = mappingCount();
+		return (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+	}
+
+	/**
+	 * Number of mappings as a {@code long}, like {@code ConcurrentHashMap.mappingCount()}; use instead of
+	 * {@link #size()} for maps that may exceed {@code Integer.MAX_VALUE} entries. The value is an estimate
+	 * while writers are active.
+	 */
+	public long mappingCount() {
+		long n = sizeCounter.sum();
+		return Math.max(n, 0L); // transiently negative if a removal's cell is summed before the matching insert's
 	}
 
 	@Override
 	public boolean isEmpty() {
-		for (int i = 0; i < maps.length; i++) {
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.readLock();
-			try {
-				if (!map.isEmpty()) return false;
-			} finally {
-				lock.unlockRead(stamp);
-			}
-		}
-		return true;
+		return mappingCount() == 0L;
 	}
 
 	@Override
 	public V putIfAbsent(K key, V value) {
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = directory.shardOf(h);
+		// Hits are logically reads: answer them under an optimistic stamp and lock only to insert.
+		long stamp = shard.lock.tryOptimisticRead();
+		if (stamp != 0L) {
+			V cur = shard.map.getConcurrent(key, h);
+			if (cur != null && !shard.retired && shard.lock.validate(stamp)) return cur;
+		}
+
+		shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
+			int slot = map.findOrReserveConcurrent(key, h);
+			if (slot < 0) {
+				map.insertReservedConcurrent(~slot, key, value, h);
+				return null;
+			}
 			// Map/ConcurrentMap contract: treat "mapped-to-null" as absent and insert the value.
-			V cur = map.get(key);
-			if (cur != null) return cur;
-			map.put(key, value);
-			return null;
+			V cur = map.valueAtConcurrent(slot);
+			if (cur == null) map.setValueAtConcurrent(slot, value);
+			return cur;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public boolean remove(Object key, Object value) {
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			if (!map.containsKey(key)) return false;
-			Object cur = map.get(key);
-			if (!Objects.equals(cur, value)) return false;
-			map.remove(key);
+			int slot = map.indexOfConcurrent(key, h);
+			if (slot < 0 || !Objects.equals(map.valueAtConcurrent(slot), value)) return false;
+			map.removeAtConcurrent(slot);
 			return true;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public boolean replace(K key, V oldValue, V newValue) {
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			if (!map.containsKey(key)) return false;
-			Object cur = map.get(key);
-			if (!Objects.equals(cur, oldValue)) return false;
-			map.put(key, newValue);
+			int slot = map.indexOfConcurrent(key, h);
+			if (slot < 0 || !Objects.equals(map.valueAtConcurrent(slot), oldValue)) return false;
+			map.setValueAtConcurrent(slot, newValue);
 			return true;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public V replace(K key, V value) {
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			if (!map.containsKey(key)) return null;
-			return map.put(key, value);
+			int slot = map.indexOfConcurrent(key, h);
+			return (slot < 0) ? null : map.setValueAtConcurrent(slot, value);
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
 		Objects.requireNonNull(mappingFunction, "mappingFunction");
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = directory.shardOf(h);
+		// Optimistic hit path, as in putIfAbsent; the function only runs under the write lock.
+		long stamp = shard.lock.tryOptimisticRead();
+		if (stamp != 0L) {
+			V cur = shard.map.getConcurrent(key, h);
+			if (cur != null && !shard.retired && shard.lock.validate(stamp)) return cur;
+		}
+
+		shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			V cur = map.get(key);
-			if (cur != null) return cur;
+			// The function cannot write to this shard (the lock is not reentrant), so the reserved slot stays valid.
+			int slot = map.findOrReserveConcurrent(key, h);
+			if (slot >= 0) {
+				V cur = map.valueAtConcurrent(slot);
+				if (cur != null) return cur;
+			}
 			V newVal = mappingFunction.apply(key);
 			if (newVal == null) return null; // do not create a new mapping
-			map.put(key, newVal);
+			if (slot >= 0) map.setValueAtConcurrent(slot, newVal);
+			else map.insertReservedConcurrent(~slot, key, newVal, h);
 			return newVal;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
 		Objects.requireNonNull(remappingFunction, "remappingFunction");
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			V cur = map.get(key);
+			int slot = map.indexOfConcurrent(key, h);
+			if (slot < 0) return null;
+			V cur = map.valueAtConcurrent(slot);
 			if (cur == null) return null; // treat mapped-to-null as absent
 			V newVal = remappingFunction.apply(key, cur);
 			if (newVal == null) {
-				map.remove(key);
+				map.removeAtConcurrent(slot);
 				return null;
 			}
-			map.put(key, newVal);
+			map.setValueAtConcurrent(slot, newVal);
 			return newVal;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
 		Objects.requireNonNull(remappingFunction, "remappingFunction");
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			V oldVal = map.get(key);
+			int slot = map.findOrReserveConcurrent(key, h);
+			V oldVal = (slot >= 0) ? map.valueAtConcurrent(slot) : null;
 			V newVal = remappingFunction.apply(key, oldVal);
 			if (newVal == null) {
-                map.remove(key);
+				if (slot >= 0) map.removeAtConcurrent(slot);
 				return null;
 			}
-			map.put(key, newVal);
+			if (slot >= 0) map.setValueAtConcurrent(slot, newVal);
+			else map.insertReservedConcurrent(~slot, key, newVal, h);
 			return newVal;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
@@ -398,57 +845,175 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
 		Objects.requireNonNull(value, "value");
 		Objects.requireNonNull(remappingFunction, "remappingFunction");
-		int idx = shardOf(key);
-		StampedLock lock = locks[idx];
-		SwissMap<K, V> map = maps[idx];
-		long stamp = lock.writeLock();
+		int h = smearedHashNonNull(key);
+		Shard<K, V> shard = writeLockShard(h);
+		AbstractSwissMap<K, V> map = shard.map;
+		int before = map.size();
 		try {
-			V oldVal = map.get(key);
-			if (oldVal == null) {
-				map.put(key, value);
+			int slot = map.findOrReserveConcurrent(key, h);
+			if (slot < 0) {
+				map.insertReservedConcurrent(~slot, key, value, h);
 				return value;
 			}
-			V newVal = remappingFunction.apply(oldVal, value);
+			V oldVal = map.valueAtConcurrent(slot);
+			V newVal = (oldVal == null) ? value : remappingFunction.apply(oldVal, value);
 			if (newVal == null) {
-				map.remove(key);
+				map.removeAtConcurrent(slot);
 				return null;
 			}
-			map.put(key, newVal);
+			map.setValueAtConcurrent(slot, newVal);
 			return newVal;
 		} finally {
-			lock.unlockWrite(stamp);
+			unlockWrite(shard, before);
 		}
 	}
 
 	@Override
 	public void forEach(BiConsumer<? super K, ? super V> action) {
 		Objects.requireNonNull(action, "action");
-		for (Entry<K, V> e : snapshotEntries()) {
-			action.accept(e.getKey(), e.getValue());
+		// Shard at a time, without holding a lock while running the action (it may write to this map).
+		ShardBuffer buf = new ShardBuffer();
+		for (long cursor = 0L; cursor < HASH_SPACE; ) {
+			cursor = buf.load(cursor);
+			for (int j = 0; j < buf.count; j++) {
+				action.accept(buf.key(j), buf.value(j));
+			}
+		}
+		buf.release();
+	}
+
+	/**
+	 * Performs {@code action} for each mapping, like {@code ConcurrentHashMap.forEach(long, BiConsumer)}. Once
+	 * the map holds at least {@code parallelismThreshold} mappings, shards are fanned out to the common
+	 * {@link ForkJoinPool}; {@code Long.MAX_VALUE} keeps the traversal sequential and {@code 1} splits down to
+	 * single shards. Each shard is read as in {@link #forEach(BiConsumer)}.
+	 */
+	public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action, "action");
+		bulk(parallelismThreshold, (k, v) -> {
+			action.accept(k, v);
+			return null;
+		}, (a, b) -> null, null);
+	}
+
+	/**
+	 * Returns a non-null result of {@code searchFunction} on some mapping, or {@code null} if there is none,
+	 * like {@code ConcurrentHashMap.search}. Parallel as in {@link #forEach(long, BiConsumer)}; once a result
+	 * is found the remaining shards are skipped.
+	 */
+	public <U> U search(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+		Objects.requireNonNull(searchFunction, "searchFunction");
+		return bulk(parallelismThreshold, searchFunction, null, new AtomicReference<>());
+	}
+
+	/**
+	 * Combines the non-null results of {@code transformer} on all mappings with {@code reducer}, or returns
+	 * {@code null} if there are none, like {@code ConcurrentHashMap.reduce}. Parallel as in
+	 * {@link #forEach(long, BiConsumer)}.
+	 */
+	public <U> U reduce(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> transformer,
+		BiFunction<? super U, ? super U, ? extends U> reducer) {
+		Objects.requireNonNull(transformer, "transformer");
+		Objects.requireNonNull(reducer, "reducer");
+		return bulk(parallelismThreshold, transformer, reducer, null);
+	}
+
+	/**
+	 * Combines all non-null values with {@code reducer}, or returns {@code null} if there are none, like
+	 * {@code ConcurrentHashMap.reduceValues}. Parallel as in {@link #forEach(long, BiConsumer)}.
+	 */
+	public V reduceValues(long parallelismThreshold, BiFunction<? super V, ? super V, ? extends V> reducer) {
+		Objects.requireNonNull(reducer, "reducer");
+		return bulk(parallelismThreshold, (k, v) -> v, reducer, null);
+	}
+
+	private <U> U bulk(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> transformer,
+		BiFunction<? super U, ? super U, ? extends U> reducer, AtomicReference<U> found) {
+		if (parallelismThreshold <= 0L) throw new IllegalArgumentException("parallelismThreshold must be > 0");
+		long n = mappingCount();
+		BulkTask<U> task = new BulkTask<>(0L, HASH_SPACE, n, parallelismThreshold, transformer, reducer, found);
+		U result = (n < parallelismThreshold) ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+		return (found != null) ? found.get() : result;
+	}
+
+	/**
+	 * Visits the shards covering smeared hashes {@code [lo, hi)}, halving the range while it spans more than
+	 * one shard and its share of the mappings (keys are spread evenly by hashing) reaches the threshold. The
+	 * ranges stay aligned to powers of two, so a midpoint never falls inside a shard. Null transformer results
+	 * are skipped. A search ({@code found != null}) publishes the first hit there and stops every task at its
+	 * next entry.
+	 */
+	@SuppressWarnings("serial")
+	private final class BulkTask<U> extends RecursiveTask<U> {
+		private final long lo;
+		private final long hi;
+		private final long mappings;
+		private final long threshold;
+		private final BiFunction<? super K, ? super V, ? extends U> transformer;
+		private final BiFunction<? super U, ? super U, ? extends U> reducer;
+		private final AtomicReference<U> found;
+
+		BulkTask(long lo, long hi, long mappings, long threshold,
+			BiFunction<? super K, ? super V, ? extends U> transformer,
+			BiFunction<? super U, ? super U, ? extends U> reducer, AtomicReference<U> found) {
+			this.lo = lo;
+			this.hi = hi;
+			this.mappings = mappings;
+			this.threshold = threshold;
+			this.transformer = transformer;
+			this.reducer = reducer;
+			this.found = found;
+		}
+
+		@Override
+		protected U compute() {
+			if (directory.shardOf((int) lo).end() < hi && mappings / (HASH_SPACE / (hi - lo)) >= threshold) {
+				long mid = (lo + hi) >>> 1;
+				BulkTask<U> left = new BulkTask<>(lo, mid, mappings, threshold, transformer, reducer, found);
+				left.fork();
+				U right = new BulkTask<>(mid, hi, mappings, threshold, transformer, reducer, found).compute();
+				return combine(left.join(), right);
+			}
+
+			U acc = null;
+			ShardBuffer buf = new ShardBuffer();
+			for (long cursor = lo; cursor < hi; ) {
+				if (found != null && found.get() != null) return null;
+				cursor = buf.load(cursor);
+				for (int j = 0; j < buf.count; j++) {
+					if (found != null && j != 0 && found.get() != null) return null;
+					U u = transformer.apply(buf.key(j), buf.value(j));
+					if (u == null) continue;
+					if (found != null) {
+						found.compareAndSet(null, u);
+						return null;
+					}
+					acc = combine(acc, u);
+				}
+			}
+			return acc;
+		}
+
+		private U combine(U a, U b) {
+			if (a == null) return b;
+			if (b == null) return a;
+			return reducer.apply(a, b);
 		}
 	}
 
 	@Override
 	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
 		Objects.requireNonNull(function, "function");
-		for (int i = 0; i < maps.length; i++) {
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.writeLock();
+		for (long cursor = 0L; cursor < HASH_SPACE; ) {
+			Shard<K, V> shard = writeLockShard((int) cursor);
+			int before = shard.map.size();
 			try {
-				// Avoid mutating while iterating the core map by snapshotting keys first.
-				ArrayList<K> keys = new ArrayList<>(map.size());
-				for (Entry<K, V> e : map.entrySet()) {
-					keys.add(e.getKey());
-				}
-				for (K k : keys) {
-					V oldVal = map.get(k);
-					V newVal = function.apply(k, oldVal);
-					map.put(k, newVal);
-				}
+				// Values are replaced in place; the function cannot write to this shard (the lock is not reentrant).
+				shard.map.replaceAllConcurrent(function);
 			} finally {
-				lock.unlockWrite(stamp);
+				unlockWrite(shard, before);
 			}
+			cursor = shard.end();
 		}
 	}
 
@@ -521,45 +1086,26 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 
 		@Override
 		public boolean remove(Object o) {
-			int idx = shardOf(o);
-			StampedLock lock = locks[idx];
-			SwissMap<K, V> map = maps[idx];
-			long stamp = lock.writeLock();
+			int h = smearedHashNonNull(o);
+			Shard<K, V> shard = writeLockShard(h);
+			AbstractSwissMap<K, V> map = shard.map;
+			int before = map.size();
 			try {
-				if (!map.containsKey(o)) return false;
-				map.remove(o);
+				int slot = map.indexOfConcurrent(o, h);
+				if (slot < 0) return false;
+				map.removeAtConcurrent(slot);
 				return true;
 			} finally {
-				lock.unlockWrite(stamp);
+				unlockWrite(shard, before);
 			}
 		}
 
 		@Override
 		public Iterator<K> iterator() {
-			ArrayList<Entry<K, V>> snap = snapshotEntries();
-			return new Iterator<>() {
-				private int i = 0;
-				private K lastKey;
-				private boolean canRemove;
-
-				@Override
-				public boolean hasNext() {
-					return i < snap.size();
-				}
-
-				@Override
-				public K next() {
-					Entry<K, V> e = snap.get(i++);
-					lastKey = e.getKey();
-					canRemove = true;
-					return lastKey;
-				}
-
+			return new ShardIterator<>() {
 				@Override
-				public void remove() {
-					if (!canRemove) throw new IllegalStateException();
-					ConcurrentSwissMap.this.remove(lastKey);
-					canRemove = false;
+				K element(K key, V value) {
+					return key;
 				}
 			};
 		}
@@ -588,30 +1134,10 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 
 		@Override
 		public Iterator<V> iterator() {
-			ArrayList<Entry<K, V>> snap = snapshotEntries();
-			return new Iterator<>() {
-				private int i = 0;
-				private K lastKey;
-				private boolean canRemove;
-
+			return new ShardIterator<>() {
 				@Override
-				public boolean hasNext() {
-					return i < snap.size();
-				}
-
-				@Override
-				public V next() {
-					Entry<K, V> e = snap.get(i++);
-					lastKey = e.getKey();
-					canRemove = true;
-					return e.getValue();
-				}
-
-				@Override
-				public void remove() {
-					if (!canRemove) throw new IllegalStateException();
-					ConcurrentSwissMap.this.remove(lastKey);
-					canRemove = false;
+				V element(K key, V value) {
+					return value;
 				}
 			};
 		}
@@ -619,20 +1145,20 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 		@Override
 		public boolean remove(Object o) {
 			// Remove one occurrence (first match).
-			for (int i = 0; i < maps.length; i++) {
-				StampedLock lock = locks[i];
-				SwissMap<K, V> map = maps[i];
-				long stamp = lock.writeLock();
+			for (long cursor = 0L; cursor < HASH_SPACE; ) {
+				Shard<K, V> shard = writeLockShard((int) cursor);
+				AbstractSwissMap<K, V> map = shard.map;
+				int before = map.size();
 				try {
-					for (Entry<K, V> e : map.entrySet()) {
-						if (Objects.equals(e.getValue(), o)) {
-							map.remove(e.getKey());
-							return true;
-						}
+					int slot = map.indexOfValueConcurrent(o);
+					if (slot >= 0) {
+						map.removeAtConcurrent(slot);
+						return true;
 					}
 				} finally {
-					lock.unlockWrite(stamp);
+					unlockWrite(shard, before);
 				}
+				cursor = shard.end();
 			}
 			return false;
 		}
@@ -669,71 +1195,163 @@ public final class ConcurrentSwissMap<K, V> implements ConcurrentMap<K, V> {
 			Object key = e.getKey();
 			Object expected = e.getValue();
 			int h = smearedHashNonNull(key);
-			int idx = shardOfHash(h);
-			StampedLock lock = locks[idx];
-			SwissMap<K, V> map = maps[idx];
-			long stamp = lock.writeLock();
+			Shard<K, V> shard = writeLockShard(h);
+			AbstractSwissMap<K, V> map = shard.map;
+			int before = map.size();
 			try {
-				if (!map.containsKeyConcurrent(key, h)) return false;
-				Object actual = map.getConcurrent(key, h);
-				if (!Objects.equals(actual, expected)) return false;
-				map.removeConcurrent(key, h);
+				int slot = map.indexOfConcurrent(key, h);
+				if (slot < 0 || !Objects.equals(map.valueAtConcurrent(slot), expected)) return false;
+				map.removeAtConcurrent(slot);
 				return true;
 			} finally {
-				lock.unlockWrite(stamp);
+				unlockWrite(shard, before);
 			}
 		}
 
 		@Override
 		public Iterator<Entry<K, V>> iterator() {
-			// Phase 1: snapshot iterator (weakly consistent). iterator.remove delegates to map.remove.
-			ArrayList<Entry<K, V>> snap = snapshotEntries();
-			return new SnapshotEntryIterator(snap);
+			return new ShardIterator<>() {
+				@Override
+				Entry<K, V> element(K key, V value) {
+					return new SnapshotEntry(key, value);
+				}
+			};
 		}
 	}
 
-	private ArrayList<Entry<K, V>> snapshotEntries() {
-		ArrayList<Entry<K, V>> out = new ArrayList<>();
-		for (int i = 0; i < maps.length; i++) {
-			StampedLock lock = locks[i];
-			SwissMap<K, V> map = maps[i];
-			long stamp = lock.readLock();
-			try {
-				for (Entry<K, V> e : map.entrySet()) {
-					out.add(new SnapshotEntry(e.getKey(), e.getValue()));
+	private static final Object[] EMPTY_BUFFER = {};
+
+	/**
+	 * Reusable copy of one shard's entries, used by iteration and {@link #forEach}. A shard is read under an
+	 * optimistic stamp first and under the read lock only if a writer interferes; the entries are consumed
+	 * after the lock is gone. Memory is bounded by the largest shard instead of the whole map.
+	 */
+	private final class ShardBuffer {
+		private Object[] keys = EMPTY_BUFFER;
+		private Object[] vals = EMPTY_BUFFER;
+		int count;
+
+		/**
+		 * Replaces the buffered entries with those of the shard owning hash {@code cursor} (a shard boundary)
+		 * and returns the boundary after it.
+		 */
+		long load(long cursor) {
+			release();
+			for (;;) {
+				Shard<K, V> shard = directory.shardOf((int) cursor);
+				if (load(shard)) return shard.end();
+				// Split since the directory was read: load its first half instead.
+			}
+		}
+
+		private boolean load(Shard<K, V> shard) {
+			StampedLock lock = shard.lock;
+			AbstractSwissMap<K, V> map = shard.map;
+
+			long stamp = lock.tryOptimisticRead();
+			if (stamp != 0L) {
+				ensureCapacity(map.size());
+				int n = map.copyEntriesConcurrent(keys, vals);
+				if (n >= 0 && lock.validate(stamp)) {
+					if (shard.retired) {
+						Arrays.fill(keys, 0, n, null);
+						Arrays.fill(vals, 0, n, null);
+						return false;
+					}
+					count = n;
+					return true;
 				}
+				// A torn copy may have written past any count we know of.
+				Arrays.fill(keys, null);
+				Arrays.fill(vals, null);
+			}
+
+			AbstractSwissMap.FrozenTable<V> frozen = map.frozenTable();
+			if (frozen != null) {
+				ensureCapacity(frozen.size());
+				count = frozen.copyEntries(keys, vals);
+				return true;
+			}
+
+			// Fallback to read lock.
+			stamp = lock.readLock();
+			try {
+				if (shard.retired) return false;
+				ensureCapacity(map.size());
+				count = map.copyEntriesConcurrent(keys, vals);
+				return true;
 			} finally {
 				lock.unlockRead(stamp);
 			}
 		}
-		return out;
+
+		/** Drops references to the buffered entries (keeps the arrays for the next shard). */
+		void release() {
+			Arrays.fill(keys, 0, count, null);
+			Arrays.fill(vals, 0, count, null);
+			count = 0;
+		}
+
+		private void ensureCapacity(int n) {
+			if (n <= keys.length) return;
+			int len = Math.max(n, keys.length + (keys.length >> 1));
+			keys = new Object[len];
+			vals = new Object[len];
+		}
+
+		@SuppressWarnings("unchecked")
+		K key(int i) {
+			return (K) keys[i];
+		}
+
+		@SuppressWarnings("unchecked")
+		V value(int i) {
+			return (V) vals[i];
+		}
 	}
 
-	private final class SnapshotEntryIterator implements Iterator<Entry<K, V>> {
-		private final ArrayList<Entry<K, V>> snap;
-		private int idx = 0;
+	/**
+	 * Weakly consistent iterator: walks the shards in hash order, buffering one shard at a time. Each shard is seen
+	 * as of the moment the iterator reaches it; never throws {@link java.util.ConcurrentModificationException}.
+	 * {@code remove()} delegates to {@link #remove(Object)}.
+	 */
+	private abstract class ShardIterator<T> implements Iterator<T> {
+		private final ShardBuffer buf = new ShardBuffer();
+		/** Start of the next shard's hash range; splits only refine ranges, so it stays a shard boundary. */
+		private long cursor;
+		private int pos;
 		private K lastKey;
 		private boolean canRemove;
 
-		SnapshotEntryIterator(ArrayList<Entry<K, V>> snap) {
-			this.snap = snap;
-		}
+		abstract T element(K key, V value);
 
 		@Override
-		public boolean hasNext() {
-			return idx < snap.size();
+		public final boolean hasNext() {
+			while (pos == buf.count) {
+				if (cursor == HASH_SPACE) {
+					buf.release();
+					pos = 0;
+					return false;
+				}
+				cursor = buf.load(cursor);
+				pos = 0;
+			}
+			return true;
 		}
 
 		@Override
-		public Entry<K, V> next() {
-			Entry<K, V> e = snap.get(idx++);
-			lastKey = e.getKey();
+		public final T next() {
+			if (!hasNext()) throw new NoSuchElementException();
+			K key = buf.key(pos);
+			V value = buf.value(pos);
+			pos++;
+			lastKey = key;
 			canRemove = true;
-			return e;
+			return element(key, value);
 		}
 
 		@Override
-		public void remove() {
+		public final void remove() {
 			if (!canRemove) throw new IllegalStateException();
 			ConcurrentSwissMap.this.remove(lastKey);
 			canRemove = false;
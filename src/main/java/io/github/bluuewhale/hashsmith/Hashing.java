@@ -31,4 +31,12 @@ final class Hashing {
 		return smear((o == null) ? 0 : o.hashCode());
 	}
 
+	/**
+	 * Primitive counterpart of {@link #smearedHash(Object)}: same value as hashing a boxed {@link Long}.
+	 * Not an overload on purpose, so that {@code int} arguments are never silently widened.
+	 */
+	static int smearLong(long key) {
+		return smear(Long.hashCode(key));
+	}
+
 }
@@ -0,0 +1,238 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * File-backed {@code long -> long} SwissTable whose in-memory layout is the on-disk format.
+ * <p>
+ * The file is {@code [header][ctrl words (1 per group)][key, value pairs]}, little-endian, mapped with
+ * {@link FileChannel#map}. Opening an existing file only maps it and reads the header, so a multi-GB table is
+ * usable immediately after a restart; pages fault in on first touch. Probing is the SWAR scheme of
+ * {@link SwissMap} and {@link OffHeapSwissLongLongMap}.
+ * <p>
+ * Header words: magic, format version, capacity, size, tombstones, load factor bits, {@code noEntryValue},
+ * and a clean-shutdown flag. The counts are written on {@link #flush()} and {@link #close()}; a file that was
+ * not closed cleanly is reopened by recounting the control words (one sequential pass, no rehash).
+ * <p>
+ * Growth rehashes into a sibling {@code <file>.rehash} and atomically moves it over the original, so the file
+ * at {@code path} is always a complete table. If that fails with an {@link UncheckedIOException}, the map stays
+ * on its current table and file, and the partial {@code .rehash} file is deleted. Not thread-safe, and one open
+ * instance per file.
+ * <p>
+ * Windows does not allow replacing a file that is still mapped, and JDK 21 cannot unmap a buffer eagerly, so
+ * growth fails there; create the table with an {@code initialCapacity} that covers its final size.
+ */
+public final class MappedSwissLongLongMap extends OffHeapSwissLongLongMap {
+
+	/* Load factor: similar to Abseil SwissTable (7/8) */
+	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	/* On-disk header */
+	static final long MAGIC = 0x4853_5357_4C4C_4D50L; // "HSSWLLMP"
+	static final long FORMAT_VERSION = 1L;
+	static final int HEADER_WORDS = 8;
+	private static final int H_MAGIC = 0;
+	private static final int H_VERSION = 1;
+	private static final int H_CAPACITY = 2;
+	private static final int H_SIZE = 3;
+	private static final int H_TOMBSTONES = 4;
+	private static final int H_LOAD_FACTOR = 5;
+	private static final int H_NO_ENTRY_VALUE = 6;
+	private static final int H_STATE = 7;
+	private static final long STATE_CLEAN = 0L;
+	private static final long STATE_DIRTY = 1L;
+
+	private final Path path;
+	private final Path rehashPath;
+	private FileChannel channel;
+	private FileChannel rehashChannel; // target of an in-flight rehash
+
+	private MappedSwissLongLongMap(Path path, FileChannel channel, OffHeapLongArray table, int capacity,
+		int size, int tombstones, double loadFactor, long noEntryValue) {
+		super(table, HEADER_WORDS, capacity, size, tombstones, loadFactor, noEntryValue);
+		this.path = path;
+		this.rehashPath = path.resolveSibling(path.getFileName() + ".rehash");
+		this.channel = channel;
+	}
+
+	/**
+	 * Opens {@code path}, creating an empty table with default settings if it does not exist.
+	 */
+	public static MappedSwissLongLongMap open(Path path) throws IOException {
+		return open(path, 16, DEFAULT_LOAD_FACTOR, 0L);
+	}
+
+	/**
+	 * Opens {@code path}, creating it if it does not exist or is empty.
+	 * <p>
+	 * {@code initialCapacity}, {@code loadFactor} and {@code noEntryValue} only apply to a newly created file;
+	 * an existing file keeps the settings recorded in its header.
+	 *
+	 * @throws IOException if the file cannot be mapped, or is not a table of a supported format version
+	 */
+	public static MappedSwissLongLongMap open(Path path, int initialCapacity, double loadFactor, long noEntryValue)
+		throws IOException {
+		Objects.requireNonNull(path, "path");
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		}
+		Utils.validateLoadFactor(loadFactor);
+		FileChannel channel = FileChannel.open(path,
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			MappedSwissLongLongMap map = (channel.size() == 0)
+				? create(path, channel, initialCapacity, loadFactor, noEntryValue)
+				: attach(path, channel);
+			map.table().set(H_STATE, STATE_DIRTY);
+			return map;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static MappedSwissLongLongMap create(Path path, FileChannel channel, int initialCapacity,
+		double loadFactor, long noEntryValue) throws IOException {
+		int capacity = Swar.groupsFor(Math.min(initialCapacity, MAX_CAPACITY)) * Swar.GROUP_SIZE;
+		OffHeapLongArray table = OffHeapLongArray.map(channel, wordsFor(capacity));
+		table.fill(HEADER_WORDS, HEADER_WORDS + capacity / Swar.GROUP_SIZE, Swar.EMPTY_WORD);
+		table.set(H_MAGIC, MAGIC);
+		table.set(H_VERSION, FORMAT_VERSION);
+		table.set(H_CAPACITY, capacity);
+		table.set(H_LOAD_FACTOR, Double.doubleToRawLongBits(loadFactor));
+		table.set(H_NO_ENTRY_VALUE, noEntryValue);
+		return new MappedSwissLongLongMap(path, channel, table, capacity, 0, 0, loadFactor, noEntryValue);
+	}
+
+	private static MappedSwissLongLongMap attach(Path path, FileChannel channel) throws IOException {
+		if (channel.size() < HEADER_WORDS * 8L) throw new IOException("Truncated header: " + path);
+		OffHeapLongArray header = OffHeapLongArray.map(channel, HEADER_WORDS);
+		if (header.get(H_MAGIC) != MAGIC) throw new IOException("Not a MappedSwissLongLongMap file: " + path);
+		long version = header.get(H_VERSION);
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported format version " + version + " (expected " + FORMAT_VERSION + "): " + path);
+		}
+		long capacity = header.get(H_CAPACITY);
+		if (capacity < Swar.GROUP_SIZE || capacity > MAX_CAPACITY || Long.bitCount(capacity) != 1) {
+			throw new IOException("Corrupt capacity " + capacity + ": " + path);
+		}
+		long words = wordsFor((int) capacity);
+		if (channel.size() < words * 8L) throw new IOException("Truncated table: " + path);
+
+		double loadFactor = Double.longBitsToDouble(header.get(H_LOAD_FACTOR));
+		long noEntryValue = header.get(H_NO_ENTRY_VALUE);
+		boolean clean = header.get(H_STATE) == STATE_CLEAN;
+		MappedSwissLongLongMap map = new MappedSwissLongLongMap(path, channel, OffHeapLongArray.map(channel, words),
+			(int) capacity, (int) header.get(H_SIZE), (int) header.get(H_TOMBSTONES), loadFactor, noEntryValue);
+		if (!clean) map.recount(); // counts on disk may predate the last mutations
+		return map;
+	}
+
+	private static long wordsFor(int capacity) {
+		return HEADER_WORDS + capacity / Swar.GROUP_SIZE + 2L * capacity;
+	}
+
+	public Path path() {
+		return path;
+	}
+
+	/**
+	 * Records the current size and tombstones in the header and forces all mapped pages to storage.
+	 */
+	public void flush() {
+		size(); // ensureOpen
+		writeCounts(table());
+		table().force();
+	}
+
+	/**
+	 * Flushes, marks the file as cleanly closed and closes it. Idempotent.
+	 */
+	@Override
+	public void close() {
+		if (channel == null) return;
+		try {
+			OffHeapLongArray table = table();
+			writeCounts(table);
+			table.set(H_STATE, STATE_CLEAN);
+			table.force();
+			super.close();
+			channel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			channel = null;
+		}
+	}
+
+	private void writeCounts(OffHeapLongArray table) {
+		table.set(H_SIZE, size());
+		table.set(H_TOMBSTONES, tombstones());
+	}
+
+	@Override
+	OffHeapLongArray newTable(long words) {
+		try {
+			rehashChannel = FileChannel.open(rehashPath, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			return OffHeapLongArray.map(rehashChannel, words);
+		} catch (IOException e) {
+			throw discardRehash(new UncheckedIOException("Failed to allocate rehash target " + rehashPath, e));
+		}
+	}
+
+	@Override
+	void commitTable(OffHeapLongArray table, int capacity) {
+		table.set(H_MAGIC, MAGIC);
+		table.set(H_VERSION, FORMAT_VERSION);
+		table.set(H_CAPACITY, capacity);
+		table.set(H_SIZE, size());
+		table.set(H_TOMBSTONES, 0L);
+		table.set(H_LOAD_FACTOR, Double.doubleToRawLongBits(loadFactor()));
+		table.set(H_NO_ENTRY_VALUE, noEntryValue());
+		table.set(H_STATE, STATE_DIRTY);
+		table.force();
+		try {
+			Files.move(rehashPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			table.release();
+			throw discardRehash(new UncheckedIOException("Failed to replace " + path, e));
+		}
+	}
+
+	@Override
+	void tableReplaced(OffHeapLongArray old) {
+		old.release();
+		FileChannel oldChannel = channel;
+		channel = rehashChannel;
+		rehashChannel = null;
+		try {
+			oldChannel.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to close the replaced table of " + path, e);
+		}
+	}
+
+	/**
+	 * Closes and deletes an abandoned rehash target, if one was opened, and returns {@code failure} to throw.
+	 */
+	private UncheckedIOException discardRehash(UncheckedIOException failure) {
+		if (rehashChannel == null) return failure;
+		try {
+			rehashChannel.close();
+			Files.deleteIfExists(rehashPath);
+		} catch (IOException e) {
+			failure.addSuppressed(e);
+		} finally {
+			rehashChannel = null;
+		}
+		return failure;
+	}
+}
@@ -0,0 +1,104 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * {@code long}-indexed array of {@code long}s stored outside the Java heap.
+ * <p>
+ * Backed by direct {@link ByteBuffer} chunks of {@code 2^CHUNK_SHIFT} words each, so a single array can exceed
+ * the 2 GiB limit of one buffer. The GC only ever sees the handful of chunk objects, regardless of length.
+ * Words never straddle chunks.
+ * <p>
+ * {@link #map} backs the array with a file instead; mapped words are little-endian regardless of platform,
+ * so the file is portable.
+ */
+final class OffHeapLongArray {
+
+	/* 2^27 words = 1 GiB per chunk */
+	static final int CHUNK_SHIFT = 27;
+	static final long CHUNK_WORDS = 1L << CHUNK_SHIFT;
+	private static final long CHUNK_MASK = CHUNK_WORDS - 1;
+
+	private final long length;
+	private ByteBuffer[] chunks;
+
+	private OffHeapLongArray(long length, ByteBuffer[] chunks) {
+		this.length = length;
+		this.chunks = chunks;
+	}
+
+	/**
+	 * Allocates {@code length} zeroed words.
+	 */
+	static OffHeapLongArray allocate(long length) {
+		if (length < 0) throw new IllegalArgumentException("length must be >= 0: " + length);
+		int nChunks = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+		ByteBuffer[] chunks = new ByteBuffer[Math.max(1, nChunks)];
+		long remaining = length;
+		for (int i = 0; i < chunks.length; i++) {
+			long words = Math.min(remaining, CHUNK_WORDS);
+			chunks[i] = ByteBuffer.allocateDirect((int) (words << 3)).order(ByteOrder.nativeOrder());
+			remaining -= words;
+		}
+		return new OffHeapLongArray(length, chunks);
+	}
+
+	/**
+	 * Maps the first {@code length} words of {@code channel} read-write, growing the file if needed.
+	 * Existing contents are visible as-is; newly grown regions read as zero.
+	 */
+	static OffHeapLongArray map(FileChannel channel, long length) throws IOException {
+		if (length < 0) throw new IllegalArgumentException("length must be >= 0: " + length);
+		int nChunks = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+		ByteBuffer[] chunks = new ByteBuffer[Math.max(1, nChunks)];
+		long remaining = length;
+		for (int i = 0; i < chunks.length; i++) {
+			long words = Math.min(remaining, CHUNK_WORDS);
+			chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, ((long) i << CHUNK_SHIFT) << 3, words << 3)
+				.order(ByteOrder.LITTLE_ENDIAN);
+			remaining -= words;
+		}
+		return new OffHeapLongArray(length, chunks);
+	}
+
+	long length() {
+		return length;
+	}
+
+	long get(long index) {
+		return chunks[(int) (index >>> CHUNK_SHIFT)].getLong((int) (index & CHUNK_MASK) << 3);
+	}
+
+	void set(long index, long value) {
+		chunks[(int) (index >>> CHUNK_SHIFT)].putLong((int) (index & CHUNK_MASK) << 3, value);
+	}
+
+	void fill(long fromIndex, long toIndex, long value) {
+		for (long i = fromIndex; i < toIndex; i++) set(i, value);
+	}
+
+	/**
+	 * Writes dirty pages of a file-backed array to storage; no-op for anonymous memory.
+	 */
+	void force() {
+		for (ByteBuffer chunk : chunks) {
+			if (chunk instanceof MappedByteBuffer mapped) mapped.force();
+		}
+	}
+
+	boolean isReleased() {
+		return chunks == null;
+	}
+
+	/**
+	 * Drops the chunk references. The native memory is returned by each buffer's cleaner once the chunks
+	 * become unreachable; any further access fails with a {@link NullPointerException}.
+	 */
+	void release() {
+		chunks = null;
+	}
+}
@@ -0,0 +1,425 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Objects;
+
+/**
+ * Off-heap {@code long -> long} SwissTable for very large tables.
+ * <p>
+ * Control words and fixed-width slots live in native memory ({@link OffHeapLongArray}), laid out as
+ * {@code [ctrl words (1 per group)][key, value pairs]}. Probing is the SWAR scheme of {@link SwissMap}
+ * ({@code eqMask} over 8 packed control bytes, triangular group steps); only the loads differ.
+ * Growth rehashes into a freshly allocated native table, so the Java heap never holds per-entry data
+ * and table size does not affect GC cost.
+ * <p>
+ * The native memory is held by direct buffers, so it counts against {@code -XX:MaxDirectMemorySize}. A table
+ * replaced by a rehash or released by {@link #close()} is freed once its buffers are collected, not at once.
+ * <p>
+ * Not thread-safe. Call {@link #close()} when done; any use after close throws {@link IllegalStateException}.
+ */
+public class OffHeapSwissLongLongMap implements AutoCloseable {
+
+	/* Load factor: similar to Abseil SwissTable (7/8) */
+	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
+
+	/* Table sizing: capacity stays an int (max 2^30 slots), slot offsets are longs */
+	static final int MAX_CAPACITY = 1 << 30;
+
+	/* Storage and state */
+	private final double loadFactor;
+	private final long noEntryValue;
+	private OffHeapLongArray table; // [ctrlBase reserved words][ctrl words][(key, value) pairs]
+	private final long ctrlBase;    // word offset of ctrl word 0
+	private long slotBase;          // word offset of slot 0
+	private int groupMask;          // (nGroups - 1), nGroups is power-of-two
+	private int capacity;
+	private int size;
+	private int tombstones;         // deleted slots
+	private int maxLoad;
+
+	public OffHeapSwissLongLongMap() {
+		this(16, DEFAULT_LOAD_FACTOR, 0L);
+	}
+
+	public OffHeapSwissLongLongMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, 0L);
+	}
+
+	public OffHeapSwissLongLongMap(int initialCapacity, double loadFactor, long noEntryValue) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("initialCapacity must be >= 0: " + initialCapacity);
+		}
+		Utils.validateLoadFactor(loadFactor);
+		this.loadFactor = loadFactor;
+		this.noEntryValue = noEntryValue;
+		this.ctrlBase = 0;
+		init(Swar.groupsFor(Math.min(initialCapacity, MAX_CAPACITY)));
+	}
+
+	/**
+	 * Attaches to an existing table whose ctrl words start at {@code ctrlBase} (subclasses keep a header in
+	 * the words before it). No words are touched, so attaching is O(1).
+	 */
+	OffHeapSwissLongLongMap(OffHeapLongArray table, long ctrlBase, int capacity, int size, int tombstones,
+		double loadFactor, long noEntryValue) {
+		Utils.validateLoadFactor(loadFactor);
+		this.loadFactor = loadFactor;
+		this.noEntryValue = noEntryValue;
+		this.ctrlBase = ctrlBase;
+		install(table, capacity);
+		this.size = size;
+		this.tombstones = tombstones;
+	}
+
+	private void init(int nGroups) {
+		// Allocated directly rather than through newTable, which subclasses may override and is only for rehash.
+		long slotBase = ctrlBase + nGroups;
+		OffHeapLongArray table = OffHeapLongArray.allocate(slotBase + 2L * nGroups * Swar.GROUP_SIZE);
+		table.fill(ctrlBase, slotBase, Swar.EMPTY_WORD);
+		install(table, nGroups * Swar.GROUP_SIZE);
+		this.size = 0;
+		this.tombstones = 0;
+	}
+
+	/**
+	 * Allocates a table of {@code nGroups} groups with every ctrl word EMPTY. No field is touched, so a failed
+	 * allocation leaves the map on its current table.
+	 */
+	private OffHeapLongArray newEmptyTable(int nGroups) {
+		long slotBase = ctrlBase + nGroups;
+		OffHeapLongArray table = newTable(slotBase + 2L * nGroups * Swar.GROUP_SIZE);
+		table.fill(ctrlBase, slotBase, Swar.EMPTY_WORD);
+		return table;
+	}
+
+	/**
+	 * Switches the map to {@code table}; the geometry fields only ever change together with it.
+	 */
+	private void install(OffHeapLongArray table, int capacity) {
+		this.table = table;
+		this.capacity = capacity;
+		this.groupMask = capacity / Swar.GROUP_SIZE - 1;
+		this.slotBase = ctrlBase + groupMask + 1;
+		this.maxLoad = Utils.calcMaxLoad(capacity, loadFactor);
+	}
+
+	/* Storage hooks for subclasses that keep the table somewhere other than anonymous native memory */
+
+	/**
+	 * Returns zeroed storage of {@code words} words for a rehash target; words before {@code ctrlBase} are the
+	 * caller's.
+	 */
+	OffHeapLongArray newTable(long words) {
+		return OffHeapLongArray.allocate(words);
+	}
+
+	/**
+	 * Called once a rehash has copied every entry into {@code table} ({@code capacity} slots, no tombstones),
+	 * before the map switches to it. Throwing here leaves the map on its current table.
+	 */
+	void commitTable(OffHeapLongArray table, int capacity) {}
+
+	/**
+	 * Called after a rehash has moved every entry out of {@code old}; the new table is already installed.
+	 */
+	void tableReplaced(OffHeapLongArray old) {
+		old.release();
+	}
+
+	/**
+	 * Recomputes size and tombstones from the control words, for tables whose recorded counts are not trusted.
+	 */
+	final void recount() {
+		int size = 0;
+		int tombstones = 0;
+		for (int g = 0; g <= groupMask; g++) {
+			long word = table.get(ctrlBase + g);
+			for (int j = 0; j < Swar.GROUP_SIZE; j++) {
+				byte c = (byte) (word >>> (j << 3));
+				if (Swar.isFull(c)) size++;
+				else if (Swar.isDeleted(c)) tombstones++;
+			}
+		}
+		this.size = size;
+		this.tombstones = tombstones;
+	}
+
+	final OffHeapLongArray table() {
+		return table;
+	}
+
+	final int capacity() {
+		return capacity;
+	}
+
+	final int tombstones() {
+		return tombstones;
+	}
+
+	final double loadFactor() {
+		return loadFactor;
+	}
+
+	/**
+	 * Value returned by {@link #get}, {@link #put} and {@link #remove} when the key is absent.
+	 */
+	public long noEntryValue() {
+		return noEntryValue;
+	}
+
+	public int size() {
+		ensureOpen();
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public boolean containsKey(long key) {
+		ensureOpen();
+		return findIndex(key) >= 0;
+	}
+
+	public long get(long key) {
+		ensureOpen();
+		int idx = findIndex(key);
+		return (idx >= 0) ? valueAt(idx) : noEntryValue;
+	}
+
+	public long getOrDefault(long key, long defaultValue) {
+		ensureOpen();
+		int idx = findIndex(key);
+		return (idx >= 0) ? valueAt(idx) : defaultValue;
+	}
+
+	/**
+	 * @return the previous value, or {@link #noEntryValue()} if the key was absent
+	 */
+	public long put(long key, long value) {
+		ensureOpen();
+		maybeRehash();
+		int idx = findOrInsert(key);
+		if (idx < 0) {
+			setValueAt(~idx, value);
+			return noEntryValue;
+		}
+		long old = valueAt(idx);
+		setValueAt(idx, value);
+		return old;
+	}
+
+	/**
+	 * Adds {@code delta} to the value mapped to {@code key} with a single probe, starting from
+	 * {@link #noEntryValue()} when the key is absent.
+	 *
+	 * @return the updated value
+	 */
+	public long addTo(long key, long delta) {
+		ensureOpen();
+		maybeRehash();
+		int idx = findOrInsert(key);
+		long v = (idx < 0) ? noEntryValue + delta : valueAt(idx) + delta;
+		setValueAt((idx < 0) ? ~idx : idx, v);
+		return v;
+	}
+
+	/**
+	 * @return the removed value, or {@link #noEntryValue()} if the key was absent
+	 */
+	public long remove(long key) {
+		ensureOpen();
+		int idx = findIndex(key);
+		if (idx < 0) return noEntryValue;
+		long old = valueAt(idx);
+		setCtrlAt(idx, Swar.DELETED);
+		size--;
+		tombstones++;
+		maybeRehash();
+		return old;
+	}
+
+	public void clear() {
+		ensureOpen();
+		table.fill(ctrlBase, slotBase, Swar.EMPTY_WORD);
+		size = 0;
+		tombstones = 0;
+	}
+
+	/**
+	 * Visits every mapping. The map must not be structurally modified by {@code action}.
+	 */
+	public void forEach(SwissLongLongMap.LongLongConsumer action) {
+		Objects.requireNonNull(action, "action");
+		ensureOpen();
+		for (int g = 0; g <= groupMask; g++) {
+			long word = table.get(ctrlBase + g);
+			for (int j = 0; j < Swar.GROUP_SIZE; j++) {
+				if (Swar.isFull((byte) (word >>> (j << 3)))) {
+					int idx = (g << 3) + j;
+					action.accept(keyAt(idx), valueAt(idx));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Releases the native table. Idempotent.
+	 * <p>
+	 * Note: JDK 21 has no public API to free direct memory eagerly (FFM {@code Arena} is still a preview),
+	 * so the memory is returned by the buffers' cleaners once they are collected. The map itself is unusable
+	 * immediately.
+	 */
+	@Override
+	public void close() {
+		if (table == null) return;
+		table.release();
+		table = null;
+		size = 0;
+		tombstones = 0;
+	}
+
+	private void ensureOpen() {
+		if (table == null) throw new IllegalStateException("closed");
+	}
+
+	/* Slot accessors */
+	private long keyAt(int idx) {
+		return table.get(slotBase + 2L * idx);
+	}
+
+	private long valueAt(int idx) {
+		return table.get(slotBase + 2L * idx + 1);
+	}
+
+	private void setValueAt(int idx, long value) {
+		table.set(slotBase + 2L * idx + 1, value);
+	}
+
+	private void setCtrlAt(int idx, byte value) {
+		setCtrlAt(table, idx, value);
+	}
+
+	private void setCtrlAt(OffHeapLongArray table, int idx, byte value) {
+		long group = ctrlBase + (idx >> 3);
+		int offset = (idx & 7) << 3;
+		long mask = 0xFFL << offset;
+		table.set(group, (table.get(group) & ~mask) | (Swar.toUnsignedByte(value) << offset));
+	}
+
+	/* lookup utilities */
+	private int findIndex(long key) {
+		if (size == 0) return -1;
+		int h = Hashing.smearLong(key);
+		byte h2 = Swar.h2(h);
+		OffHeapLongArray table = this.table; // local snapshot
+		long ctrlBase = this.ctrlBase;
+		long slotBase = this.slotBase;
+		int mask = groupMask;
+		int g = Swar.h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			long word = table.get(ctrlBase + g);
+			int eqMask = Swar.eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				if (table.get(slotBase + 2L * idx) == key) return idx;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (Swar.eqMask(word, Swar.EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/**
+	 * Single-probe lookup-or-insert. Returns the slot of an existing key, or {@code ~slot} of a freshly
+	 * claimed slot (key and ctrl already written; the caller stores the value).
+	 */
+	private int findOrInsert(long key) {
+		int h = Hashing.smearLong(key);
+		byte h2 = Swar.h2(h);
+		OffHeapLongArray table = this.table; // local snapshot
+		long ctrlBase = this.ctrlBase;
+		long slotBase = this.slotBase;
+		int mask = groupMask;
+		int g = Swar.h1(h) & mask;
+		int step = 0;
+		int firstTombstone = -1;
+		for (;;) {
+			long word = table.get(ctrlBase + g);
+			int base = g << 3;
+			int eqMask = Swar.eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = base + Integer.numberOfTrailingZeros(eqMask);
+				if (table.get(slotBase + 2L * idx) == key) return idx;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (firstTombstone < 0) {
+				int delMask = Swar.eqMask(word, Swar.DELETED);
+				if (delMask != 0) firstTombstone = base + Integer.numberOfTrailingZeros(delMask);
+			}
+			int emptyMask = Swar.eqMask(word, Swar.EMPTY);
+			if (emptyMask != 0) {
+				int idx = base + Integer.numberOfTrailingZeros(emptyMask);
+				int target = (firstTombstone >= 0) ? firstTombstone : idx;
+				if (target == firstTombstone) tombstones--;
+				table.set(slotBase + 2L * target, key);
+				setCtrlAt(target, h2);
+				size++;
+				return ~target;
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/* Resize/rehash */
+	private void maybeRehash() {
+		// trigger when over load or too many tombstones
+		boolean overMaxLoad = (size + tombstones) >= maxLoad;
+		boolean tooManyTombstones = tombstones > (size >>> 1);
+		if (!overMaxLoad && !tooManyTombstones) return;
+
+		// Only grow the table when we are actually over the max load threshold.
+		// If we are rehashing just to clean up tombstones, keep the capacity.
+		int newCap = (overMaxLoad && capacity < MAX_CAPACITY) ? capacity * 2 : capacity;
+		if (newCap == capacity && size + 1 >= maxLoad) {
+			throw new IllegalStateException("OffHeapSwissLongLongMap is full: " + size + " entries");
+		}
+		rehash(newCap);
+	}
+
+	private void rehash(int newCapacity) {
+		OffHeapLongArray old = this.table;
+		long oldSlotBase = this.slotBase;
+		int oldGroups = this.groupMask + 1;
+
+		// Build the new table off to the side; the map keeps its current one until the new one is committed.
+		int nGroups = Swar.groupsFor(newCapacity);
+		OffHeapLongArray table = newEmptyTable(nGroups);
+		long ctrlBase = this.ctrlBase;
+		long slotBase = ctrlBase + nGroups;
+		int mask = nGroups - 1;
+		for (int og = 0; og < oldGroups; og++) {
+			long oldWord = old.get(ctrlBase + og);
+			for (int j = 0; j < Swar.GROUP_SIZE; j++) {
+				if (!Swar.isFull((byte) (oldWord >>> (j << 3)))) continue;
+				long src = oldSlotBase + 2L * ((og << 3) + j);
+				long k = old.get(src);
+				int h = Hashing.smearLong(k);
+				int g = Swar.h1(h) & mask;
+				int step = 0;
+				int emptyMask;
+				while ((emptyMask = Swar.eqMask(table.get(ctrlBase + g), Swar.EMPTY)) == 0) {
+					g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+				}
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(emptyMask);
+				table.set(slotBase + 2L * idx, k);
+				table.set(slotBase + 2L * idx + 1, old.get(src + 1));
+				setCtrlAt(table, idx, Swar.h2(h));
+			}
+		}
+		commitTable(table, nGroups * Swar.GROUP_SIZE);
+		install(table, nGroups * Swar.GROUP_SIZE);
+		this.tombstones = 0;
+		tableReplaced(old);
+	}
+}
@@ -1,11 +1,14 @@
 package io.github.bluuewhale.hashsmith;
 
 import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Robin Hood hashing map (null keys NOT allowed, null values allowed).
@@ -21,6 +24,7 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 	private Object[] keys;
 	private Object[] vals;
 	private int[] dist; // probe distance (0-based)
+	private int modCount; // structural changes; lets the compute/merge methods detect a function that mutated the map
 
 	public RobinHoodMap() {
 		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -42,55 +46,145 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 	@Override
 	public V put(K key, V value) {
 		int h = hash(key);
-		int mask = capacity - 1;
-		int idx = h & mask;
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAt(~idx, h, key, value);
+			return null;
+		}
+		V old = castValue(vals[idx]);
+		vals[idx] = value;
+		return old;
+	}
 
-		int curDist = 0;
-		K curKey = key;
-		V curVal = value;
+	@Override
+	public V remove(Object key) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		deleteAt(idx);
+		return old;
+	}
 
-		for (;;) {
-			Object k = keys[idx];
-			if (k == null) {
-				setSlot(idx, curKey, curVal, curDist);
-				size++;
-				if (size > maxLoad) {
-					resize(capacity << 1);
-				}
-				return null;
-			}
-			if (k.equals(curKey)) {
-				V old = castValue(vals[idx]);
-				vals[idx] = curVal;
-				return old;
-			}
-			int slotDist = dist[idx];
-			if (slotDist < curDist) {
-				// Robin Hood swap
-				K swapKey = castKey(k);
-				V swapVal = castValue(vals[idx]);
-				int swapDist = slotDist;
+	/* Map defaults, overridden to hash and probe once (the inherited ones look the key up two or three times) */
 
-				setSlot(idx, curKey, curVal, curDist);
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? castValue(vals[idx]) : defaultValue;
+	}
 
-				curKey = swapKey;
-				curVal = swapVal;
-				curDist = swapDist;
-			}
-			idx = (idx + 1) & mask;
-			curDist++;
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAt(~idx, h, key, value);
+			return null;
+		}
+		V old = castValue(vals[idx]);
+		if (old == null) vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx >= 0) {
+			V old = castValue(vals[idx]);
+			if (old != null) return old;
 		}
+		int expectedModCount = modCount;
+		V value = mappingFunction.apply(key);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (value == null) return null;
+		if (idx >= 0) vals[idx] = value;
+		else insertAt(~idx, h, key, value);
+		return value;
 	}
 
 	@Override
-	public V remove(Object key) {
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
 		int idx = findIndex(key);
 		if (idx < 0) return null;
 		V old = castValue(vals[idx]);
-		deleteAt(idx);
+		if (old == null) return null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, old);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (value != null) vals[idx] = value;
+		else deleteAt(idx);
+		return value;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		V old = (idx >= 0) ? castValue(vals[idx]) : null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, old);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (idx < 0) {
+			if (value != null) insertAt(~idx, h, key, value);
+		} else if (value != null) {
+			vals[idx] = value;
+		} else {
+			deleteAt(idx);
+		}
+		return value;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		Objects.requireNonNull(value);
+		int h = hash(key);
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAt(~idx, h, key, value);
+			return value;
+		}
+		V old = castValue(vals[idx]);
+		V merged = value;
+		if (old != null) {
+			int expectedModCount = modCount;
+			merged = remappingFunction.apply(old, value);
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+		if (merged != null) vals[idx] = merged;
+		else deleteAt(idx);
+		return merged;
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		vals[idx] = value;
 		return old;
 	}
 
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		int idx = findIndex(key);
+		if (idx < 0 || !Objects.equals(vals[idx], oldValue)) return false;
+		vals[idx] = newValue;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		int idx = findIndex(key);
+		if (idx < 0 || !Objects.equals(vals[idx], value)) return false;
+		deleteAt(idx);
+		return true;
+	}
+
 	@Override
 	public void clear() {
 		for (int i = 0; i < capacity; i++) {
@@ -99,6 +193,7 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 			dist[i] = 0;
 		}
 		size = 0;
+		modCount++;
 	}
 
 	@Override
@@ -118,6 +213,7 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 		this.dist = new int[targetCap];
 		this.size = 0;
 		this.maxLoad = calcMaxLoad(targetCap);
+		this.modCount++;
 
 		if (oldKeys == null || oldVals == null || oldKeys.length == 0) return;
 
@@ -148,7 +244,6 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 	/* Internal helpers */
 	@Override
 	protected int findIndex(Object key) {
-		if (key == null) throw new NullPointerException("Null keys not supported");
 		int h = hash(key);
 		int mask = capacity - 1;
 		int idx = h & mask;      // ideal slot
@@ -164,6 +259,54 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/**
+	 * Returns the slot holding {@code key}, or {@code ~slot} where {@link #insertAt} should place it: the first
+	 * empty slot, or the first entry closer to its home slot than {@code key} would be there.
+	 */
+	private int findSlot(Object key, int h) {
+		int mask = capacity - 1;
+		int idx = h & mask;
+		int d = 0;
+		for (;;) {
+			Object k = keys[idx];
+			if (k == null || dist[idx] < d) return ~idx;
+			if (k.equals(key)) return idx;
+			idx = (idx + 1) & mask;
+			d++;
+		}
+	}
+
+	/**
+	 * Inserts an absent key at a slot returned (as {@code ~slot}) by {@link #findSlot}, shifting the richer
+	 * entries after it along the cluster, then grows the table if needed.
+	 */
+	private void insertAt(int idx, int h, K key, V value) {
+		int mask = capacity - 1;
+		int curDist = (idx - h) & mask;
+		Object curKey = key;
+		Object curVal = value;
+		while (keys[idx] != null) {
+			int slotDist = dist[idx];
+			if (slotDist < curDist) {
+				// Robin Hood swap
+				Object swapKey = keys[idx];
+				Object swapVal = vals[idx];
+				setSlot(idx, curKey, curVal, curDist);
+				curKey = swapKey;
+				curVal = swapVal;
+				curDist = slotDist;
+			}
+			idx = (idx + 1) & mask;
+			curDist++;
+		}
+		setSlot(idx, curKey, curVal, curDist);
+		size++;
+		modCount++;
+		if (size > maxLoad) {
+			resize(capacity << 1);
+		}
+	}
+
 	private void deleteAt(int idx) {
 		// Backward shift: pull following cluster left to fill the hole.
 		int mask = capacity - 1;
@@ -184,6 +327,7 @@ public class RobinHoodMap<K, V> extends AbstractArrayMap<K, V> {
 			cur = next;
 		}
 		size--;
+		modCount++;
 	}
 
 	/* Slot helpers */
@@ -0,0 +1,126 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Arrays;
+
+/**
+ * SWAR control-word helpers for the primitive-specialized Swiss tables.
+ * Same layout as {@link SwissMap}: 8 control bytes packed into one {@code long} per group.
+ */
+final class Swar {
+	private Swar() {}
+
+	/* Control byte values */
+	static final byte EMPTY = (byte) 0x80;    // empty slot
+	static final byte DELETED = (byte) 0xFE;  // tombstone
+
+	/* Hash split masks: high bits choose group, low 7 bits stored in control byte */
+	static final int H1_MASK = 0xFFFFFF80;
+	static final int H2_MASK = 0x0000007F;
+
+	/* Group sizing: SWAR fixed at 8 slots (1 word) */
+	static final int GROUP_SIZE = 8;
+
+	/* SWAR constants */
+	static final long BITMASK_LSB = 0x0101010101010101L;
+	static final long BITMASK_MSB = 0x8080808080808080L;
+
+	static final long EMPTY_WORD = broadcast(EMPTY);
+
+	static int h1(int hash) {
+		return (hash & H1_MASK) >>> 7;
+	}
+
+	static byte h2(int hash) {
+		return (byte) (hash & H2_MASK);
+	}
+
+	static boolean isFull(byte c) {
+		return c >= 0; // H2 in [0,127]
+	}
+
+	static boolean isDeleted(byte c) {
+		return c == DELETED;
+	}
+
+	static long toUnsignedByte(byte b) {
+		// Unsigned widening to avoid sign extension on negative bytes
+		return b & 0xFFL;
+	}
+
+	static long broadcast(byte b) {
+		// Broadcast a single byte to all 8 byte lanes
+		return toUnsignedByte(b) * BITMASK_LSB;
+	}
+
+	/**
+	 * Compare bytes in word against b; return packed 8-bit mask of matches.
+	 * See {@link SwissMap#eqMask(long, byte)}.
+	 */
+	static int eqMask(long word, byte b) {
+		long x = word ^ broadcast(b);
+		long m = (((x >>> 1) | BITMASK_MSB) - x) & BITMASK_MSB;
+		return (int) ((m * 0x0204_0810_2040_81L) >>> 56);
+	}
+
+	static byte ctrlAt(long[] ctrl, int idx) {
+		int group = idx >> 3;
+		int offset = (idx & 7) << 3;
+		return (byte) (ctrl[group] >>> offset);
+	}
+
+	static void setCtrlAt(long[] ctrl, int idx, byte value) {
+		int group = idx >> 3;
+		int offset = (idx & 7) << 3;
+		long mask = 0xFFL << offset;
+		ctrl[group] = (ctrl[group] & ~mask) | (toUnsignedByte(value) << offset);
+	}
+
+	/**
+	 * Number of groups (power of two, at least one) needed to hold {@code desiredCapacity} slots.
+	 */
+	static int groupsFor(int desiredCapacity) {
+		int nGroups = Math.max(1, (Math.max(desiredCapacity, GROUP_SIZE) + GROUP_SIZE - 1) / GROUP_SIZE);
+		return Utils.ceilPow2(nGroups);
+	}
+
+	static long[] newCtrl(int nGroups) {
+		long[] ctrl = new long[nGroups];
+		Arrays.fill(ctrl, EMPTY_WORD);
+		return ctrl;
+	}
+
+	/**
+	 * First EMPTY or DELETED slot on the probe sequence of {@code h1}: where a key known to be absent goes
+	 * (Abseil's {@code find_first_non_full}). Reads only control words, so re-walking a probe that just missed
+	 * stays in cache.
+	 */
+	static int findFirstNonFull(long[] ctrl, int h1) {
+		int mask = ctrl.length - 1;
+		int g = h1 & mask;
+		int step = 0;
+		for (;;) {
+			long special = ctrl[g] & BITMASK_MSB; // EMPTY and DELETED are the only bytes with the MSB set
+			if (special != 0) {
+				return (g << 3) + (Long.numberOfTrailingZeros(special) >>> 3);
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/**
+	 * First EMPTY slot on the probe sequence of {@code h1}. Only valid on tables without tombstones
+	 * (fresh tables during rehash), where the first EMPTY is also the first free slot.
+	 */
+	static int findEmpty(long[] ctrl, int h1) {
+		int mask = ctrl.length - 1;
+		int g = h1 & mask;
+		int step = 0;
+		for (;;) {
+			int emptyMask = eqMask(ctrl[g], EMPTY);
+			if (emptyMask != 0) {
+				return (g << 3) + Integer.numberOfTrailingZeros(emptyMask);
+			}
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Objects;
+
+/**
+ * Fully primitive {@code int -> int} SwissTable (SWAR probing, same control words as {@link SwissMap}).
+ * Absent keys are reported with a configurable {@code noEntryValue} instead of {@code null}.
+ */
+public class SwissIntIntMap extends AbstractSwarTable {
+
+	/* Storage and state */
+	private final int noEntryValue;
+	private int[] keys;      // key storage
+	private int[] vals;      // value storage
+
+	public SwissIntIntMap() {
+		this(16, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	public SwissIntIntMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, 0);
+	}
+
+	public SwissIntIntMap(int initialCapacity, double loadFactor) {
+		this(initialCapacity, loadFactor, 0);
+	}
+
+	public SwissIntIntMap(int initialCapacity, double loadFactor, int noEntryValue) {
+		super(initialCapacity, loadFactor);
+		this.noEntryValue = noEntryValue;
+		allocateSlots();
+	}
+
+	private void allocateSlots() {
+		this.keys = new int[capacity];
+		this.vals = new int[capacity];
+	}
+
+	/**
+	 * Value returned by {@link #get}, {@link #put} and {@link #remove} when the key is absent.
+	 */
+	public int noEntryValue() {
+		return noEntryValue;
+	}
+
+	public boolean containsKey(int key) {
+		return findIndex(key) >= 0;
+	}
+
+	public int get(int key) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? vals[idx] : noEntryValue;
+	}
+
+	public int getOrDefault(int key, int defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? vals[idx] : defaultValue;
+	}
+
+	/**
+	 * @return the previous value, or {@link #noEntryValue()} if the key was absent
+	 */
+	public int put(int key, int value) {
+		maybeRehash();
+		int idx = findOrInsert(key);
+		if (idx < 0) {
+			vals[~idx] = value;
+			return noEntryValue;
+		}
+		int old = vals[idx];
+		vals[idx] = value;
+		return old;
+	}
+
+	/**
+	 * Adds {@code delta} to the value mapped to {@code key} with a single probe, starting from
+	 * {@link #noEntryValue()} when the key is absent.
+	 *
+	 * @return the updated value
+	 */
+	public int addTo(int key, int delta) {
+		maybeRehash();
+		int idx = findOrInsert(key);
+		if (idx < 0) return vals[~idx] = noEntryValue + delta;
+		return vals[idx] += delta;
+	}
+
+	/**
+	 * @return the removed value, or {@link #noEntryValue()} if the key was absent
+	 */
+	public int remove(int key) {
+		int idx = findIndex(key);
+		if (idx < 0) return noEntryValue;
+		int old = vals[idx];
+		deleteAt(idx);
+		return old;
+	}
+
+	/**
+	 * Visits every mapping without boxing. The map must not be structurally modified by {@code action}.
+	 */
+	public void forEach(IntIntConsumer action) {
+		Objects.requireNonNull(action, "action");
+		long[] ctrl = this.ctrl;
+		for (int i = 0; i < capacity; i++) {
+			if (Swar.isFull(Swar.ctrlAt(ctrl, i))) action.accept(keys[i], vals[i]);
+		}
+	}
+
+	@FunctionalInterface
+	public interface IntIntConsumer {
+		void accept(int key, int value);
+	}
+
+	/* lookup utilities */
+	private int findIndex(int key) {
+		if (size == 0) return -1;
+		return findIndexHashed(key, Hashing.smear(key));
+	}
+
+	private int findIndexHashed(int key, int h) {
+		byte h2 = Swar.h2(h);
+		long[] ctrl = this.ctrl; // local snapshot
+		int[] keys = this.keys; // local snapshot
+		int mask = ctrl.length - 1; // Derive mask from the array we index into (ctrl) to help JIT range-check elimination.
+		int g = Swar.h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			long word = ctrl[g];
+			int eqMask = Swar.eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				if (keys[idx] == key) return idx;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (Swar.eqMask(word, Swar.EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/**
+	 * Single-hash lookup-or-insert. Returns the slot of an existing key, or {@code ~slot} of a freshly
+	 * claimed slot (key and ctrl already written; the caller stores the value).
+	 */
+	private int findOrInsert(int key) {
+		int h = Hashing.smear(key);
+		int idx = findIndexHashed(key, h);
+		if (idx >= 0) return idx;
+		idx = claimSlot(h);
+		keys[idx] = key;
+		return ~idx;
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldCtrl = this.ctrl;
+		int[] oldKeys = this.keys;
+		int[] oldVals = this.vals;
+
+		initCtrl(Swar.groupsFor(newCapacity));
+		allocateSlots();
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (!Swar.isFull(Swar.ctrlAt(oldCtrl, i))) continue;
+			int k = oldKeys[i];
+			int idx = placeRehashed(Hashing.smear(k));
+			keys[idx] = k;
+			vals[idx] = oldVals[i];
+		}
+	}
+}
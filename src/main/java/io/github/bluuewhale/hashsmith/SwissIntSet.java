@@ -0,0 +1,114 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Objects;
+import java.util.function.IntConsumer;
+
+/**
+ * Primitive {@code int} counterpart of {@link SwissSet}: elements live in an {@code int[]} and are compared
+ * with {@code ==}. Probing uses the SWAR control words of {@link SwissMap} (8 slots per group).
+ */
+public class SwissIntSet extends AbstractSwarTable {
+
+	/* Defaults */
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	/* Storage */
+	private int[] keys;    // element storage
+
+	public SwissIntSet() {
+		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+	}
+
+	public SwissIntSet(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public SwissIntSet(int initialCapacity, double loadFactor) {
+		super(initialCapacity, loadFactor);
+		allocateSlots();
+	}
+
+	private void allocateSlots() {
+		this.keys = new int[capacity];
+	}
+
+	/* Public API */
+	public boolean contains(int e) {
+		return findIndex(e) >= 0;
+	}
+
+	public boolean add(int e) {
+		maybeRehash();
+		int h = Hashing.smear(e);
+		if (findIndexHashed(e, h) >= 0) return false;
+		keys[claimSlot(h)] = e;
+		return true;
+	}
+
+	public boolean remove(int e) {
+		int idx = findIndex(e);
+		if (idx < 0) return false;
+		deleteAt(idx);
+		return true;
+	}
+
+	/**
+	 * Visits every element without boxing. The set must not be structurally modified by {@code action}.
+	 */
+	public void forEach(IntConsumer action) {
+		Objects.requireNonNull(action, "action");
+		long[] ctrl = this.ctrl;
+		for (int i = 0; i < capacity; i++) {
+			if (Swar.isFull(Swar.ctrlAt(ctrl, i))) action.accept(keys[i]);
+		}
+	}
+
+	public int[] toArray() {
+		int[] out = new int[size];
+		int n = 0;
+		for (int i = 0; i < capacity; i++) {
+			if (Swar.isFull(Swar.ctrlAt(ctrl, i))) out[n++] = keys[i];
+		}
+		return out;
+	}
+
+	/* Internal helpers */
+	private int findIndex(int e) {
+		if (size == 0) return -1;
+		return findIndexHashed(e, Hashing.smear(e));
+	}
+
+	private int findIndexHashed(int e, int h) {
+		byte h2 = Swar.h2(h);
+		long[] ctrl = this.ctrl; // local snapshot
+		int[] keys = this.keys; // local snapshot
+		int mask = ctrl.length - 1;
+		int g = Swar.h1(h) & mask;
+		int step = 0; // triangular probing step over groups
+		for (;;) {
+			long word = ctrl[g];
+			int eqMask = Swar.eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				if (keys[idx] == e) return idx;
+				eqMask &= eqMask - 1;
+			}
+			if (Swar.eqMask(word, Swar.EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldCtrl = this.ctrl;
+		int[] oldKeys = this.keys;
+
+		initCtrl(Swar.groupsFor(newCapacity));
+		allocateSlots();
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (!Swar.isFull(Swar.ctrlAt(oldCtrl, i))) continue;
+			int k = oldKeys[i];
+			keys[placeRehashed(Hashing.smear(k))] = k;
+		}
+	}
+}
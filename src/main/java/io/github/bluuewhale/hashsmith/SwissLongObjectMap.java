@@ -0,0 +1,152 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@code long}-keyed variant of {@link SwissMap}: same SWAR control words and group probing,
+ * but keys live in a {@code long[]} and are compared with {@code ==} (no boxing, no {@code equals}).
+ * Null values are allowed.
+ */
+public class SwissLongObjectMap<V> extends AbstractSwarTable {
+
+	/* Storage and state */
+	private long[] keys;     // key storage
+	private Object[] vals;   // value storage
+
+	public SwissLongObjectMap() {
+		this(16, DEFAULT_LOAD_FACTOR);
+	}
+
+	public SwissLongObjectMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR);
+	}
+
+	public SwissLongObjectMap(int initialCapacity, double loadFactor) {
+		super(initialCapacity, loadFactor);
+		allocateSlots();
+	}
+
+	private void allocateSlots() {
+		this.keys = new long[capacity];
+		this.vals = new Object[capacity];
+	}
+
+	public boolean containsKey(long key) {
+		return findIndex(key) >= 0;
+	}
+
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < capacity; i++) {
+			if (Swar.isFull(Swar.ctrlAt(ctrl, i)) && Objects.equals(vals[i], value)) return true;
+		}
+		return false;
+	}
+
+	public V get(long key) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? castValue(vals[idx]) : null;
+	}
+
+	public V getOrDefault(long key, V defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? castValue(vals[idx]) : defaultValue;
+	}
+
+	public V put(long key, V value) {
+		maybeRehash();
+		int h = Hashing.smearLong(key);
+		int idx = findIndexHashed(key, h);
+		if (idx >= 0) {
+			V old = castValue(vals[idx]);
+			vals[idx] = value;
+			return old;
+		}
+		idx = claimSlot(h);
+		keys[idx] = key;
+		vals[idx] = value;
+		return null;
+	}
+
+	public V remove(long key) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		vals[idx] = null;
+		deleteAt(idx);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		Arrays.fill(vals, null);
+	}
+
+	/**
+	 * Visits every mapping without boxing the key. The map must not be structurally modified by {@code action}.
+	 */
+	public void forEach(LongObjConsumer<? super V> action) {
+		Objects.requireNonNull(action, "action");
+		long[] ctrl = this.ctrl;
+		for (int i = 0; i < capacity; i++) {
+			if (Swar.isFull(Swar.ctrlAt(ctrl, i))) action.accept(keys[i], castValue(vals[i]));
+		}
+	}
+
+	/**
+	 * Primitive-key counterpart of {@link java.util.function.BiConsumer}.
+	 */
+	@FunctionalInterface
+	public interface LongObjConsumer<V> {
+		void accept(long key, V value);
+	}
+
+	/* lookup utilities */
+	private int findIndex(long key) {
+		if (size == 0) return -1;
+		return findIndexHashed(key, Hashing.smearLong(key));
+	}
+
+	private int findIndexHashed(long key, int h) {
+		byte h2 = Swar.h2(h);
+		long[] ctrl = this.ctrl; // local snapshot
+		long[] keys = this.keys; // local snapshot
+		int mask = ctrl.length - 1; // Derive mask from the array we index into (ctrl) to help JIT range-check elimination.
+		int g = Swar.h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			long word = ctrl[g];
+			int eqMask = Swar.eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				if (keys[idx] == key) return idx;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (Swar.eqMask(word, Swar.EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldCtrl = this.ctrl;
+		long[] oldKeys = this.keys;
+		Object[] oldVals = this.vals;
+
+		initCtrl(Swar.groupsFor(newCapacity));
+		allocateSlots();
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (!Swar.isFull(Swar.ctrlAt(oldCtrl, i))) continue;
+			long k = oldKeys[i];
+			int idx = placeRehashed(Hashing.smearLong(k));
+			keys[idx] = k;
+			vals[idx] = oldVals[i];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private V castValue(Object v) {
+		return (V) v;
+	}
+}
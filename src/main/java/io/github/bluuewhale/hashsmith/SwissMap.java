@@ -1,12 +1,33 @@
 package io.github.bluuewhale.hashsmith;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 
@@ -14,7 +35,7 @@ import java.lang.invoke.VarHandle;
  * SwissTable variant: packs control bytes into 8-byte words and uses SWAR
  * comparisons (no Vector API) while scanning 8 slots at a time.
  */
-public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
+public class SwissMap<K, V> extends AbstractSwissMap<K, V> {
 
 	/* Control byte values */
 	private static final byte EMPTY = (byte) 0x80;    // empty slot
@@ -30,6 +51,15 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	/* Load factor: similar to Abseil SwissTable (7/8) */
 	private static final double DEFAULT_LOAD_FACTOR = 0.875d;
 
+	/* Parallel resize: default minimum old capacity, and old-table groups per leaf task */
+	private static final int DEFAULT_PARALLEL_RESIZE_THRESHOLD = 1 << 20;
+	private static final int PARALLEL_RESIZE_GROUPS_PER_TASK = 1 << 10;
+
+	/* getAll: keys per interleaved batch, and first-probe outcomes that carry no slot */
+	private static final int GET_ALL_BATCH = 16;
+	private static final int GET_ALL_ABSENT = -1;
+	private static final int GET_ALL_PROBE = -2;
+
 	/* SWAR constants */
 	private static final long BITMASK_LSB = 0x0101010101010101L;
 	private static final long BITMASK_MSB = 0x8080808080808080L;
@@ -39,6 +69,34 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	private Object[] keys;   // key storage
 	private Object[] vals;   // value storage
 	private int tombstones;  // deleted slots
+	private int modCount;    // structural changes; lets compute/merge and forEach detect a callback that mutated the map
+
+	/*
+	 * Incremental resize (see withIncrementalResize): while prevCtrl != null, entries are split between the
+	 * current table and the previous one, each key in exactly one of them. size counts both; tombstones only
+	 * the current table. Previous-table slots are handed out to callers as (capacity + slot).
+	 */
+	private int resizeGroupsPerStep; // 0 = stop-the-world rehash
+	private long[] prevCtrl;
+	private Object[] prevKeys;
+	private Object[] prevVals;
+	private int prevSize;            // entries still in the previous table
+	private int migrateCursor;       // next previous-table group to migrate
+
+	/* Parallel resize (see withParallelResize) */
+	private ForkJoinPool resizePool;
+	private int parallelResizeThreshold;
+
+	/* Set for ConcurrentSwissMap shards: optimistic readers may probe the arrays without a lock */
+	private boolean concurrentShard;
+	private int prefixBits;          // top smeared-hash bits shared by every key of a shard; 0 otherwise
+
+	/*
+	 * ConcurrentSwissMap shards: the table being replaced by a rehash. It is no longer written once published,
+	 * so readers that find the shard write-locked keep probing it instead of queueing behind the rebuild.
+	 * Cleared before the write section mutates the new table.
+	 */
+	private volatile Frozen frozenTable;
 
 	/**
 	 * Control word access needs to participate in the publish protocol used by {@link ConcurrentSwissMap}
@@ -71,6 +129,53 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		super(initialCapacity, loadFactor);
 	}
 
+	/**
+	 * Switches rehashing to incremental mode: instead of rebuilding the whole table inside one {@code put},
+	 * a resize allocates the new arrays and every later {@code put}/{@code remove} migrates
+	 * {@code groupsPerStep} groups (8 slots each) from the previous table. Lookups consult both tables
+	 * until migration completes, so the worst-case cost of a single mutation is bounded by the step size
+	 * (plus the allocation of the new arrays).
+	 * <p>
+	 * Iterators, spliterators, {@code forEach} and {@code containsValue} visit the previous table's unmigrated
+	 * slots and then the current table, so they leave migration to later mutations. Sweeping bulk operations
+	 * ({@code replaceAll}, {@code removeIf}, {@code putAll} when it grows the table) and snapshots complete it
+	 * first, as does an insert that would outrun it. {@code 0} restores stop-the-world rehashing.
+	 * Not supported for maps used through the package-private concurrent paths ({@link ConcurrentSwissMap}).
+	 *
+	 * @return this map
+	 */
+	public SwissMap<K, V> withIncrementalResize(int groupsPerStep) {
+		if (groupsPerStep < 0) throw new IllegalArgumentException("groupsPerStep must be >= 0: " + groupsPerStep);
+		if (groupsPerStep == 0) finishMigration();
+		this.resizeGroupsPerStep = groupsPerStep;
+		return this;
+	}
+
+	/**
+	 * Same as {@code withParallelResize(pool, 1 << 20)}.
+	 */
+	public SwissMap<K, V> withParallelResize(ForkJoinPool pool) {
+		return withParallelResize(pool, DEFAULT_PARALLEL_RESIZE_THRESHOLD);
+	}
+
+	/**
+	 * Rebuilds tables of at least {@code minCapacity} slots on {@code pool}: the old ctrl array is split into
+	 * ranges of groups, and workers claim slots in the new table by CAS on its ctrl words. The calling thread
+	 * still blocks until the rebuild completes, but the rebuild time scales with the pool's parallelism.
+	 * <p>
+	 * Applies whenever the table is rebuilt into new arrays (growth with incremental resize off, {@code putAll}
+	 * presizing); in-place tombstone cleanup stays sequential. Key {@code hashCode} is then invoked from pool
+	 * threads. {@code null} turns it off.
+	 *
+	 * @return this map
+	 */
+	public SwissMap<K, V> withParallelResize(ForkJoinPool pool, int minCapacity) {
+		if (minCapacity < 0) throw new IllegalArgumentException("minCapacity must be >= 0: " + minCapacity);
+		this.resizePool = pool;
+		this.parallelResizeThreshold = minCapacity;
+		return this;
+	}
+
 	@Override
 	protected void init(int desiredCapacity) {
 		int nGroups = Math.max(1, (desiredCapacity + GROUP_SIZE - 1) / GROUP_SIZE);
@@ -88,7 +193,9 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 
 	/* Hash split helpers */
 	private int h1(int hash) {
-		return (hash & H1_MASK) >>> 7;
+		// A shard's fixed prefix bits are replaced by the low hash bits; shifts are mod 32, so 0 is a no-op.
+		int bits = prefixBits;
+		return ((((hash << bits) >>> bits) | (hash << -bits)) & H1_MASK) >>> 7;
 	}
 
 	private byte h2(int hash) {
@@ -104,15 +211,15 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 * sharding) to avoid re-hashing the key on lookup.
 	 */
 	V get(Object key, int smearedHash) {
-		int idx = findIndexHashed(key, smearedHash);
-		return (idx >= 0) ? castValue(vals[idx]) : null;
+		int idx = findIndexAny(key, smearedHash);
+		return (idx >= 0) ? valueAt(idx) : null;
 	}
 
 	/**
 	 * Package-private "secret" fast path: {@code containsKey} with a precomputed smeared hash.
 	 */
 	boolean containsKey(Object key, int smearedHash) {
-		return findIndexHashed(key, smearedHash) >= 0;
+		return findIndexAny(key, smearedHash) >= 0;
 	}
 
 	/**
@@ -127,13 +234,9 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 * Package-private "secret" fast path: {@code remove} with a precomputed smeared hash.
 	 */
 	V remove(Object key, int smearedHash) {
-		int idx = findIndexHashed(key, smearedHash);
+		int idx = findIndexAny(key, smearedHash);
 		if (idx < 0) return null;
-		V old = castValue(vals[idx]);
-		setCtrlAt(ctrl, idx, DELETED);
-		setEntryAt(idx, null, null);
-		size--;
-		tombstones++;
+		V old = removeAt(idx);
 		maybeRehash();
 		return old;
 	}
@@ -144,14 +247,17 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 * Intended for {@link ConcurrentSwissMap} optimistic reads. Uses acquire-load of ctrl words so that
 	 * observing a FULL ctrl tag implies the corresponding key/value have been published by the writer.
 	 */
+	@Override
 	V getConcurrent(Object key, int smearedHash) {
+		Object[] vals = this.vals; // local snapshot; may be torn from ctrl by a resize (caller's stamp then fails)
 		int idx = findIndexHashedConcurrent(key, smearedHash);
-		return (idx >= 0) ? castValue(vals[idx]) : null;
+		return (idx >= 0 && idx < vals.length) ? castValue(vals[idx]) : null;
 	}
 
 	/**
 	 * Package-private concurrent-safe fast path: containsKey with a precomputed smeared hash.
 	 */
+	@Override
 	boolean containsKeyConcurrent(Object key, int smearedHash) {
 		return findIndexHashedConcurrent(key, smearedHash) >= 0;
 	}
@@ -160,9 +266,22 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 * Package-private concurrent-safe fast path: put with a precomputed smeared hash.
 	 * Writers must publish entry (keys/vals) before publishing ctrl FULL tag (release-store).
 	 */
+	@Override
 	V putConcurrent(K key, V value, int smearedHash) {
-		maybeRehash();
-		return putValHashedConcurrent(key, value, smearedHash);
+		maybeRehashConcurrent();
+		int idx = findSlotConcurrent(key, smearedHash);
+		if (idx >= 0) return setValueAtConcurrent(idx, value);
+		return insertAtConcurrent(~idx, key, value, h2(smearedHash));
+	}
+
+	@Override
+	void reserveConcurrent(int additional) {
+		int needed = size + additional;
+		// putConcurrent rehashes once size + tombstones reaches maxLoad, or tombstones exceed half the size.
+		if (needed + tombstones <= maxLoad && tombstones <= (size >>> 1)) return;
+		int newCapacity = Math.max(capacity, GROUP_SIZE);
+		while (calcMaxLoad(newCapacity) < needed && newCapacity < (1 << 30)) newCapacity <<= 1;
+		rehash(newCapacity);
 	}
 
 	/**
@@ -170,17 +289,104 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 * Publishes ctrl=DELETED (release-store) before clearing key/value to avoid readers observing
 	 * a FULL ctrl tag with a null key.
 	 */
+	@Override
 	V removeConcurrent(Object key, int smearedHash) {
 		int idx = findIndexHashedConcurrent(key, smearedHash);
 		if (idx < 0) return null;
+		return removeAtConcurrent(idx);
+	}
+
+	/* Slot-level primitives for ConcurrentSwissMap read-modify-write operations (see AbstractSwissMap) */
+
+	@Override
+	int indexOfConcurrent(Object key, int smearedHash) {
+		return findIndexHashedConcurrent(key, smearedHash);
+	}
+
+	@Override
+	int indexOfValueConcurrent(Object value) {
+		for (int i = 0; i < capacity; i++) {
+			if (isFull(ctrlAt(ctrl, i)) && Objects.equals(vals[i], value)) return i;
+		}
+		return -1;
+	}
+
+	@Override
+	int findOrReserveConcurrent(Object key, int smearedHash) {
+		int idx = findSlotConcurrent(key, smearedHash);
+		if (idx >= 0) return idx;
+		long[] before = this.ctrl;
+		maybeRehashConcurrent();
+		return (this.ctrl == before) ? idx : findSlotConcurrent(key, smearedHash);
+	}
+
+	@Override
+	V valueAtConcurrent(int idx) {
+		return castValue(vals[idx]);
+	}
+
+	@Override
+	V setValueAtConcurrent(int idx, V value) {
+		V old = castValue(vals[idx]);
+		vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	void insertReservedConcurrent(int slot, K key, V value, int smearedHash) {
+		insertAtConcurrent(slot, key, value, h2(smearedHash));
+	}
+
+	@Override
+	V removeAtConcurrent(int idx) {
 		V old = castValue(vals[idx]);
 		deleteAtConcurrent(idx);
 		size--;
 		tombstones++;
-		maybeRehash();
+		maybeRehashConcurrent();
 		return old;
 	}
 
+	@Override
+	void replaceAllConcurrent(BiFunction<? super K, ? super V, ? extends V> function) {
+		for (int i = 0; i < capacity; i++) {
+			if (isFull(ctrlAt(ctrl, i))) vals[i] = function.apply(castKey(keys[i]), castValue(vals[i]));
+		}
+	}
+
+	/**
+	 * Package-private concurrent-safe bulk read for {@link ConcurrentSwissMap} iteration: copies the live
+	 * entries, in slot order, into {@code keysOut}/{@code valsOut} and returns how many were copied.
+	 * <p>
+	 * May run under an optimistic read. Torn state (arrays swapped by a resize, a key cleared by a delete,
+	 * more entries than the buffers hold) is reported as {@code -1}; the caller validates its stamp or
+	 * retries under the read lock, where the result is exact once the buffers hold {@link #size()} entries.
+	 */
+	@Override
+	int copyEntriesConcurrent(Object[] keysOut, Object[] valsOut) {
+		return copyEntriesIn(this.ctrl, this.keys, this.vals, keysOut, valsOut);
+	}
+
+	private int copyEntriesIn(long[] ctrl, Object[] keys, Object[] vals, Object[] keysOut, Object[] valsOut) {
+		if (keys.length != ctrl.length * GROUP_SIZE || vals.length != keys.length) return -1;
+		int limit = Math.min(keysOut.length, valsOut.length);
+		int n = 0;
+		for (int g = 0; g < ctrl.length; g++) {
+			// Acquire-load: a FULL tag implies its key/value publish is visible.
+			int fullMask = ~nonFullMask(ctrlWordAcquire(ctrl, g)) & 0xFF;
+			while (fullMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(fullMask);
+				fullMask &= fullMask - 1;
+				Object k = keys[idx];
+				if (k == null || n == limit) return -1;
+				keysOut[n] = k;
+				valsOut[n] = vals[idx];
+				n++;
+			}
+		}
+		return n;
+	}
+
 	/* Control byte inspectors */
 	private boolean isDeleted(byte c) { return c == DELETED; }
 	private boolean isFull(byte c) { return c >= 0 && c <= H2_MASK; } // H2 in [0,127]
@@ -235,9 +441,33 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		vals[idx] = value;
 	}
 
+	/**
+	 * Removes the entry at {@code idx} as returned by {@link #findIndex} (current or previous table).
+	 */
+	private V removeAt(int idx) {
+		if (idx >= capacity) {
+			int slot = idx - capacity;
+			V old = castValue(prevVals[slot]);
+			detachPrev(slot);
+			size--;
+			modCount++;
+			return old;
+		}
+		V old = castValue(vals[idx]);
+		setCtrlAt(ctrl, idx, DELETED);
+		setEntryAt(idx, null, null);
+		size--;
+		tombstones++;
+		modCount++;
+		return old;
+	}
+
 	/* Resize/rehash */
 	private void maybeRehash() {
+		if (prevCtrl != null) migrate(resizeGroupsPerStep);
+
 		// trigger when over load or too many tombstones
+		// (size includes entries not yet migrated, so the new table always has room for them)
 		boolean overMaxLoad = (size + tombstones) >= maxLoad;
 		boolean tooManyTombstones = tombstones > (size >>> 1);
 		if (!overMaxLoad && !tooManyTombstones) return;
@@ -245,15 +475,186 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		// Only grow the table when we are actually over the max load threshold.
 		// If we are rehashing just to clean up tombstones, keep the capacity.
 		int newCap = overMaxLoad ? Math.max(capacity * 2, GROUP_SIZE) : capacity;
-		rehash(newCap);
+		if (resizeGroupsPerStep > 0) {
+			finishMigration(); // inserts outran migration; only happens with a very small step
+			beginIncrementalRehash(newCap);
+		} else if (!overMaxLoad && !concurrentShard) {
+			dropTombstones();
+		} else {
+			rehash(newCap);
+		}
+	}
+
+	@Override
+	void markConcurrentShard(int prefixBits) {
+		this.concurrentShard = true;
+		this.prefixBits = prefixBits;
+	}
+
+	@Override
+	int probeLength(Object key, int smearedHash) {
+		int idx = findIndexHashed(key, smearedHash);
+		if (idx < 0) return -1;
+		int mask = ctrl.length - 1;
+		int g = h1(smearedHash) & mask;
+		int target = idx >> 3;
+		int step = 0;
+		while (g != target) g = (g + (++step)) & mask;
+		return step + 1;
+	}
+
+	@Override
+	FrozenTable<V> frozenTable() {
+		return frozenTable;
+	}
+
+	private final class Frozen implements FrozenTable<V> {
+		private final long[] ctrl;
+		private final Object[] keys;
+		private final Object[] vals;
+		private final int size;
+
+		Frozen(long[] ctrl, Object[] keys, Object[] vals, int size) {
+			this.ctrl = ctrl;
+			this.keys = keys;
+			this.vals = vals;
+			this.size = size;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public V get(Object key, int smearedHash) {
+			int idx = (size == 0) ? -1 : findIndexIn(ctrl, keys, key, smearedHash);
+			return (idx >= 0) ? castValue(vals[idx]) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key, int smearedHash) {
+			return size != 0 && findIndexIn(ctrl, keys, key, smearedHash) >= 0;
+		}
+
+		@Override
+		public int copyEntries(Object[] keysOut, Object[] valsOut) {
+			return copyEntriesIn(ctrl, keys, vals, keysOut, valsOut);
+		}
+	}
+
+	/**
+	 * Variant for the {@link ConcurrentSwissMap} write paths: always rebuilds into fresh arrays.
+	 * Optimistic readers may still be probing the current arrays, so slots must never be moved in place.
+	 */
+	private void maybeRehashConcurrent() {
+		boolean overMaxLoad = (size + tombstones) >= maxLoad;
+		boolean tooManyTombstones = tombstones > (size >>> 1);
+		if (!overMaxLoad && !tooManyTombstones) return;
+		rehash(overMaxLoad ? Math.max(capacity * 2, GROUP_SIZE) : capacity);
+	}
+
+	/**
+	 * Same-capacity tombstone cleanup without allocating (Abseil's drop-deletes-without-resize).
+	 * <p>
+	 * Every DELETED byte becomes EMPTY and every FULL byte becomes DELETED, which here means "not yet placed".
+	 * Each such entry is then re-placed at the first non-FULL slot of its probe sequence: kept where it is if
+	 * that slot is in its own group, moved if the slot is EMPTY, or swapped with another unplaced entry, which
+	 * is then processed in turn.
+	 */
+	private void dropTombstones() {
+		modCount++;
+		long[] ctrl = this.ctrl;
+		Object[] keys = this.keys;
+		Object[] vals = this.vals;
+		int mask = ctrl.length - 1;
+		for (int g = 0; g < ctrl.length; g++) {
+			long special = ctrl[g] & BITMASK_MSB; // MSB set = EMPTY or DELETED
+			ctrl[g] = (~special + (special >>> 7)) & ~BITMASK_LSB; // special -> EMPTY (0x80), FULL -> DELETED (0xFE)
+		}
+		for (int i = 0; i < capacity; i++) {
+			if (!isDeleted(ctrlAt(ctrl, i))) continue;
+			int h = hash(keys[i]);
+			byte h2 = h2(h);
+			int g = h1(h) & mask;
+			int step = 0;
+			int nonFull;
+			while ((nonFull = nonFullMask(ctrl[g])) == 0) {
+				g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+			}
+			int target = (g << 3) + Integer.numberOfTrailingZeros(nonFull);
+			if ((target >> 3) == (i >> 3)) {
+				setCtrlAt(ctrl, i, h2); // already in the first group with room
+			} else if (ctrlAt(ctrl, target) == EMPTY) {
+				keys[target] = keys[i];
+				vals[target] = vals[i];
+				keys[i] = null;
+				vals[i] = null;
+				setCtrlAt(ctrl, target, h2);
+				setCtrlAt(ctrl, i, EMPTY);
+			} else {
+				Object k = keys[target];
+				Object v = vals[target];
+				keys[target] = keys[i];
+				vals[target] = vals[i];
+				keys[i] = k;
+				vals[i] = v;
+				setCtrlAt(ctrl, target, h2);
+				i--; // slot i now holds another unplaced entry
+			}
+		}
+		tombstones = 0;
+	}
+
+	/* packed 8-bit mask of EMPTY/DELETED bytes (MSB set) */
+	private static int nonFullMask(long word) {
+		long m = word & BITMASK_MSB;
+		return (int) ((m * 0x0204_0810_2040_81L) >>> 56);
 	}
 
 	private void rehash(int newCapacity) {
+		if (!concurrentShard || ctrl == null) {
+			rebuild(newCapacity);
+			return;
+		}
+		// Readers of a write-locked shard probe the old arrays meanwhile; the new ones become visible together
+		// with the write lock's release.
+		frozenTable = new Frozen(ctrl, keys, vals, size);
+		try {
+			rebuild(newCapacity);
+		} finally {
+			frozenTable = null;
+		}
+	}
+
+	private void rebuild(int newCapacity) {
+		finishMigration();
 		long[] oldCtrl = this.ctrl;
 		Object[] oldKeys = this.keys;
 		Object[] oldVals = this.vals;
 		int oldCap = (oldCtrl == null) ? 0 : oldCtrl.length * GROUP_SIZE;
 
+		allocateTable(newCapacity);
+		if (oldCtrl == null) return;
+		if (resizePool != null && oldCap >= parallelResizeThreshold) {
+			this.size = resizePool.invoke(new ParallelRehash(oldCtrl, oldKeys, oldVals, 0, oldCtrl.length));
+			return;
+		}
+
+		int n = 0;
+		for (int i = 0; i < oldCap; i++) {
+			byte c = ctrlAt(oldCtrl, i);
+			if (!isFull(c)) continue;
+			K k = castKey(oldKeys[i]);
+			V v = castValue(oldVals[i]);
+			insertFresh(k, v);
+			n++;
+		}
+		this.size = n;
+	}
+
+	private void allocateTable(int newCapacity) {
+		modCount++;
 		int desiredGroups = Math.max(1, (Math.max(newCapacity, GROUP_SIZE) + GROUP_SIZE - 1) / GROUP_SIZE);
 		desiredGroups = ceilPow2(desiredGroups);
 		this.capacity = desiredGroups * GROUP_SIZE;
@@ -264,19 +665,182 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		this.size = 0;
 		this.tombstones = 0;
 		this.maxLoad = calcMaxLoad(this.capacity);
+	}
 
-		if (oldCtrl == null) return;
+	/**
+	 * Moves the FULL slots of old groups [from, to) into the (fresh) current table; returns the number moved.
+	 * Leaves race only on the new ctrl words: a slot is claimed by CASing its EMPTY byte to H2, then the
+	 * key/value are written. Control bytes only go EMPTY -> FULL during the rebuild, so a group seen full
+	 * stays full, and every entry lands at the first EMPTY of its probe sequence, as a sequential rehash would.
+	 * {@code invoke} publishes the result to the resizing thread.
+	 */
+	@SuppressWarnings("serial")
+	private final class ParallelRehash extends RecursiveTask<Integer> {
+		private final long[] oldCtrl;
+		private final Object[] oldKeys;
+		private final Object[] oldVals;
+		private final int from;
+		private final int to;
+
+		ParallelRehash(long[] oldCtrl, Object[] oldKeys, Object[] oldVals, int from, int to) {
+			this.oldCtrl = oldCtrl;
+			this.oldKeys = oldKeys;
+			this.oldVals = oldVals;
+			this.from = from;
+			this.to = to;
+		}
 
-		for (int i = 0; i < oldCap; i++) {
-			byte c = ctrlAt(oldCtrl, i);
-			if (!isFull(c)) continue;
-			K k = castKey(oldKeys[i]);
-			V v = castValue(oldVals[i]);
-			insertFresh(k, v);
+		@Override
+		protected Integer compute() {
+			if (to - from > PARALLEL_RESIZE_GROUPS_PER_TASK) {
+				int mid = (from + to) >>> 1;
+				ParallelRehash right = new ParallelRehash(oldCtrl, oldKeys, oldVals, mid, to);
+				right.fork();
+				int left = new ParallelRehash(oldCtrl, oldKeys, oldVals, from, mid).compute();
+				return left + right.join();
+			}
+			int n = 0;
+			for (int g = from; g < to; g++) {
+				long word = oldCtrl[g];
+				if ((~word & BITMASK_MSB) == 0) continue; // no FULL slot in this group
+				int base = g << 3;
+				for (int j = 0; j < GROUP_SIZE; j++) {
+					int i = base + j;
+					if (!isFull(ctrlAt(oldCtrl, i))) continue;
+					claimAndInsert(oldKeys[i], oldVals[i]);
+					n++;
+				}
+			}
+			return n;
+		}
+	}
+
+	private void claimAndInsert(Object key, Object value) {
+		int h = hash(key);
+		byte h2 = h2(h);
+		long[] ctrl = this.ctrl; // local snapshot
+		int mask = ctrl.length - 1;
+		int g = h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			long word = ctrlWordAcquire(ctrl, g);
+			int emptyMask = eqMask(word, EMPTY);
+			if (emptyMask == 0) {
+				g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+				continue;
+			}
+			int j = Integer.numberOfTrailingZeros(emptyMask);
+			int offset = j << 3;
+			long claimed = (word & ~(0xFFL << offset)) | (toUnsignedByte(h2) << offset);
+			if (CTRL_WORD.compareAndSet(ctrl, g, word, claimed)) {
+				int idx = (g << 3) + j;
+				keys[idx] = key;
+				vals[idx] = value;
+				return;
+			}
+			// lost the race for this word; re-read the same group
+		}
+	}
+
+	/* Incremental resize */
+	private void beginIncrementalRehash(int newCapacity) {
+		int liveSize = size;
+		this.prevCtrl = ctrl;
+		this.prevKeys = keys;
+		this.prevVals = vals;
+		this.prevSize = liveSize;
+		this.migrateCursor = 0;
+		allocateTable(newCapacity);
+		this.size = liveSize;
+		if (liveSize == 0) endMigration();
+	}
+
+	/**
+	 * Moves up to {@code groups} previous-table groups into the current table.
+	 * Migrated slots become DELETED so probe chains of not-yet-migrated keys stay intact.
+	 */
+	private void migrate(int groups) {
+		modCount++;
+		long[] prevCtrl = this.prevCtrl;
+		Object[] prevKeys = this.prevKeys;
+		Object[] prevVals = this.prevVals;
+		int end = (int) Math.min(prevCtrl.length, (long) migrateCursor + groups);
+		for (int g = migrateCursor; g < end; g++) {
+			long word = prevCtrl[g];
+			if ((~word & BITMASK_MSB) == 0) continue; // no FULL slot in this group
+			int base = g << 3;
+			for (int j = 0; j < GROUP_SIZE; j++) {
+				int i = base + j;
+				if (!isFull(ctrlAt(prevCtrl, i))) continue;
+				insertFresh(castKey(prevKeys[i]), castValue(prevVals[i]));
+				detachPrev(i);
+			}
+		}
+		migrateCursor = end;
+		if (end == prevCtrl.length || prevSize == 0) endMigration();
+	}
+
+	private void finishMigration() {
+		if (prevCtrl != null) migrate(prevCtrl.length);
+	}
+
+	/**
+	 * Passes the FULL slots of the previous table to {@code action} as {@code capacity + slot}, so traversals can
+	 * cover both tables instead of finishing the migration. Groups below the cursor are already migrated.
+	 */
+	private void forEachPrevSlot(IntConsumer action, int expectedModCount) {
+		long[] prevCtrl = this.prevCtrl; // local snapshot
+		if (prevCtrl == null) return;
+		int base = capacity;
+		for (int g = migrateCursor; g < prevCtrl.length; g++) {
+			long full = ~prevCtrl[g] & BITMASK_MSB;
+			while (full != 0) {
+				action.accept(base + (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+				full &= full - 1;
+			}
+		}
+	}
+
+	private void detachPrev(int slot) {
+		setCtrlAt(prevCtrl, slot, DELETED);
+		prevKeys[slot] = null;
+		prevVals[slot] = null;
+		prevSize--;
+	}
+
+	private void endMigration() {
+		prevCtrl = null;
+		prevKeys = null;
+		prevVals = null;
+		prevSize = 0;
+		migrateCursor = 0;
+	}
+
+	/* lookup in the previous table during an incremental resize; returns its slot or -1 */
+	private int findIndexPrev(Object key, int smearedHash) {
+		int h1 = h1(smearedHash);
+		byte h2 = h2(smearedHash);
+		long[] ctrl = this.prevCtrl; // local snapshot
+		Object[] keys = this.prevKeys; // local snapshot
+		int mask = ctrl.length - 1;
+		int g = h1 & mask;
+		int step = 0;
+		for (;;) {
+			long word = ctrl[g];
+			int eqMask = eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				Object k = keys[idx];
+				if (k == key || k.equals(key)) return idx;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (eqMask(word, EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
 		}
 	}
 
-	/* fresh-table insertion used only during rehash */
+	/* fresh-table insertion used by rehash and migration; does not touch size */
 	private void insertFresh(K key, V value) {
 		int h = hash(key);
 		int h1 = h1(h);
@@ -294,7 +858,6 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 				// Publish entry first, then mark ctrl as FULL.
 				setEntryAt(idx, key, value);
 				setCtrlAt(ctrl, idx, h2);
-				size++;
 				return;
 			}
 			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
@@ -302,47 +865,233 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	}
 
 	@Override
-	public int size() {
-		return size;
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return findIndex(key) >= 0;
+	}
+
+	/**
+	 * Looks up {@code keys[0..n)} into {@code out[0..n)} ({@code null} where absent), like {@code n} calls to
+	 * {@link #get} but with the probe stages interleaved across batches of keys: all keys are hashed, then
+	 * every first-group ctrl word is loaded, then every candidate key, and only then are keys compared and
+	 * values read. The cache misses of different keys are independent, so the CPU can overlap them instead of
+	 * serving one chain of misses per key. Keys not settled by their first group take the regular probe.
+	 */
+	public void getAll(Object[] keys, Object[] out, int n) {
+		Objects.checkFromIndexSize(0, n, keys.length);
+		Objects.checkFromIndexSize(0, n, out.length);
+		if (prevCtrl != null) { // entries are split between two tables
+			for (int i = 0; i < n; i++) out[i] = get(keys[i]);
+			return;
+		}
+		long[] ctrl = this.ctrl;
+		Object[] tableKeys = this.keys;
+		Object[] vals = this.vals;
+		int mask = ctrl.length - 1;
+		int[] hashes = new int[GET_ALL_BATCH];
+		int[] slots = new int[GET_ALL_BATCH];
+		Object[] candidates = new Object[GET_ALL_BATCH];
+		for (int from = 0; from < n; from += GET_ALL_BATCH) {
+			int len = Math.min(GET_ALL_BATCH, n - from);
+			for (int j = 0; j < len; j++) {
+				hashes[j] = hash(keys[from + j]);
+			}
+			// First group of each key: its first tag match, or whether an EMPTY byte already proves absence.
+			for (int j = 0; j < len; j++) {
+				int h = hashes[j];
+				int g = h1(h) & mask;
+				long word = ctrl[g];
+				int eq = eqMask(word, h2(h));
+				if (eq != 0) slots[j] = (g << 3) + Integer.numberOfTrailingZeros(eq);
+				else slots[j] = (eqMask(word, EMPTY) != 0) ? GET_ALL_ABSENT : GET_ALL_PROBE;
+			}
+			for (int j = 0; j < len; j++) {
+				candidates[j] = (slots[j] >= 0) ? tableKeys[slots[j]] : null;
+			}
+			for (int j = 0; j < len; j++) {
+				Object key = keys[from + j];
+				int slot = slots[j];
+				Object k = candidates[j];
+				if (slot == GET_ALL_ABSENT) {
+					out[from + j] = null;
+				} else if (slot >= 0 && (k == key || k.equals(key))) {
+					out[from + j] = vals[slot];
+				} else {
+					int idx = findIndexHashed(key, hashes[j]);
+					out[from + j] = (idx >= 0) ? vals[idx] : null;
+				}
+			}
+		}
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		if (prevCtrl != null) {
+			for (int i = migrateCursor << 3; i < prevVals.length; i++) {
+				if (isFull(ctrlAt(prevCtrl, i)) && Objects.equals(prevVals[i], value)) return true;
+			}
+		}
+		for (int i = 0; i < capacity; i++) {
+			if (isFull(ctrlAt(ctrl, i))) {
+				if (Objects.equals(vals[i], value)) return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		maybeRehash();
+		return putVal(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = removeAt(idx);
+		maybeRehash();
+		return old;
+	}
+
+	/* Map defaults, overridden to hash and probe once (the inherited ones look the key up two or three times) */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? valueAt(idx) : defaultValue;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		if (idx < 0) return insertAt(~idx, key, value, h2(h));
+		V old = castValue(vals[idx]);
+		if (old == null) vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		if (idx >= 0) {
+			V old = castValue(vals[idx]);
+			if (old != null) return old;
+		}
+		int expectedModCount = modCount;
+		V value = mappingFunction.apply(key);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (value == null) return null;
+		if (idx >= 0) vals[idx] = value;
+		else insertAt(~idx, key, value, h2(h));
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = valueAt(idx);
+		if (old == null) return null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, old);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (value != null) {
+			setValueAt(idx, value);
+		} else {
+			removeAt(idx);
+			maybeRehash();
+		}
+		return value;
 	}
 
 	@Override
-	public boolean isEmpty() {
-		return size == 0;
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		V old = (idx >= 0) ? castValue(vals[idx]) : null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, old);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (idx < 0) {
+			if (value != null) insertAt(~idx, key, value, h2(h));
+		} else if (value != null) {
+			vals[idx] = value;
+		} else {
+			removeAt(idx);
+			maybeRehash();
+		}
+		return value;
 	}
 
 	@Override
-	public boolean containsKey(Object key) {
-		return findIndex(key) >= 0;
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		Objects.requireNonNull(value);
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAt(~idx, key, value, h2(h));
+			return value;
+		}
+		V old = castValue(vals[idx]);
+		V merged = value;
+		if (old != null) {
+			int expectedModCount = modCount;
+			merged = remappingFunction.apply(old, value);
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+		if (merged != null) {
+			vals[idx] = merged;
+		} else {
+			removeAt(idx);
+			maybeRehash();
+		}
+		return merged;
 	}
 
 	@Override
-	public boolean containsValue(Object value) {
-		for (int i = 0; i < capacity; i++) {
-			if (isFull(ctrlAt(ctrl, i))) {
-				if (Objects.equals(vals[i], value)) return true;
-			}
-		}
-		return false;
+	public V replace(K key, V value) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = valueAt(idx);
+		setValueAt(idx, value);
+		return old;
 	}
 
 	@Override
-	public V put(K key, V value) {
-		maybeRehash();
-		return putVal(key, value);
+	public boolean replace(K key, V oldValue, V newValue) {
+		int idx = findIndex(key);
+		if (idx < 0 || !Objects.equals(valueAt(idx), oldValue)) return false;
+		setValueAt(idx, newValue);
+		return true;
 	}
 
 	@Override
-	public V remove(Object key) {
+	public boolean remove(Object key, Object value) {
 		int idx = findIndex(key);
-		if (idx < 0) return null;
-		V old = castValue(vals[idx]);
-		setCtrlAt(ctrl, idx, DELETED);
-		setEntryAt(idx, null, null);
-		size--;
-		tombstones++;
+		if (idx < 0 || !Objects.equals(valueAt(idx), value)) return false;
+		removeAt(idx);
 		maybeRehash();
-		return old;
+		return true;
 	}
 
 	/**
@@ -351,6 +1100,7 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	 * This method now performs a same-capacity rehash after deletion to ensure there are no tombstones.
 	 */
 	public V removeWithoutTombstone(Object key) {
+		finishMigration();
 		int idx = findIndex(key);
 		if (idx < 0) return null;
 		V old = castValue(vals[idx]);
@@ -432,18 +1182,32 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			if (emptyMask != 0) {
 				int idx = base + Integer.numberOfTrailingZeros(emptyMask);
 				int target = (firstTombstone >= 0) ? firstTombstone : idx;
+				if (prevCtrl != null) {
+					// Not in the current table; during an incremental resize it may still be in the previous one.
+					int prev = findIndexPrev(key, smearedHash);
+					if (prev >= 0) {
+						V old = castValue(prevVals[prev]);
+						detachPrev(prev);
+						size--;
+						insertAt(target, key, value, h2);
+						return old;
+					}
+				}
 				return insertAt(target, key, value, h2);
 			}
 			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
 		}
 	}
 
-	private V putValHashedConcurrent(K key, V value, int smearedHash) {
+	/**
+	 * Writer-side probe: the slot holding {@code key}, or {@code ~slot} of the first tombstone (else EMPTY slot)
+	 * on its probe sequence. Requires room for one more entry.
+	 */
+	private int findSlotConcurrent(Object key, int smearedHash) {
 		int h1 = h1(smearedHash);
 		byte h2 = h2(smearedHash);
 		long[] ctrl = this.ctrl; // local snapshot
 		Object[] keys = this.keys; // local snapshot
-		Object[] vals = this.vals; // local snapshot
 		int mask = ctrl.length - 1;
 		int g = h1 & mask;
 		int step = 0;
@@ -457,9 +1221,7 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 				Object k = keys[idx];
 				// Writers are under shard write lock; No need to keep the NULL-safe check.
 				if (k == key || k.equals(key)) {
-					V old = castValue(vals[idx]);
-					vals[idx] = value;
-					return old;
+					return idx;
 				}
 				eqMask &= eqMask - 1;
 			}
@@ -470,21 +1232,159 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			int emptyMask = eqMask(word, EMPTY);
 			if (emptyMask != 0) {
 				int idx = base + Integer.numberOfTrailingZeros(emptyMask);
-				int target = (firstTombstone >= 0) ? firstTombstone : idx;
-				return insertAtConcurrent(target, key, value, h2);
+				return ~((firstTombstone >= 0) ? firstTombstone : idx);
 			}
 			g = (g + (++step)) & mask;
 		}
 	}
 
+	/**
+	 * Single probe of the read-modify-write methods: the slot holding {@code key}, or {@code ~slot} where
+	 * {@link #insertAt} should place it. During an incremental resize a key still in the previous table is moved
+	 * into the current one first. Requires room for one more entry (call {@link #maybeRehash} first).
+	 */
+	private int findSlot(Object key, int smearedHash) {
+		int idx = findSlotConcurrent(key, smearedHash);
+		if (idx >= 0 || prevCtrl == null) return idx;
+		int prev = findIndexPrev(key, smearedHash);
+		if (prev < 0) return idx;
+		V old = castValue(prevVals[prev]);
+		detachPrev(prev);
+		size--;
+		insertAt(~idx, castKey(key), old, h2(smearedHash));
+		return ~idx;
+	}
+
 	@Override
 	public void clear() {
+		endMigration();
 		Arrays.fill(ctrl, broadcast(EMPTY));
 		Arrays.fill(keys, null);
 		Arrays.fill(vals, null);
 		size = 0;
 		tombstones = 0;
 		maxLoad = calcMaxLoad(capacity);
+		modCount++;
+	}
+
+	/*
+	 * Group-wise traversal: groups in a seeded random order (fixed per instance, like the iterators), the slots
+	 * of a group in ascending order. FULL ctrl bytes are the ones with a clear MSB, so a single word yields the
+	 * occupied slots of its group and empty groups cost one load.
+	 */
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int expectedModCount = modCount;
+		forEachPrevSlot(idx -> action.accept(keyAt(idx), valueAt(idx)), expectedModCount);
+		RandomCycle cycle = new RandomCycle(ctrl.length, iterationSeed);
+		for (int i = 0; i < ctrl.length; i++) {
+			int g = cycle.indexAt(i);
+			long full = ~ctrl[g] & BITMASK_MSB;
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				action.accept(castKey(keys[idx]), castValue(vals[idx]));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+				full &= full - 1;
+			}
+		}
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		Objects.requireNonNull(function);
+		finishMigration();
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int expectedModCount = modCount;
+		RandomCycle cycle = new RandomCycle(ctrl.length, iterationSeed);
+		for (int i = 0; i < ctrl.length; i++) {
+			int g = cycle.indexAt(i);
+			long full = ~ctrl[g] & BITMASK_MSB;
+			while (full != 0) {
+				int idx = (g << 3) + (Long.numberOfTrailingZeros(full) >>> 3);
+				vals[idx] = function.apply(castKey(keys[idx]), castValue(vals[idx]));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+				full &= full - 1;
+			}
+		}
+	}
+
+	/**
+	 * Removes every entry for which {@code filter} returns {@code true}; returns whether any was removed.
+	 * <p>
+	 * One pass over the ctrl words with one store per touched group, then at most one same-capacity compaction.
+	 * A group that still has an EMPTY slot never made a probe continue past it, so its removed slots (and older
+	 * tombstones) become EMPTY instead of DELETED.
+	 */
+	public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+		Objects.requireNonNull(filter);
+		return removeSlotsIf(idx -> filter.test(castKey(keys[idx]), castValue(vals[idx])));
+	}
+
+	/**
+	 * {@link #removeIf(BiPredicate)} by slot, so that a filter may also replace the value of a slot it keeps.
+	 */
+	private boolean removeSlotsIf(IntPredicate filter) {
+		finishMigration();
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		long deletedWord = broadcast(DELETED);
+		int expectedModCount = modCount;
+		int removed = 0;
+		try {
+			for (int g = 0; g < ctrl.length; g++) {
+				long word = ctrl[g];
+				long full = ~word & BITMASK_MSB;
+				long hit = 0; // MSB of each slot to remove
+				while (full != 0) {
+					long bit = full & -full;
+					int idx = (g << 3) + (Long.numberOfTrailingZeros(bit) >>> 3);
+					if (filter.test(idx)) hit |= bit;
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full ^= bit;
+				}
+				// Special bytes have the MSB set; bit 1 tells DELETED (0xFE) from EMPTY (0x80).
+				long special = word & BITMASK_MSB;
+				long emptyMsb = special & ~(word << 6);
+				long tombstoneMsb = special & (word << 6);
+				if (emptyMsb != 0) {
+					// No probe ever continued past this group, so its hits and older tombstones become EMPTY.
+					if ((hit | tombstoneMsb) == 0) continue;
+					long cleared = ((hit | tombstoneMsb) >>> 7) * 0xFFL;
+					ctrl[g] = (word & ~cleared) | (BITMASK_MSB & cleared);
+					tombstones -= Long.bitCount(tombstoneMsb);
+				} else {
+					if (hit == 0) continue;
+					long cleared = (hit >>> 7) * 0xFFL;
+					ctrl[g] = (word & ~cleared) | (deletedWord & cleared);
+					tombstones += Long.bitCount(hit);
+				}
+				int base = g << 3;
+				for (long h = hit; h != 0; h &= h - 1) {
+					int idx = base + (Long.numberOfTrailingZeros(h) >>> 3);
+					keys[idx] = null;
+					vals[idx] = null;
+				}
+				int n = Long.bitCount(hit);
+				size -= n;
+				removed += n;
+			}
+		} finally {
+			if (removed > 0) modCount++;
+		}
+		if (removed == 0) return false;
+		if (tombstones > (size >>> 1) || size + tombstones >= maxLoad) {
+			if (concurrentShard) rehash(capacity);
+			else dropTombstones();
+		}
+		return true;
 	}
 
 	@Override
@@ -502,12 +1402,101 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		return new EntryView();
 	}
 
+	/* Snapshot */
+
+	/**
+	 * Writes a binary snapshot: the header, the raw control bytes, the keys/values of FULL slots in slot order,
+	 * then a check over the keys' hashes. {@code out} is flushed but not closed.
+	 */
+	public void writeTo(OutputStream out, Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+		finishMigration();
+		SwissSnapshot.write(this, out, keyCodec, valueCodec);
+	}
+
+	public void writeTo(WritableByteChannel out, Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+		writeTo(Channels.newOutputStream(out), keyCodec, valueCodec);
+	}
+
+	/**
+	 * Restores a map written by {@link #writeTo}, with the snapshot's capacity and load factor.
+	 * <p>
+	 * The table is rebuilt without probing: control bytes are copied as-is and each decoded entry goes straight
+	 * into its recorded slot. This assumes key hash codes are the same as in the writing JVM (true for strings,
+	 * boxed primitives and records of them); the snapshot carries a check over the keys' full hashes, and if the
+	 * decoded keys do not reproduce it the table is rehashed once. Snapshots with a different group size (e.g.
+	 * from {@link SwissSimdMap}) are re-inserted.
+	 * <p>
+	 * Unless {@code in} is already buffered, it is wrapped in a buffer that may read past the snapshot.
+	 */
+	public static <K, V> SwissMap<K, V> readFrom(InputStream in, Codec<? extends K> keyCodec,
+		Codec<? extends V> valueCodec) throws IOException {
+		return SwissSnapshot.read(in, SwissMap<K, V>::new, keyCodec, valueCodec);
+	}
+
+	public static <K, V> SwissMap<K, V> readFrom(ReadableByteChannel in, Codec<? extends K> keyCodec,
+		Codec<? extends V> valueCodec) throws IOException {
+		return readFrom(Channels.newInputStream(in), keyCodec, valueCodec);
+	}
+
+	@Override
+	int groupSize() {
+		return GROUP_SIZE;
+	}
+
+	@Override
+	int tombstoneCount() {
+		return tombstones;
+	}
+
+	@Override
+	void writeCtrl(DataOutput out) throws IOException {
+		for (long word : ctrl) out.writeLong(Long.reverseBytes(word)); // byte j of word g is slot 8g + j
+	}
+
+	@Override
+	void readCtrl(DataInput in) throws IOException {
+		for (int g = 0; g < ctrl.length; g++) ctrl[g] = Long.reverseBytes(in.readLong());
+	}
+
+	@Override
+	byte ctrlAt(int idx) {
+		return ctrlAt(ctrl, idx);
+	}
+
+	@Override
+	K keyAt(int idx) {
+		return castKey((idx < capacity) ? keys[idx] : prevKeys[idx - capacity]);
+	}
+
+	@Override
+	void restoreEntryAt(int idx, K key, V value) {
+		setEntryAt(idx, key, value);
+	}
+
+	@Override
+	void restoreCounts(int size, int tombstones, boolean rehash) {
+		this.size = size;
+		this.tombstones = tombstones;
+		if (rehash) rehash(capacity);
+	}
+
 	/* lookup utilities */
 	@Override
 	protected int findIndex(Object key) {
 		// Disallow null keys even on empty maps for consistent Map semantics in this project.
 		int h = hashNonNull(key);
-		return findIndexHashed(key, h);
+		return findIndexAny(key, h);
+	}
+
+	/**
+	 * Like {@link #findIndexHashed}, but during an incremental resize also finds keys that still live in the
+	 * previous table, reported as {@code capacity + slot} (see {@link #valueAt} and {@link #removeAt}).
+	 */
+	private int findIndexAny(Object key, int smearedHash) {
+		int idx = findIndexHashed(key, smearedHash);
+		if (idx >= 0 || prevCtrl == null) return idx;
+		int prev = findIndexPrev(key, smearedHash);
+		return (prev >= 0) ? capacity + prev : -1;
 	}
 
 	/**
@@ -549,10 +1538,13 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 
 	private int findIndexHashedConcurrent(Object key, int smearedHash) {
 		if (size == 0) return -1;
+		return findIndexIn(this.ctrl, this.keys, key, smearedHash);
+	}
+
+	private int findIndexIn(long[] ctrl, Object[] keys, Object key, int smearedHash) {
+		if (keys.length != ctrl.length * GROUP_SIZE) return -1; // torn by a concurrent resize; the stamp fails
 		int h1 = h1(smearedHash);
 		byte h2 = h2(smearedHash);
-		long[] ctrl = this.ctrl; // local snapshot
-		Object[] keys = this.keys; // local snapshot
 		int mask = ctrl.length - 1;
 		int g = h1 & mask;
 		int step = 0;
@@ -582,6 +1574,7 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		setEntryAt(idx, key, value);
 		setCtrlAt(ctrl, idx, h2);
 		size++;
+		modCount++;
 		return null;
 	}
 
@@ -615,7 +1608,12 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 
 	@Override
 	protected V valueAt(int idx) {
-		return castValue(vals[idx]);
+		return castValue((idx < capacity) ? vals[idx] : prevVals[idx - capacity]);
+	}
+
+	private void setValueAt(int idx, V value) {
+		if (idx < capacity) vals[idx] = value;
+		else prevVals[idx - capacity] = value;
 	}
 
 	/* iterator base */
@@ -626,17 +1624,31 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		private int iter = 0;
 		private int next = -1;
 		private int last = -1;
+		// During an incremental resize: the previous table's unmigrated slots, visited first (as capacity + slot)
+		private final long[] prevCtrl;
+		private int prevIter;
 
 		BaseIter() {
 			RandomCycle cycle = new RandomCycle(capacity, iterationSeed);
 			this.start = cycle.start;
 			this.step = cycle.step;
 			this.mask = cycle.mask;
+			this.prevCtrl = SwissMap.this.prevCtrl;
+			this.prevIter = migrateCursor << 3;
 			advance();
 		}
 
 		private void advance() {
 			next = -1;
+			if (prevCtrl != null) {
+				while (prevIter < prevCtrl.length << 3) {
+					int slot = prevIter++;
+					if (isFull(ctrlAt(prevCtrl, slot))) {
+						next = capacity + slot;
+						return;
+					}
+				}
+			}
 			while (iter < capacity) {
 				// & mask == mod capacity; iter grows, step scrambles the visit order without extra buffers.
 				int idx = (start + (iter++ * step)) & mask;
@@ -663,12 +1675,8 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		@Override
 		public void remove() {
 			if (last < 0) throw new IllegalStateException();
-			if (isFull(ctrlAt(ctrl, last))) {
-				setCtrlAt(ctrl, last, DELETED);
-				setEntryAt(last, null, null);
-				size--;
-				tombstones++;
-			}
+			byte c = (last < capacity) ? ctrlAt(ctrl, last) : ctrlAt(prevCtrl, last - capacity);
+			if (isFull(c)) removeAt(last);
 			last = -1;
 		}
 	}
@@ -676,14 +1684,14 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 	private class KeyIter extends BaseIter<K> {
 		@Override
 		public K next() {
-			return castKey(keys[nextIndex()]);
+			return keyAt(nextIndex());
 		}
 	}
 
 	private class ValueIter extends BaseIter<V> {
 		@Override
 		public V next() {
-			return castValue(vals[nextIndex()]);
+			return valueAt(nextIndex());
 		}
 	}
 
@@ -695,24 +1703,197 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/* spliterator base */
+
+	/**
+	 * Splits by ranges of group positions in {@link #forEach} order (halving the range) and reads one ctrl word
+	 * per group. Binds to the table on creation, fails fast after a structural change, and reports SIZED only
+	 * until the first split. During an incremental resize the previous table's groups take the first positions,
+	 * and its slots are numbered {@code capacity + slot} as elsewhere.
+	 */
+	private abstract class BaseSpliterator<T> implements Spliterator<T> {
+		final long[] ctrl;
+		final Object[] keys;
+		final Object[] vals;
+		final long[] prevCtrl;
+		final Object[] prevKeys;
+		final Object[] prevVals;
+		final int prevGroups;     // group positions below this are previous-table groups
+		final RandomCycle cycle;
+		final int expectedModCount;
+		private final int fence;  // end of the group-position range (exclusive)
+		private int pos;          // next group position
+		private int base;         // first slot of the group being drained
+		private long pending;     // FULL bits of that group not yet visited
+		private int est;
+		private boolean sized;
+
+		BaseSpliterator() {
+			this.ctrl = SwissMap.this.ctrl;
+			this.keys = SwissMap.this.keys;
+			this.vals = SwissMap.this.vals;
+			this.prevCtrl = SwissMap.this.prevCtrl;
+			this.prevKeys = SwissMap.this.prevKeys;
+			this.prevVals = SwissMap.this.prevVals;
+			this.prevGroups = (prevCtrl == null) ? 0 : prevCtrl.length;
+			this.cycle = new RandomCycle(ctrl.length, iterationSeed);
+			this.expectedModCount = modCount;
+			this.pos = (prevCtrl == null) ? 0 : migrateCursor; // earlier previous-table groups are migrated
+			this.fence = prevGroups + ctrl.length;
+			this.est = size;
+			this.sized = true;
+		}
+
+		BaseSpliterator(BaseSpliterator<T> parent, int origin, int fence) {
+			this.ctrl = parent.ctrl;
+			this.keys = parent.keys;
+			this.vals = parent.vals;
+			this.prevCtrl = parent.prevCtrl;
+			this.prevKeys = parent.prevKeys;
+			this.prevVals = parent.prevVals;
+			this.prevGroups = parent.prevGroups;
+			this.cycle = parent.cycle;
+			this.expectedModCount = parent.expectedModCount;
+			this.pos = origin;
+			this.fence = fence;
+			this.est = parent.est;
+		}
+
+		abstract T elementAt(int idx);
+
+		abstract BaseSpliterator<T> split(int origin, int fence);
+
+		Object boundKey(int idx) {
+			int cap = ctrl.length << 3;
+			return (idx < cap) ? keys[idx] : prevKeys[idx - cap];
+		}
+
+		Object boundValue(int idx) {
+			int cap = ctrl.length << 3;
+			return (idx < cap) ? vals[idx] : prevVals[idx - cap];
+		}
+
+		private int nextSlot() {
+			while (pending == 0) {
+				if (pos >= fence) return -1;
+				int p = pos++;
+				if (p < prevGroups) {
+					pending = ~prevCtrl[p] & BITMASK_MSB;
+					base = (ctrl.length + p) << 3;
+				} else {
+					int g = cycle.indexAt(p - prevGroups);
+					pending = ~ctrl[g] & BITMASK_MSB;
+					base = g << 3;
+				}
+			}
+			int idx = base + (Long.numberOfTrailingZeros(pending) >>> 3);
+			pending &= pending - 1;
+			return idx;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			int idx = nextSlot();
+			if (idx < 0) return false;
+			action.accept(elementAt(idx));
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			for (int idx; (idx = nextSlot()) >= 0; ) {
+				action.accept(elementAt(idx));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int lo = pos;
+			int mid = (lo + fence) >>> 1;
+			if (lo >= mid) return null;
+			est >>>= 1;
+			sized = false;
+			pos = mid;
+			return split(lo, mid);
+		}
+
+		@Override
+		public long estimateSize() {
+			return est;
+		}
+
+		int sizedFlag() {
+			return sized ? Spliterator.SIZED : 0;
+		}
+	}
+
+	private final class KeySpliterator extends BaseSpliterator<K> {
+		KeySpliterator() {}
+
+		KeySpliterator(KeySpliterator parent, int origin, int fence) { super(parent, origin, fence); }
+
+		@Override
+		K elementAt(int idx) { return castKey(boundKey(idx)); }
+
+		@Override
+		KeySpliterator split(int origin, int fence) { return new KeySpliterator(this, origin, fence); }
+
+		@Override
+		public int characteristics() { return sizedFlag() | Spliterator.DISTINCT | Spliterator.NONNULL; }
+	}
+
+	private final class ValueSpliterator extends BaseSpliterator<V> {
+		ValueSpliterator() {}
+
+		ValueSpliterator(ValueSpliterator parent, int origin, int fence) { super(parent, origin, fence); }
+
+		@Override
+		V elementAt(int idx) { return castValue(boundValue(idx)); }
+
+		@Override
+		ValueSpliterator split(int origin, int fence) { return new ValueSpliterator(this, origin, fence); }
+
+		@Override
+		public int characteristics() { return sizedFlag(); }
+	}
+
+	private final class EntrySpliterator extends BaseSpliterator<Entry<K, V>> {
+		EntrySpliterator() {}
+
+		EntrySpliterator(EntrySpliterator parent, int origin, int fence) { super(parent, origin, fence); }
+
+		@Override
+		Entry<K, V> elementAt(int idx) { return new EntryRef(idx); }
+
+		@Override
+		EntrySpliterator split(int origin, int fence) { return new EntrySpliterator(this, origin, fence); }
+
+		@Override
+		public int characteristics() { return sizedFlag() | Spliterator.DISTINCT | Spliterator.NONNULL; }
+	}
+
 	private class EntryRef implements Entry<K, V> {
 		private final int idx;
 		EntryRef(int idx) { this.idx = idx; }
 
 		@Override
 		public K getKey() {
-			return castKey(keys[idx]);
+			return keyAt(idx);
 		}
 
 		@Override
 		public V getValue() {
-			return castValue(vals[idx]);
+			return valueAt(idx);
 		}
 
 		@Override
 		public V setValue(V value) {
-			V old = castValue(vals[idx]);
-			vals[idx] = value;
+			V old = valueAt(idx);
+			setValueAt(idx, value);
 			return old;
 		}
 
@@ -740,6 +1921,42 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			return new KeyIter();
 		}
 
+		@Override
+		public void forEach(Consumer<? super K> action) {
+			Objects.requireNonNull(action);
+			long[] ctrl = SwissMap.this.ctrl; // local snapshot
+			Object[] keys = SwissMap.this.keys; // local snapshot
+			int expectedModCount = modCount;
+			forEachPrevSlot(idx -> action.accept(keyAt(idx)), expectedModCount);
+			RandomCycle cycle = new RandomCycle(ctrl.length, iterationSeed);
+			for (int i = 0; i < ctrl.length; i++) {
+				int g = cycle.indexAt(i);
+				long full = ~ctrl[g] & BITMASK_MSB;
+				while (full != 0) {
+					action.accept(castKey(keys[(g << 3) + (Long.numberOfTrailingZeros(full) >>> 3)]));
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full &= full - 1;
+				}
+			}
+		}
+
+		@Override
+		public Spliterator<K> spliterator() {
+			return new KeySpliterator();
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super K> filter) {
+			Objects.requireNonNull(filter);
+			return SwissMap.this.removeIf((k, v) -> filter.test(k));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissMap.this.removeIf((k, v) -> !c.contains(k));
+		}
+
 		@Override
 		public int size() { return SwissMap.this.size(); }
 	}
@@ -750,6 +1967,48 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			return new ValueIter();
 		}
 
+		@Override
+		public void forEach(Consumer<? super V> action) {
+			Objects.requireNonNull(action);
+			long[] ctrl = SwissMap.this.ctrl; // local snapshot
+			Object[] vals = SwissMap.this.vals; // local snapshot
+			int expectedModCount = modCount;
+			forEachPrevSlot(idx -> action.accept(valueAt(idx)), expectedModCount);
+			RandomCycle cycle = new RandomCycle(ctrl.length, iterationSeed);
+			for (int i = 0; i < ctrl.length; i++) {
+				int g = cycle.indexAt(i);
+				long full = ~ctrl[g] & BITMASK_MSB;
+				while (full != 0) {
+					action.accept(castValue(vals[(g << 3) + (Long.numberOfTrailingZeros(full) >>> 3)]));
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full &= full - 1;
+				}
+			}
+		}
+
+		@Override
+		public Spliterator<V> spliterator() {
+			return new ValueSpliterator();
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super V> filter) {
+			Objects.requireNonNull(filter);
+			return SwissMap.this.removeIf((k, v) -> filter.test(v));
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissMap.this.removeIf((k, v) -> c.contains(v));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissMap.this.removeIf((k, v) -> !c.contains(v));
+		}
+
 		@Override
 		public int size() { return SwissMap.this.size(); }
 	}
@@ -760,6 +2019,41 @@ public class SwissMap<K, V> extends AbstractArrayMap<K, V> {
 			return new EntryIter();
 		}
 
+		@Override
+		public void forEach(Consumer<? super Entry<K, V>> action) {
+			Objects.requireNonNull(action);
+			long[] ctrl = SwissMap.this.ctrl; // local snapshot
+			int expectedModCount = modCount;
+			forEachPrevSlot(idx -> action.accept(new EntryRef(idx)), expectedModCount);
+			RandomCycle cycle = new RandomCycle(ctrl.length, iterationSeed);
+			for (int i = 0; i < ctrl.length; i++) {
+				int g = cycle.indexAt(i);
+				long full = ~ctrl[g] & BITMASK_MSB;
+				while (full != 0) {
+					action.accept(new EntryRef((g << 3) + (Long.numberOfTrailingZeros(full) >>> 3)));
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full &= full - 1;
+				}
+			}
+		}
+
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() {
+			return new EntrySpliterator();
+		}
+
+		@Override
+		public boolean removeIf(Predicate<? super Entry<K, V>> filter) {
+			Objects.requireNonNull(filter);
+			return removeSlotsIf(idx -> filter.test(new EntryRef(idx)));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissMap.this.removeIf((k, v) -> !c.contains(new AbstractMap.SimpleImmutableEntry<>(k, v)));
+		}
+
 		@Override
 		public int size() { return SwissMap.this.size(); }
 	}
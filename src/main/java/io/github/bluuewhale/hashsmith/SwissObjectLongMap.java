@@ -0,0 +1,198 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Object-keyed, {@code long}-valued SwissTable (SWAR probing, same control words as {@link SwissMap}),
+ * aimed at counting workloads: {@link #addTo} and {@link #incrementAndGet} probe once and update a
+ * {@code long[]} slot in place, so the hot path never allocates.
+ * Null keys are not supported; absent keys are reported with a configurable {@code noEntryValue}.
+ */
+public class SwissObjectLongMap<K> extends AbstractSwarTable {
+
+	/* Storage and state */
+	private final long noEntryValue;
+	private Object[] keys;   // key storage
+	private long[] vals;     // value storage
+
+	public SwissObjectLongMap() {
+		this(16, DEFAULT_LOAD_FACTOR, 0L);
+	}
+
+	public SwissObjectLongMap(int initialCapacity) {
+		this(initialCapacity, DEFAULT_LOAD_FACTOR, 0L);
+	}
+
+	public SwissObjectLongMap(int initialCapacity, double loadFactor) {
+		this(initialCapacity, loadFactor, 0L);
+	}
+
+	public SwissObjectLongMap(int initialCapacity, double loadFactor, long noEntryValue) {
+		super(initialCapacity, loadFactor);
+		this.noEntryValue = noEntryValue;
+		allocateSlots();
+	}
+
+	private void allocateSlots() {
+		this.keys = new Object[capacity];
+		this.vals = new long[capacity];
+	}
+
+	/**
+	 * Value returned by {@link #get}, {@link #put} and {@link #remove} when the key is absent,
+	 * and the starting point of {@link #addTo} for new keys.
+	 */
+	public long noEntryValue() {
+		return noEntryValue;
+	}
+
+	public boolean containsKey(Object key) {
+		return findIndex(key) >= 0;
+	}
+
+	public long get(Object key) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? vals[idx] : noEntryValue;
+	}
+
+	public long getOrDefault(Object key, long defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? vals[idx] : defaultValue;
+	}
+
+	/**
+	 * @return the previous value, or {@link #noEntryValue()} if the key was absent
+	 */
+	public long put(K key, long value) {
+		maybeRehash();
+		int idx = findOrInsert(key);
+		if (idx < 0) {
+			vals[~idx] = value;
+			return noEntryValue;
+		}
+		long old = vals[idx];
+		vals[idx] = value;
+		return old;
+	}
+
+	/**
+	 * Adds {@code delta} to the value mapped to {@code key} with a single probe, starting from
+	 * {@link #noEntryValue()} when the key is absent.
+	 *
+	 * @return the updated value
+	 */
+	public long addTo(K key, long delta) {
+		maybeRehash();
+		int idx = findOrInsert(key);
+		if (idx < 0) return vals[~idx] = noEntryValue + delta;
+		return vals[idx] += delta;
+	}
+
+	/**
+	 * Same as {@code addTo(key, 1)}.
+	 */
+	public long incrementAndGet(K key) {
+		return addTo(key, 1L);
+	}
+
+	/**
+	 * @return the removed value, or {@link #noEntryValue()} if the key was absent
+	 */
+	public long remove(Object key) {
+		int idx = findIndex(key);
+		if (idx < 0) return noEntryValue;
+		long old = vals[idx];
+		keys[idx] = null;
+		deleteAt(idx);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		Arrays.fill(keys, null);
+	}
+
+	/**
+	 * Visits every mapping without boxing the value. The map must not be structurally modified by {@code action}.
+	 */
+	public void forEach(ObjLongConsumer<? super K> action) {
+		Objects.requireNonNull(action, "action");
+		long[] ctrl = this.ctrl;
+		for (int i = 0; i < capacity; i++) {
+			if (Swar.isFull(Swar.ctrlAt(ctrl, i))) action.accept(castKey(keys[i]), vals[i]);
+		}
+	}
+
+	/* Hash helpers */
+	private static int hash(Object key) {
+		if (key == null) throw new NullPointerException("Null keys not supported");
+		return Hashing.smearedHash(key);
+	}
+
+	/* lookup utilities */
+	private int findIndex(Object key) {
+		// Disallow null keys even on empty maps for consistent Map semantics in this project.
+		int h = hash(key);
+		if (size == 0) return -1;
+		return findIndexHashed(key, h);
+	}
+
+	private int findIndexHashed(Object key, int h) {
+		byte h2 = Swar.h2(h);
+		long[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		int mask = ctrl.length - 1; // Derive mask from the array we index into (ctrl) to help JIT range-check elimination.
+		int g = Swar.h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			long word = ctrl[g];
+			int eqMask = Swar.eqMask(word, h2);
+			while (eqMask != 0) {
+				int idx = (g << 3) + Integer.numberOfTrailingZeros(eqMask);
+				Object k = keys[idx];
+				if (k == key || k.equals(key)) return idx;
+				eqMask &= eqMask - 1; // clear LSB
+			}
+			if (Swar.eqMask(word, Swar.EMPTY) != 0) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/**
+	 * Single-hash lookup-or-insert. Returns the slot of an existing key, or {@code ~slot} of a freshly
+	 * claimed slot (key and ctrl already written; the caller stores the value).
+	 */
+	private int findOrInsert(K key) {
+		int h = hash(key);
+		int idx = findIndexHashed(key, h);
+		if (idx >= 0) return idx;
+		idx = claimSlot(h);
+		keys[idx] = key;
+		return ~idx;
+	}
+
+	@Override
+	void rehash(int newCapacity) {
+		long[] oldCtrl = this.ctrl;
+		Object[] oldKeys = this.keys;
+		long[] oldVals = this.vals;
+
+		initCtrl(Swar.groupsFor(newCapacity));
+		allocateSlots();
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (!Swar.isFull(Swar.ctrlAt(oldCtrl, i))) continue;
+			Object k = oldKeys[i];
+			int idx = placeRehashed(Hashing.smearedHash(k));
+			keys[idx] = k;
+			vals[idx] = oldVals[i];
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private K castKey(Object k) {
+		return (K) k;
+	}
+}
@@ -2,10 +2,13 @@ package io.github.bluuewhale.hashsmith;
 
 import java.util.AbstractSet;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 
 import jdk.incubator.vector.ByteVector;
 import jdk.incubator.vector.VectorSpecies;
@@ -44,6 +47,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 	private int size;
 	private int tombstones; // deleted slots
 	private int maxLoad;
+	private int modCount;   // structural changes; lets forEach and spliterators detect an action that mutated the set
 
 	public SwissSet() {
 		this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -134,6 +138,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 		keys[idx] = null;
 		size--;
 		tombstones++;
+		modCount++;
 		maybeRehash();
 		return true;
 	}
@@ -146,6 +151,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 		size = 0;
 		tombstones = 0;
 		maxLoad = Utils.calcMaxLoad(capacity, loadFactor);
+		modCount++;
 	}
 
 	@Override
@@ -153,6 +159,37 @@ public class SwissSet<E> extends AbstractSet<E> {
 		return new KeyIter();
 	}
 
+	@Override
+	public Spliterator<E> spliterator() {
+		return new GroupSpliterator();
+	}
+
+	/**
+	 * Visits the elements group by group: groups in a seeded random order (fixed per instance, like the
+	 * iterator), the slots of a group in ascending order. FULL ctrl bytes are the non-negative ones, so one vector
+	 * compare yields the occupied slots of a group.
+	 */
+	@Override
+	public void forEach(Consumer<? super E> action) {
+		Objects.requireNonNull(action);
+		byte[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		int nGroups = groupMask + 1;
+		int expectedModCount = modCount;
+		Utils.RandomCycle cycle = new Utils.RandomCycle(nGroups, iterationSeed);
+		for (int i = 0; i < nGroups; i++) {
+			int base = cycle.indexAt(i) * DEFAULT_GROUP_SIZE;
+			long full = ByteVector.fromArray(SPECIES, ctrl, base).lt((byte) 0).not().toLong();
+			while (full != 0) {
+				@SuppressWarnings("unchecked")
+				E e = (E) keys[base + Long.numberOfTrailingZeros(full)];
+				action.accept(e);
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+				full &= full - 1;
+			}
+		}
+	}
+
 	/* Internal helpers */
 	private int hash(Object key) {
 		return Hashing.smearedHash(key);
@@ -185,6 +222,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 	}
 
 	private void rehash(int newCapacity) {
+		modCount++;
 		byte[] oldCtrl = this.ctrl;
 		Object[] oldKeys = this.keys;
 		int oldCap = (oldCtrl == null) ? 0 : oldCtrl.length - DEFAULT_GROUP_SIZE;
@@ -265,6 +303,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 		ctrl[idx] = h2;
 		keys[idx] = key;
 		size++;
+		modCount++;
 	}
 
 	/* Iteration */
@@ -316,6 +355,7 @@ public class SwissSet<E> extends AbstractSet<E> {
 				keys[last] = null;
 				size--;
 				tombstones++;
+				modCount++;
 				// NOTE: do not rehash from iterator.remove().
 				// Some JDK algorithms (e.g. AbstractCollection.retainAll) prefetch iterator state (next index) before calling remove().
 				// Rehash would rebuild ctrl/keys and can invalidate that prefetched index, causing the iterator to yield null/empty slots.
@@ -331,6 +371,97 @@ public class SwissSet<E> extends AbstractSet<E> {
 		}
 	}
 
+	/**
+	 * Splits by ranges of group positions in {@link #forEach} order (halving the range) and reads one vector of
+	 * ctrl bytes per group. Binds to the table on creation, fails fast after a structural change, and reports
+	 * SIZED only until the first split.
+	 */
+	private final class GroupSpliterator implements Spliterator<E> {
+		private final byte[] ctrl;
+		private final Object[] keys;
+		private final Utils.RandomCycle cycle;
+		private final int expectedModCount;
+		private final int fence;  // end of the group-position range (exclusive)
+		private int pos;          // next group position
+		private int base;         // first slot of the group being drained
+		private long pending;     // FULL bits of that group not yet visited
+		private int est;
+		private boolean sized;
+
+		GroupSpliterator() {
+			this.ctrl = SwissSet.this.ctrl;
+			this.keys = SwissSet.this.keys;
+			this.cycle = new Utils.RandomCycle(groupMask + 1, iterationSeed);
+			this.expectedModCount = modCount;
+			this.fence = groupMask + 1;
+			this.est = size;
+			this.sized = true;
+		}
+
+		private GroupSpliterator(GroupSpliterator parent, int origin, int fence) {
+			this.ctrl = parent.ctrl;
+			this.keys = parent.keys;
+			this.cycle = parent.cycle;
+			this.expectedModCount = parent.expectedModCount;
+			this.pos = origin;
+			this.fence = fence;
+			this.est = parent.est;
+		}
+
+		private int nextSlot() {
+			while (pending == 0) {
+				if (pos >= fence) return -1;
+				base = cycle.indexAt(pos++) * DEFAULT_GROUP_SIZE;
+				pending = ByteVector.fromArray(SPECIES, ctrl, base).lt((byte) 0).not().toLong();
+			}
+			int idx = base + Long.numberOfTrailingZeros(pending);
+			pending &= pending - 1;
+			return idx;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean tryAdvance(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			int idx = nextSlot();
+			if (idx < 0) return false;
+			action.accept((E) keys[idx]);
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			return true;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void forEachRemaining(Consumer<? super E> action) {
+			Objects.requireNonNull(action);
+			for (int idx; (idx = nextSlot()) >= 0; ) {
+				action.accept((E) keys[idx]);
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public Spliterator<E> trySplit() {
+			int lo = pos;
+			int mid = (lo + fence) >>> 1;
+			if (lo >= mid) return null;
+			est >>>= 1;
+			sized = false;
+			pos = mid;
+			return new GroupSpliterator(this, lo, mid);
+		}
+
+		@Override
+		public long estimateSize() {
+			return est;
+		}
+
+		@Override
+		public int characteristics() {
+			return (sized ? Spliterator.SIZED : 0) | Spliterator.DISTINCT;
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private E elementAt(int idx) {
 		return (E) keys[idx];
@@ -1,19 +1,41 @@
 package io.github.bluuewhale.hashsmith;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import jdk.incubator.vector.ByteVector;
 import jdk.incubator.vector.VectorSpecies;
 
 /**
  * SwissTable-inspired Map implementation using Vector API (SIMD).
  */
-public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
+public class SwissSimdMap<K, V> extends AbstractSwissMap<K, V> {
 
 	/* Control byte values */
 	private static final byte EMPTY = (byte) 0x80;    // empty slot
@@ -31,6 +53,18 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	/* Load factor: similar to Abseil SwissTable (7/8) */
     private static final double DEFAULT_LOAD_FACTOR = 0.875d;
 
+	/* Parallel resize: default minimum old capacity, and old-table slots per leaf task */
+	private static final int DEFAULT_PARALLEL_RESIZE_THRESHOLD = 1 << 20;
+	private static final int PARALLEL_RESIZE_SLOTS_PER_TASK = 1 << 13;
+
+	/* getAll: keys per interleaved batch, and first-probe outcomes that carry no slot */
+	private static final int GET_ALL_BATCH = 16;
+	private static final int GET_ALL_ABSENT = -1;
+	private static final int GET_ALL_PROBE = -2;
+
+	/* Slot claiming for parallel rehash; acquire/release publishing for ConcurrentSwissMap shards */
+	private static final VarHandle CTRL_BYTE = MethodHandles.arrayElementVarHandle(byte[].class);
+
 	/* Storage and state */
 	private int numGroups;   // cached group count (updated on init/rehash)
 	private int groupMask;   // cached (numGroups - 1), valid because numGroups is power-of-two
@@ -38,7 +72,18 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	private Object[] keys;   // key storage
 	private Object[] vals;   // value storage
 	private int tombstones;  // deleted slots
+	private int modCount;    // structural changes; lets compute/merge and forEach detect a callback that mutated the map
+
+	/* Parallel resize (see withParallelResize) */
+	private ForkJoinPool resizePool;
+	private int parallelResizeThreshold;
 
+	/* Set for ConcurrentSwissMap shards: optimistic readers may probe the arrays without a lock */
+	private boolean concurrentShard;
+	private int prefixBits;         // top smeared-hash bits shared by every key of a shard; 0 otherwise
+
+	/* ConcurrentSwissMap shards: the table being replaced by a rehash (see SwissMap#frozenTable) */
+	private volatile Frozen frozenTable;
 
 	public SwissSimdMap() {
 		this(16, DEFAULT_LOAD_FACTOR);
@@ -52,6 +97,31 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		super(initialCapacity, loadFactor);
 	}
 
+	/**
+	 * Same as {@code withParallelResize(pool, 1 << 20)}.
+	 */
+	public SwissSimdMap<K, V> withParallelResize(ForkJoinPool pool) {
+		return withParallelResize(pool, DEFAULT_PARALLEL_RESIZE_THRESHOLD);
+	}
+
+	/**
+	 * Rebuilds tables of at least {@code minCapacity} slots on {@code pool}: the old ctrl array is split into
+	 * ranges, and workers claim slots in the new table by CAS on its control bytes. The calling thread still
+	 * blocks until the rebuild completes, but the rebuild time scales with the pool's parallelism.
+	 * <p>
+	 * Applies whenever the table is rebuilt into new arrays (growth, {@code putAll} presizing); in-place
+	 * tombstone cleanup stays sequential. Key {@code hashCode} is then invoked from pool threads.
+	 * {@code null} turns it off.
+	 *
+	 * @return this map
+	 */
+	public SwissSimdMap<K, V> withParallelResize(ForkJoinPool pool, int minCapacity) {
+		if (minCapacity < 0) throw new IllegalArgumentException("minCapacity must be >= 0: " + minCapacity);
+		this.resizePool = pool;
+		this.parallelResizeThreshold = minCapacity;
+		return this;
+	}
+
 	@Override
 	protected void init(int desiredCapacity) {
 		int nGroups = Math.max(1, (desiredCapacity + DEFAULT_GROUP_SIZE - 1) / DEFAULT_GROUP_SIZE);
@@ -72,7 +142,9 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 	/* Hash split helpers */
 	private int h1(int hash) {
-		return (hash & H1_MASK) >>> 7;
+		// Prefix bits are handled as in SwissMap#h1.
+		int bits = prefixBits;
+		return ((((hash << bits) >>> bits) | (hash << -bits)) & H1_MASK) >>> 7;
 	}
 
 	private byte h2(int hash) {
@@ -103,10 +175,77 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		// Only grow the table when we are actually over the max load threshold.
 		// If we are rehashing just to clean up tombstones, keep the capacity.
 		int newCap = overMaxLoad ? Math.max(capacity * 2, DEFAULT_GROUP_SIZE) : capacity;
-		rehash(newCap);
+		if (overMaxLoad || concurrentShard) rehash(newCap);
+		else dropTombstones();
+	}
+
+	/**
+	 * Same-capacity tombstone cleanup without allocating (Abseil's drop-deletes-without-resize).
+	 * <p>
+	 * Every DELETED byte becomes EMPTY and every FULL byte becomes DELETED, which here means "not yet placed".
+	 * Each such entry is then re-placed at the first non-FULL slot of its probe sequence: kept where it is if
+	 * that slot is in its own group, moved if the slot is EMPTY, or swapped with another unplaced entry, which
+	 * is then processed in turn.
+	 */
+	private void dropTombstones() {
+		modCount++;
+		byte[] ctrl = this.ctrl;
+		Object[] keys = this.keys;
+		Object[] vals = this.vals;
+		int mask = groupMask;
+		for (int i = 0; i < capacity; i++) { // sentinel padding stays untouched
+			ctrl[i] = (ctrl[i] < 0) ? EMPTY : DELETED;
+		}
+		for (int i = 0; i < capacity; i++) {
+			if (!isDeleted(ctrl[i])) continue;
+			int h = hash(keys[i]);
+			byte h2 = h2(h);
+			int g = h1(h) & mask;
+			int step = 0;
+			long nonFull;
+			while ((nonFull = loadCtrlVector(g * DEFAULT_GROUP_SIZE).lt((byte) 0).toLong()) == 0) {
+				g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+			}
+			int target = g * DEFAULT_GROUP_SIZE + Long.numberOfTrailingZeros(nonFull);
+			if (target / DEFAULT_GROUP_SIZE == i / DEFAULT_GROUP_SIZE) {
+				ctrl[i] = h2; // already in the first group with room
+			} else if (isEmpty(ctrl[target])) {
+				keys[target] = keys[i];
+				vals[target] = vals[i];
+				keys[i] = null;
+				vals[i] = null;
+				ctrl[target] = h2;
+				ctrl[i] = EMPTY;
+			} else {
+				Object k = keys[target];
+				Object v = vals[target];
+				keys[target] = keys[i];
+				vals[target] = vals[i];
+				keys[i] = k;
+				vals[i] = v;
+				ctrl[target] = h2;
+				i--; // slot i now holds another unplaced entry
+			}
+		}
+		tombstones = 0;
 	}
 
 	private void rehash(int newCapacity) {
+		if (!concurrentShard || ctrl == null) {
+			rebuild(newCapacity);
+			return;
+		}
+		// Readers of a write-locked shard probe the old arrays meanwhile.
+		frozenTable = new Frozen(ctrl, keys, vals, size);
+		try {
+			rebuild(newCapacity);
+		} finally {
+			frozenTable = null;
+		}
+	}
+
+	private void rebuild(int newCapacity) {
+		modCount++;
 		byte[] oldCtrl = this.ctrl;
 		Object[] oldKeys = this.keys;
 		Object[] oldVals = this.vals;
@@ -127,6 +266,10 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		this.maxLoad = calcMaxLoad(this.capacity);
 
 		if (oldCtrl == null) return;
+		if (resizePool != null && oldCap >= parallelResizeThreshold) {
+			this.size = resizePool.invoke(new ParallelRehash(oldCtrl, oldKeys, oldVals, 0, oldCap));
+			return;
+		}
 
 		for (int i = 0; i < oldCap; i++) {
 			byte c = oldCtrl[i];
@@ -140,6 +283,73 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/**
+	 * Moves the FULL slots of old range [from, to) into the (fresh) current table; returns the number moved.
+	 * Leaves race only on the new control bytes: a slot is claimed by CASing it from EMPTY to H2, then the
+	 * key/value are written. Control bytes only go EMPTY -> FULL during the rebuild, so a group seen full
+	 * stays full, and every entry lands at the first EMPTY of its probe sequence, as a sequential rehash would.
+	 * {@code invoke} publishes the result to the resizing thread.
+	 */
+	@SuppressWarnings("serial")
+	private final class ParallelRehash extends RecursiveTask<Integer> {
+		private final byte[] oldCtrl;
+		private final Object[] oldKeys;
+		private final Object[] oldVals;
+		private final int from;
+		private final int to;
+
+		ParallelRehash(byte[] oldCtrl, Object[] oldKeys, Object[] oldVals, int from, int to) {
+			this.oldCtrl = oldCtrl;
+			this.oldKeys = oldKeys;
+			this.oldVals = oldVals;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Integer compute() {
+			if (to - from > PARALLEL_RESIZE_SLOTS_PER_TASK) {
+				int mid = (from + to) >>> 1;
+				ParallelRehash right = new ParallelRehash(oldCtrl, oldKeys, oldVals, mid, to);
+				right.fork();
+				int left = new ParallelRehash(oldCtrl, oldKeys, oldVals, from, mid).compute();
+				return left + right.join();
+			}
+			int n = 0;
+			for (int i = from; i < to; i++) {
+				if (!isFull(oldCtrl[i])) continue;
+				claimAndInsert(oldKeys[i], oldVals[i]);
+				n++;
+			}
+			return n;
+		}
+	}
+
+	private void claimAndInsert(Object key, Object value) {
+		int h = hash(key);
+		byte h2 = h2(h);
+		byte[] ctrl = this.ctrl; // local snapshot
+		int mask = groupMask;
+		int g = h1(h) & mask;
+		int step = 0;
+		for (;;) {
+			int base = g * DEFAULT_GROUP_SIZE;
+			// A stale vector load can only over-report EMPTY bytes; the CAS below catches that.
+			long emptyMask = ByteVector.fromArray(SPECIES, ctrl, base).eq(EMPTY).toLong();
+			if (emptyMask == 0) {
+				g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+				continue;
+			}
+			int idx = base + Long.numberOfTrailingZeros(emptyMask);
+			if (CTRL_BYTE.compareAndSet(ctrl, idx, EMPTY, h2)) {
+				keys[idx] = key;
+				vals[idx] = value;
+				return;
+			}
+			// lost the race for this slot; re-read the same group
+		}
+	}
+
 	/* fresh-table insertion used only during rehash */
 	private void insertFresh(K key, V value, int h1, byte h2) {
 		int mask = groupMask;
@@ -177,6 +387,55 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		return findIndex(key) >= 0;
 	}
 
+	/**
+	 * Looks up {@code keys[0..n)} into {@code out[0..n)} ({@code null} where absent), like {@code n} calls to
+	 * {@link #get} but with the probe stages interleaved across batches of keys: all keys are hashed, then
+	 * every first-group ctrl vector is compared, then every candidate key is loaded, and only then are keys
+	 * compared and values read, so the cache misses of different keys can overlap. Keys not settled by their
+	 * first group take the regular probe.
+	 */
+	public void getAll(Object[] keys, Object[] out, int n) {
+		Objects.checkFromIndexSize(0, n, keys.length);
+		Objects.checkFromIndexSize(0, n, out.length);
+		Object[] tableKeys = this.keys;
+		Object[] vals = this.vals;
+		int mask = groupMask;
+		int[] hashes = new int[GET_ALL_BATCH];
+		int[] slots = new int[GET_ALL_BATCH];
+		Object[] candidates = new Object[GET_ALL_BATCH];
+		for (int from = 0; from < n; from += GET_ALL_BATCH) {
+			int len = Math.min(GET_ALL_BATCH, n - from);
+			for (int j = 0; j < len; j++) {
+				hashes[j] = hash(keys[from + j]);
+			}
+			// First group of each key: its first tag match, or whether an EMPTY byte already proves absence.
+			for (int j = 0; j < len; j++) {
+				int h = hashes[j];
+				int base = (h1(h) & mask) * DEFAULT_GROUP_SIZE;
+				ByteVector v = loadCtrlVector(base);
+				long eq = v.eq(h2(h)).toLong();
+				if (eq != 0) slots[j] = base + Long.numberOfTrailingZeros(eq);
+				else slots[j] = (v.eq(EMPTY).toLong() != 0) ? GET_ALL_ABSENT : GET_ALL_PROBE;
+			}
+			for (int j = 0; j < len; j++) {
+				candidates[j] = (slots[j] >= 0) ? tableKeys[slots[j]] : null;
+			}
+			for (int j = 0; j < len; j++) {
+				Object key = keys[from + j];
+				int slot = slots[j];
+				Object k = candidates[j];
+				if (slot == GET_ALL_ABSENT) {
+					out[from + j] = null;
+				} else if (slot >= 0 && (k == key || k.equals(key))) {
+					out[from + j] = vals[slot];
+				} else {
+					int idx = findIndexHashed(key, hashes[j]);
+					out[from + j] = (idx >= 0) ? vals[idx] : null;
+				}
+			}
+		}
+	}
+
 	@Override
 	public boolean containsValue(Object value) {
 		// linear scan; acceptable for now
@@ -198,17 +457,153 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 	public V remove(Object key) {
 		int idx = findIndex(key);
 		if (idx < 0) return null;
-		@SuppressWarnings("unchecked")
-		V old = (V) vals[idx];
+		V old = removeAt(idx);
+		maybeRehash();
+		return old;
+	}
+
+	private V removeAt(int idx) {
+		V old = castValue(vals[idx]);
 		ctrl[idx] = DELETED;
 		keys[idx] = null;
 		vals[idx] = null;
 		size--;
 		tombstones++;
+		modCount++;
+		return old;
+	}
+
+	/* Map defaults, overridden to hash and probe once (the inherited ones look the key up two or three times) */
+
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int idx = findIndex(key);
+		return (idx >= 0) ? castValue(vals[idx]) : defaultValue;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int h = hash(key);
 		maybeRehash();
+		int idx = findSlot(key, h);
+		if (idx < 0) return insertAt(~idx, key, value, h2(h));
+		V old = castValue(vals[idx]);
+		if (old == null) vals[idx] = value;
 		return old;
 	}
 
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		if (idx >= 0) {
+			V old = castValue(vals[idx]);
+			if (old != null) return old;
+		}
+		int expectedModCount = modCount;
+		V value = mappingFunction.apply(key);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (value == null) return null;
+		if (idx >= 0) vals[idx] = value;
+		else insertAt(~idx, key, value, h2(h));
+		return value;
+	}
+
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		if (old == null) return null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, old);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (value != null) {
+			vals[idx] = value;
+		} else {
+			removeAt(idx);
+			maybeRehash();
+		}
+		return value;
+	}
+
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		V old = (idx >= 0) ? castValue(vals[idx]) : null;
+		int expectedModCount = modCount;
+		V value = remappingFunction.apply(key, old);
+		if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		if (idx < 0) {
+			if (value != null) insertAt(~idx, key, value, h2(h));
+		} else if (value != null) {
+			vals[idx] = value;
+		} else {
+			removeAt(idx);
+			maybeRehash();
+		}
+		return value;
+	}
+
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		Objects.requireNonNull(value);
+		int h = hash(key);
+		maybeRehash();
+		int idx = findSlot(key, h);
+		if (idx < 0) {
+			insertAt(~idx, key, value, h2(h));
+			return value;
+		}
+		V old = castValue(vals[idx]);
+		V merged = value;
+		if (old != null) {
+			int expectedModCount = modCount;
+			merged = remappingFunction.apply(old, value);
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+		}
+		if (merged != null) {
+			vals[idx] = merged;
+		} else {
+			removeAt(idx);
+			maybeRehash();
+		}
+		return merged;
+	}
+
+	@Override
+	public V replace(K key, V value) {
+		int idx = findIndex(key);
+		if (idx < 0) return null;
+		V old = castValue(vals[idx]);
+		vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		int idx = findIndex(key);
+		if (idx < 0 || !Objects.equals(vals[idx], oldValue)) return false;
+		vals[idx] = newValue;
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		int idx = findIndex(key);
+		if (idx < 0 || !Objects.equals(vals[idx], value)) return false;
+		removeAt(idx);
+		maybeRehash();
+		return true;
+	}
+
 	/**
 	 * Testing/benchmark only: delete without leaving a tombstone.
 	 * Quadratic probing breaks the contiguity assumption required for backward-shift deletion.
@@ -304,6 +699,127 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		size = 0;
 		tombstones = 0;
 		maxLoad = calcMaxLoad(capacity);
+		modCount++;
+	}
+
+	/*
+	 * Group-wise traversal: groups in a seeded random order (fixed per instance, like the iterators), the slots
+	 * of a group in ascending order. FULL ctrl bytes are the non-negative ones, so one vector compare yields the
+	 * occupied slots of a group and empty groups cost one load.
+	 */
+
+	private static long fullMask(byte[] ctrl, int base) {
+		return ByteVector.fromArray(SPECIES, ctrl, base).lt((byte) 0).not().toLong();
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		byte[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int nGroups = numGroups;
+		int expectedModCount = modCount;
+		RandomCycle cycle = new RandomCycle(nGroups, iterationSeed);
+		for (int i = 0; i < nGroups; i++) {
+			int base = cycle.indexAt(i) * DEFAULT_GROUP_SIZE;
+			long full = fullMask(ctrl, base);
+			while (full != 0) {
+				int idx = base + Long.numberOfTrailingZeros(full);
+				action.accept(castKey(keys[idx]), castValue(vals[idx]));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+				full &= full - 1;
+			}
+		}
+	}
+
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		Objects.requireNonNull(function);
+		byte[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int nGroups = numGroups;
+		int expectedModCount = modCount;
+		RandomCycle cycle = new RandomCycle(nGroups, iterationSeed);
+		for (int i = 0; i < nGroups; i++) {
+			int base = cycle.indexAt(i) * DEFAULT_GROUP_SIZE;
+			long full = fullMask(ctrl, base);
+			while (full != 0) {
+				int idx = base + Long.numberOfTrailingZeros(full);
+				vals[idx] = function.apply(castKey(keys[idx]), castValue(vals[idx]));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+				full &= full - 1;
+			}
+		}
+	}
+
+	/**
+	 * Removes every entry for which {@code filter} returns {@code true}; returns whether any was removed.
+	 * <p>
+	 * One pass over the groups with one vector load each, then at most one same-capacity compaction. A group
+	 * that still has an EMPTY slot never made a probe continue past it, so its removed slots (and older
+	 * tombstones) become EMPTY instead of DELETED.
+	 */
+	public boolean removeIf(BiPredicate<? super K, ? super V> filter) {
+		Objects.requireNonNull(filter);
+		return removeSlotsIf(idx -> filter.test(castKey(keys[idx]), castValue(vals[idx])));
+	}
+
+	/**
+	 * {@link #removeIf(BiPredicate)} by slot, so that a filter may also replace the value of a slot it keeps.
+	 */
+	private boolean removeSlotsIf(IntPredicate filter) {
+		byte[] ctrl = this.ctrl; // local snapshot
+		Object[] keys = this.keys; // local snapshot
+		Object[] vals = this.vals; // local snapshot
+		int nGroups = numGroups;
+		int expectedModCount = modCount;
+		int removed = 0;
+		try {
+			for (int g = 0; g < nGroups; g++) {
+				int base = g * DEFAULT_GROUP_SIZE;
+				ByteVector v = ByteVector.fromArray(SPECIES, ctrl, base);
+				long full = v.lt((byte) 0).not().toLong();
+				long hit = 0; // bit per slot to remove
+				while (full != 0) {
+					long bit = full & -full;
+					int idx = base + Long.numberOfTrailingZeros(bit);
+					if (filter.test(idx)) hit |= bit;
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full ^= bit;
+				}
+				long deleted = v.eq(DELETED).toLong();
+				boolean hasEmpty = v.eq(EMPTY).toLong() != 0;
+				if (hasEmpty) {
+					// No probe ever continued past this group, so its hits and older tombstones become EMPTY.
+					if ((hit | deleted) == 0) continue;
+					for (long d = deleted; d != 0; d &= d - 1) ctrl[base + Long.numberOfTrailingZeros(d)] = EMPTY;
+					tombstones -= Long.bitCount(deleted);
+				} else {
+					if (hit == 0) continue;
+					tombstones += Long.bitCount(hit);
+				}
+				byte mark = hasEmpty ? EMPTY : DELETED;
+				for (long h = hit; h != 0; h &= h - 1) {
+					int idx = base + Long.numberOfTrailingZeros(h);
+					ctrl[idx] = mark;
+					keys[idx] = null;
+					vals[idx] = null;
+				}
+				int n = Long.bitCount(hit);
+				size -= n;
+				removed += n;
+			}
+		} finally {
+			if (removed > 0) modCount++;
+		}
+		if (removed == 0) return false;
+		if (tombstones > (size >>> 1) || size + tombstones >= maxLoad) {
+			if (concurrentShard) rehash(capacity);
+			else dropTombstones();
+		}
+		return true;
 	}
 
 	@Override
@@ -321,14 +837,103 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		return new EntryView();
 	}
 
+	/* Snapshot */
+
+	/**
+	 * Writes a binary snapshot: the header, the raw control bytes, the keys/values of FULL slots in slot order,
+	 * then a check over the keys' hashes. {@code out} is flushed but not closed. The format is shared with
+	 * {@link SwissMap#writeTo}.
+	 */
+	public void writeTo(OutputStream out, Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+		SwissSnapshot.write(this, out, keyCodec, valueCodec);
+	}
+
+	public void writeTo(WritableByteChannel out, Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+		writeTo(Channels.newOutputStream(out), keyCodec, valueCodec);
+	}
+
+	/**
+	 * Restores a map written by {@link #writeTo}, with the snapshot's capacity and load factor.
+	 * <p>
+	 * When the snapshot's group size matches this JVM's SIMD width, control bytes are copied as-is and each
+	 * decoded entry goes straight into its recorded slot. This assumes key hash codes are the same as in the
+	 * writing JVM; if the decoded keys do not reproduce the snapshot's hash check, the table is rehashed once.
+	 * Snapshots with another group size (a different vector width, or {@link SwissMap}) are re-inserted.
+	 * <p>
+	 * Unless {@code in} is already buffered, it is wrapped in a buffer that may read past the snapshot.
+	 */
+	public static <K, V> SwissSimdMap<K, V> readFrom(InputStream in, Codec<? extends K> keyCodec,
+		Codec<? extends V> valueCodec) throws IOException {
+		return SwissSnapshot.read(in, SwissSimdMap<K, V>::new, keyCodec, valueCodec);
+	}
+
+	public static <K, V> SwissSimdMap<K, V> readFrom(ReadableByteChannel in, Codec<? extends K> keyCodec,
+		Codec<? extends V> valueCodec) throws IOException {
+		return readFrom(Channels.newInputStream(in), keyCodec, valueCodec);
+	}
+
+	@Override
+	int groupSize() {
+		return DEFAULT_GROUP_SIZE;
+	}
+
+	@Override
+	int tombstoneCount() {
+		return tombstones;
+	}
+
+	@Override
+	void writeCtrl(DataOutput out) throws IOException {
+		out.write(ctrl, 0, capacity); // sentinel padding is not part of the format
+	}
+
+	@Override
+	void readCtrl(DataInput in) throws IOException {
+		in.readFully(ctrl, 0, capacity);
+	}
+
+	@Override
+	byte ctrlAt(int idx) {
+		return ctrl[idx];
+	}
+
+	@Override
+	K keyAt(int idx) {
+		return castKey(keys[idx]);
+	}
+
+	@Override
+	void restoreEntryAt(int idx, K key, V value) {
+		keys[idx] = key;
+		vals[idx] = value;
+	}
+
+	@Override
+	void restoreCounts(int size, int tombstones, boolean rehash) {
+		this.size = size;
+		this.tombstones = tombstones;
+		if (rehash) rehash(capacity);
+	}
+
 	/* lookup utilities */
 	@Override
 	protected int findIndex(Object key) {
 		// Disallow null keys even on empty maps for consistent Map semantics in this project.
 		int h = hashNonNull(key);
+		return findIndexHashed(key, h);
+	}
+
+	/**
+	 * Hash-injected lookup used by {@link #findIndex(Object)} and {@link #getAll}, which already has
+	 * {@link Hashing#smearedHash(Object)} for every key.
+	 *
+	 * Preconditions: {@code key} is non-null, and {@code smearedHash} equals {@link Hashing#smearedHash(Object)}
+	 * for that key.
+	 */
+	private int findIndexHashed(Object key, int smearedHash) {
 		if (size == 0) return -1;
-		int h1 = h1(h);
-		byte h2 = h2(h);
+		int h1 = h1(smearedHash);
+		byte h2 = h2(smearedHash);
 		int mask = groupMask;
 		int visitedGroups = 0;
 		int g = h1 & mask; // optimized modulo operation (same as h1 % nGroups)
@@ -365,11 +970,290 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		vals[idx] = value;
 		ctrl[idx] = h2;
 		size++;
+		modCount++;
 		return null;
 	}
 
 	// Note: backward-shift deletion intentionally removed; it relies on linear-probe cluster contiguity.
 
+	/* ConcurrentSwissMap shard hooks (see AbstractSwissMap) */
+
+	/**
+	 * Vector load of a group's control bytes followed by an acquire fence: a FULL tag seen here implies the
+	 * key/value stored before its release-store are visible to the loads that follow.
+	 */
+	private static ByteVector loadCtrlVectorAcquire(byte[] ctrl, int base) {
+		ByteVector v = ByteVector.fromArray(SPECIES, ctrl, base);
+		VarHandle.acquireFence();
+		return v;
+	}
+
+	@Override
+	void markConcurrentShard(int prefixBits) {
+		this.concurrentShard = true;
+		this.prefixBits = prefixBits;
+	}
+
+	@Override
+	int probeLength(Object key, int smearedHash) {
+		int idx = findIndexHashed(key, smearedHash);
+		if (idx < 0) return -1;
+		int mask = groupMask;
+		int g = h1(smearedHash) & mask;
+		int target = idx / DEFAULT_GROUP_SIZE;
+		int step = 0;
+		while (g != target) g = (g + (++step)) & mask;
+		return step + 1;
+	}
+
+	@Override
+	V getConcurrent(Object key, int smearedHash) {
+		Object[] vals = this.vals; // local snapshot; may be torn from ctrl by a resize (caller's stamp then fails)
+		int idx = findIndexHashedConcurrent(key, smearedHash);
+		return (idx >= 0 && idx < vals.length) ? castValue(vals[idx]) : null;
+	}
+
+	@Override
+	boolean containsKeyConcurrent(Object key, int smearedHash) {
+		return findIndexHashedConcurrent(key, smearedHash) >= 0;
+	}
+
+	@Override
+	V putConcurrent(K key, V value, int smearedHash) {
+		maybeRehashConcurrent();
+		int idx = findSlot(key, smearedHash);
+		if (idx >= 0) return setValueAtConcurrent(idx, value);
+		insertAtConcurrent(~idx, key, value, h2(smearedHash));
+		return null;
+	}
+
+	@Override
+	void reserveConcurrent(int additional) {
+		int needed = size + additional;
+		// putConcurrent rehashes once size + tombstones reaches maxLoad, or tombstones exceed half the size.
+		if (needed + tombstones <= maxLoad && tombstones <= (size >>> 1)) return;
+		int newCapacity = Math.max(capacity, DEFAULT_GROUP_SIZE);
+		while (calcMaxLoad(newCapacity) < needed && newCapacity < (1 << 30)) newCapacity <<= 1;
+		rehash(newCapacity);
+	}
+
+	@Override
+	V removeConcurrent(Object key, int smearedHash) {
+		int idx = findIndexHashedConcurrent(key, smearedHash);
+		if (idx < 0) return null;
+		return removeAtConcurrent(idx);
+	}
+
+	@Override
+	int indexOfConcurrent(Object key, int smearedHash) {
+		return findIndexHashedConcurrent(key, smearedHash);
+	}
+
+	@Override
+	int indexOfValueConcurrent(Object value) {
+		for (int i = 0; i < capacity; i++) {
+			if (isFull(ctrl[i]) && Objects.equals(vals[i], value)) return i;
+		}
+		return -1;
+	}
+
+	@Override
+	int findOrReserveConcurrent(Object key, int smearedHash) {
+		int idx = findSlot(key, smearedHash);
+		if (idx >= 0) return idx;
+		byte[] before = this.ctrl;
+		maybeRehashConcurrent();
+		return (this.ctrl == before) ? idx : findSlot(key, smearedHash);
+	}
+
+	@Override
+	V valueAtConcurrent(int idx) {
+		return castValue(vals[idx]);
+	}
+
+	@Override
+	V setValueAtConcurrent(int idx, V value) {
+		V old = castValue(vals[idx]);
+		vals[idx] = value;
+		return old;
+	}
+
+	@Override
+	void insertReservedConcurrent(int slot, K key, V value, int smearedHash) {
+		insertAtConcurrent(slot, key, value, h2(smearedHash));
+	}
+
+	@Override
+	V removeAtConcurrent(int idx) {
+		V old = castValue(vals[idx]);
+		// Publish DELETED before clearing the entry, so a FULL tag never pairs with a cleared key.
+		CTRL_BYTE.setRelease(ctrl, idx, DELETED);
+		VarHandle.storeStoreFence();
+		keys[idx] = null;
+		vals[idx] = null;
+		size--;
+		tombstones++;
+		maybeRehashConcurrent();
+		return old;
+	}
+
+	@Override
+	void replaceAllConcurrent(BiFunction<? super K, ? super V, ? extends V> function) {
+		for (int i = 0; i < capacity; i++) {
+			if (isFull(ctrl[i])) vals[i] = function.apply(castKey(keys[i]), castValue(vals[i]));
+		}
+	}
+
+	@Override
+	int copyEntriesConcurrent(Object[] keysOut, Object[] valsOut) {
+		return copyEntriesIn(this.ctrl, this.keys, this.vals, keysOut, valsOut);
+	}
+
+	@Override
+	FrozenTable<V> frozenTable() {
+		return frozenTable;
+	}
+
+	/* Variant of maybeRehash for the concurrent write paths: always rebuilds into fresh arrays. */
+	private void maybeRehashConcurrent() {
+		boolean overMaxLoad = (size + tombstones) >= maxLoad;
+		boolean tooManyTombstones = tombstones > (size >>> 1);
+		if (!overMaxLoad && !tooManyTombstones) return;
+		rehash(overMaxLoad ? Math.max(capacity * 2, DEFAULT_GROUP_SIZE) : capacity);
+	}
+
+	private int findIndexHashedConcurrent(Object key, int smearedHash) {
+		if (size == 0) return -1;
+		return findIndexIn(this.ctrl, this.keys, key, smearedHash);
+	}
+
+	private int findIndexIn(byte[] ctrl, Object[] keys, Object key, int smearedHash) {
+		if (ctrl.length != keys.length + DEFAULT_GROUP_SIZE) return -1; // torn by a concurrent resize; the stamp fails
+		byte h2 = h2(smearedHash);
+		int nGroups = keys.length / DEFAULT_GROUP_SIZE;
+		int mask = nGroups - 1;
+		int visitedGroups = 0;
+		int g = h1(smearedHash) & mask;
+		int step = 0;
+		for (;;) {
+			int base = g * DEFAULT_GROUP_SIZE;
+			ByteVector v = loadCtrlVectorAcquire(ctrl, base);
+			long eqMask = v.eq(h2).toLong();
+			while (eqMask != 0) {
+				int idx = base + Long.numberOfTrailingZeros(eqMask);
+				Object k = keys[idx];
+				// Keep NULL-safe check to survive concurrent deletes without crashing before stamp validation.
+				if (k == key || (k != null && k.equals(key))) {
+					return idx;
+				}
+				eqMask &= eqMask - 1;
+			}
+			if (v.eq(EMPTY).toLong() != 0) return -1;
+			if (++visitedGroups >= nGroups) return -1;
+			g = (g + (++step)) & mask; // triangular (quadratic) probing over groups
+		}
+	}
+
+	/**
+	 * Writer-side probe (shard writers and the read-modify-write methods): the slot holding {@code key}, or
+	 * {@code ~slot} of the first tombstone (else EMPTY slot) on its probe sequence. Requires room for one more entry.
+	 */
+	private int findSlot(Object key, int smearedHash) {
+		byte h2 = h2(smearedHash);
+		int mask = groupMask;
+		int firstTombstone = -1;
+		int visitedGroups = 0;
+		int g = h1(smearedHash) & mask;
+		int step = 0;
+		for (;;) {
+			int base = g * DEFAULT_GROUP_SIZE;
+			ByteVector v = loadCtrlVector(base); // writer-side: plain is fine
+			long eqMask = v.eq(h2).toLong();
+			while (eqMask != 0) {
+				int idx = base + Long.numberOfTrailingZeros(eqMask);
+				Object k = keys[idx];
+				if (k == key || k.equals(key)) return idx;
+				eqMask &= eqMask - 1;
+			}
+			if (firstTombstone < 0) {
+				long delMask = v.eq(DELETED).toLong();
+				if (delMask != 0) firstTombstone = base + Long.numberOfTrailingZeros(delMask);
+			}
+			long emptyMask = v.eq(EMPTY).toLong();
+			if (emptyMask != 0) {
+				return ~((firstTombstone >= 0) ? firstTombstone : base + Long.numberOfTrailingZeros(emptyMask));
+			}
+			if (++visitedGroups >= numGroups) {
+				if (firstTombstone >= 0) return ~firstTombstone;
+				throw new IllegalStateException("Probe cycle exhausted; table appears full of tombstones");
+			}
+			g = (g + (++step)) & mask;
+		}
+	}
+
+	private void insertAtConcurrent(int idx, K key, V value, byte h2) {
+		if (isDeleted(ctrl[idx])) tombstones--;
+		// Publish entry first, then release-store the FULL tag.
+		keys[idx] = key;
+		vals[idx] = value;
+		CTRL_BYTE.setRelease(ctrl, idx, h2);
+		size++;
+	}
+
+	private int copyEntriesIn(byte[] ctrl, Object[] keys, Object[] vals, Object[] keysOut, Object[] valsOut) {
+		if (ctrl.length != keys.length + DEFAULT_GROUP_SIZE || vals.length != keys.length) return -1;
+		int limit = Math.min(keysOut.length, valsOut.length);
+		int n = 0;
+		for (int base = 0; base < keys.length; base += DEFAULT_GROUP_SIZE) {
+			long fullMask = loadCtrlVectorAcquire(ctrl, base).lt((byte) 0).not().toLong();
+			while (fullMask != 0) {
+				int idx = base + Long.numberOfTrailingZeros(fullMask);
+				fullMask &= fullMask - 1;
+				Object k = keys[idx];
+				if (k == null || n == limit) return -1;
+				keysOut[n] = k;
+				valsOut[n] = vals[idx];
+				n++;
+			}
+		}
+		return n;
+	}
+
+	private final class Frozen implements FrozenTable<V> {
+		private final byte[] ctrl;
+		private final Object[] keys;
+		private final Object[] vals;
+		private final int size;
+
+		Frozen(byte[] ctrl, Object[] keys, Object[] vals, int size) {
+			this.ctrl = ctrl;
+			this.keys = keys;
+			this.vals = vals;
+			this.size = size;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public V get(Object key, int smearedHash) {
+			int idx = (size == 0) ? -1 : findIndexIn(ctrl, keys, key, smearedHash);
+			return (idx >= 0) ? castValue(vals[idx]) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key, int smearedHash) {
+			return size != 0 && findIndexIn(ctrl, keys, key, smearedHash) >= 0;
+		}
+
+		@Override
+		public int copyEntries(Object[] keysOut, Object[] valsOut) {
+			return copyEntriesIn(ctrl, keys, vals, keysOut, valsOut);
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private V castValue(Object v) {
 		return (V) v;
@@ -436,6 +1320,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 				vals[last] = null;
 				size--;
 				tombstones++;
+				modCount++;
 			}
 			last = -1;
 		}
@@ -463,6 +1348,148 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 		}
 	}
 
+	/* spliterator base */
+
+	/**
+	 * Splits by ranges of group positions in {@link #forEach} order (halving the range) and reads one vector of
+	 * ctrl bytes per group. Binds to the table on creation, fails fast after a structural change, and reports SIZED only
+	 * until the first split.
+	 */
+	private abstract class BaseSpliterator<T> implements Spliterator<T> {
+		final byte[] ctrl;
+		final Object[] keys;
+		final Object[] vals;
+		final RandomCycle cycle;
+		final int expectedModCount;
+		private final int fence;  // end of the group-position range (exclusive)
+		private int pos;          // next group position
+		private int base;         // first slot of the group being drained
+		private long pending;     // FULL bits of that group not yet visited
+		private int est;
+		private boolean sized;
+
+		BaseSpliterator() {
+			this.ctrl = SwissSimdMap.this.ctrl;
+			this.keys = SwissSimdMap.this.keys;
+			this.vals = SwissSimdMap.this.vals;
+			this.cycle = new RandomCycle(numGroups, iterationSeed);
+			this.expectedModCount = modCount;
+			this.fence = numGroups;
+			this.est = size;
+			this.sized = true;
+		}
+
+		BaseSpliterator(BaseSpliterator<T> parent, int origin, int fence) {
+			this.ctrl = parent.ctrl;
+			this.keys = parent.keys;
+			this.vals = parent.vals;
+			this.cycle = parent.cycle;
+			this.expectedModCount = parent.expectedModCount;
+			this.pos = origin;
+			this.fence = fence;
+			this.est = parent.est;
+		}
+
+		abstract T elementAt(int idx);
+
+		abstract BaseSpliterator<T> split(int origin, int fence);
+
+		private int nextSlot() {
+			while (pending == 0) {
+				if (pos >= fence) return -1;
+				base = cycle.indexAt(pos++) * DEFAULT_GROUP_SIZE;
+				pending = fullMask(ctrl, base);
+			}
+			int idx = base + Long.numberOfTrailingZeros(pending);
+			pending &= pending - 1;
+			return idx;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			int idx = nextSlot();
+			if (idx < 0) return false;
+			action.accept(elementAt(idx));
+			if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			for (int idx; (idx = nextSlot()) >= 0; ) {
+				action.accept(elementAt(idx));
+				if (modCount != expectedModCount) throw new ConcurrentModificationException();
+			}
+		}
+
+		@Override
+		public Spliterator<T> trySplit() {
+			int lo = pos;
+			int mid = (lo + fence) >>> 1;
+			if (lo >= mid) return null;
+			est >>>= 1;
+			sized = false;
+			pos = mid;
+			return split(lo, mid);
+		}
+
+		@Override
+		public long estimateSize() {
+			return est;
+		}
+
+		int sizedFlag() {
+			return sized ? Spliterator.SIZED : 0;
+		}
+	}
+
+	private final class KeySpliterator extends BaseSpliterator<K> {
+		KeySpliterator() {}
+
+		KeySpliterator(KeySpliterator parent, int origin, int fence) { super(parent, origin, fence); }
+
+		@Override
+		K elementAt(int idx) { return castKey(keys[idx]); }
+
+		@Override
+		KeySpliterator split(int origin, int fence) { return new KeySpliterator(this, origin, fence); }
+
+		@Override
+		public int characteristics() { return sizedFlag() | Spliterator.DISTINCT | Spliterator.NONNULL; }
+	}
+
+	private final class ValueSpliterator extends BaseSpliterator<V> {
+		ValueSpliterator() {}
+
+		ValueSpliterator(ValueSpliterator parent, int origin, int fence) { super(parent, origin, fence); }
+
+		@Override
+		V elementAt(int idx) { return castValue(vals[idx]); }
+
+		@Override
+		ValueSpliterator split(int origin, int fence) { return new ValueSpliterator(this, origin, fence); }
+
+		@Override
+		public int characteristics() { return sizedFlag(); }
+	}
+
+	private final class EntrySpliterator extends BaseSpliterator<Entry<K, V>> {
+		EntrySpliterator() {}
+
+		EntrySpliterator(EntrySpliterator parent, int origin, int fence) { super(parent, origin, fence); }
+
+		@Override
+		Entry<K, V> elementAt(int idx) { return new EntryRef(idx); }
+
+		@Override
+		EntrySpliterator split(int origin, int fence) { return new EntrySpliterator(this, origin, fence); }
+
+		@Override
+		public int characteristics() { return sizedFlag() | Spliterator.DISTINCT | Spliterator.NONNULL; }
+	}
+
 	private class EntryRef implements Entry<K, V> {
 		private final int idx;
 		EntryRef(int idx) { this.idx = idx; }
@@ -517,6 +1544,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 			vals[idx] = null;
 			size--;
 			tombstones++;
+			modCount++;
 			// NOTE: do not rehash from iterator.remove().
 			// Some JDK algorithms (e.g. AbstractCollection.retainAll) prefetch iterator state (next index) before calling remove().
 			// Rehash would rebuild ctrl/keys and can invalidate that prefetched index, causing the iterator to yield null/empty slots.
@@ -525,6 +1553,40 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 		@Override
 		public Iterator<K> iterator() { return new KeyIter(); }
+
+		@Override
+		public Spliterator<K> spliterator() { return new KeySpliterator(); }
+
+		@Override
+		public boolean removeIf(Predicate<? super K> filter) {
+			Objects.requireNonNull(filter);
+			return SwissSimdMap.this.removeIf((k, v) -> filter.test(k));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissSimdMap.this.removeIf((k, v) -> !c.contains(k));
+		}
+
+		@Override
+		public void forEach(Consumer<? super K> action) {
+			Objects.requireNonNull(action);
+			byte[] ctrl = SwissSimdMap.this.ctrl; // local snapshot
+			Object[] keys = SwissSimdMap.this.keys; // local snapshot
+			int nGroups = numGroups;
+			int expectedModCount = modCount;
+			RandomCycle cycle = new RandomCycle(nGroups, iterationSeed);
+			for (int i = 0; i < nGroups; i++) {
+				int base = cycle.indexAt(i) * DEFAULT_GROUP_SIZE;
+				long full = fullMask(ctrl, base);
+				while (full != 0) {
+					action.accept(castKey(keys[base + Long.numberOfTrailingZeros(full)]));
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full &= full - 1;
+				}
+			}
+		}
 	}
 
 	private class ValuesView extends java.util.AbstractCollection<V> {
@@ -539,6 +1601,46 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 		@Override
 		public Iterator<V> iterator() { return new ValueIter(); }
+
+		@Override
+		public Spliterator<V> spliterator() { return new ValueSpliterator(); }
+
+		@Override
+		public boolean removeIf(Predicate<? super V> filter) {
+			Objects.requireNonNull(filter);
+			return SwissSimdMap.this.removeIf((k, v) -> filter.test(v));
+		}
+
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissSimdMap.this.removeIf((k, v) -> c.contains(v));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissSimdMap.this.removeIf((k, v) -> !c.contains(v));
+		}
+
+		@Override
+		public void forEach(Consumer<? super V> action) {
+			Objects.requireNonNull(action);
+			byte[] ctrl = SwissSimdMap.this.ctrl; // local snapshot
+			Object[] vals = SwissSimdMap.this.vals; // local snapshot
+			int nGroups = numGroups;
+			int expectedModCount = modCount;
+			RandomCycle cycle = new RandomCycle(nGroups, iterationSeed);
+			for (int i = 0; i < nGroups; i++) {
+				int base = cycle.indexAt(i) * DEFAULT_GROUP_SIZE;
+				long full = fullMask(ctrl, base);
+				while (full != 0) {
+					action.accept(castValue(vals[base + Long.numberOfTrailingZeros(full)]));
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full &= full - 1;
+				}
+			}
+		}
 	}
 
 	private class EntryView extends java.util.AbstractSet<Entry<K, V>> {
@@ -565,6 +1667,7 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 			vals[idx] = null;
 			size--;
 			tombstones++;
+			modCount++;
 			// NOTE: do not rehash from iterator.remove().
 			// Some JDK algorithms (e.g. AbstractCollection.retainAll) prefetch iterator state (next index) before calling remove().
 			// Rehash would rebuild ctrl/keys and can invalidate that prefetched index, causing the iterator to yield null/empty slots.
@@ -573,5 +1676,38 @@ public class SwissSimdMap<K, V> extends AbstractArrayMap<K, V> {
 
 		@Override
 		public Iterator<Entry<K, V>> iterator() { return new EntryIter(); }
+
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() { return new EntrySpliterator(); }
+
+		@Override
+		public boolean removeIf(Predicate<? super Entry<K, V>> filter) {
+			Objects.requireNonNull(filter);
+			return removeSlotsIf(idx -> filter.test(new EntryRef(idx)));
+		}
+
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return SwissSimdMap.this.removeIf((k, v) -> !c.contains(new AbstractMap.SimpleImmutableEntry<>(k, v)));
+		}
+
+		@Override
+		public void forEach(Consumer<? super Entry<K, V>> action) {
+			Objects.requireNonNull(action);
+			byte[] ctrl = SwissSimdMap.this.ctrl; // local snapshot
+			int nGroups = numGroups;
+			int expectedModCount = modCount;
+			RandomCycle cycle = new RandomCycle(nGroups, iterationSeed);
+			for (int i = 0; i < nGroups; i++) {
+				int base = cycle.indexAt(i) * DEFAULT_GROUP_SIZE;
+				long full = fullMask(ctrl, base);
+				while (full != 0) {
+					action.accept(new EntryRef(base + Long.numberOfTrailingZeros(full)));
+					if (modCount != expectedModCount) throw new ConcurrentModificationException();
+					full &= full - 1;
+				}
+			}
+		}
 	}
 }
@@ -0,0 +1,207 @@
+package io.github.bluuewhale.hashsmith;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Snapshot format of {@link SwissMap} and {@link SwissSimdMap}, and the reader/writer both maps delegate to.
+ * <p>
+ * Layout (big-endian {@link DataOutput}):
+ * <pre>
+ * int magic, int version, int groupSize, int capacity, int size, int tombstones, double loadFactor
+ * byte[capacity] ctrl    (slot order; EMPTY / DELETED / H2)
+ * size x (key, byte hasValue, [value])   (slot order, FULL slots only)
+ * long hashCheck         (the keys' full smeared hashes, mixed in slot order)
+ * </pre>
+ * A reader with the same group size copies ctrl verbatim and drops keys/values into their slots, then rehashes
+ * if the decoded keys' hashes do not reproduce {@code hashCheck}; otherwise it skips ctrl and re-inserts the
+ * entries.
+ */
+final class SwissSnapshot {
+	private SwissSnapshot() {}
+
+	static final int MAGIC = 0x4853_4D50; // "HSMP"
+	static final int FORMAT_VERSION = 2;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final byte EMPTY = (byte) 0x80;
+	private static final byte DELETED = (byte) 0xFE;
+
+	/** Creates the map a snapshot is restored into. */
+	@FunctionalInterface
+	interface Factory<M> {
+		M create(int capacity, double loadFactor);
+	}
+
+	/**
+	 * Writes {@code map}, which must not be mid-migration, and flushes (but does not close) {@code out}.
+	 */
+	static <K, V> void write(AbstractSwissMap<K, V> map, OutputStream out, Codec<? super K> keyCodec,
+		Codec<? super V> valueCodec) throws IOException {
+		Objects.requireNonNull(keyCodec, "keyCodec");
+		Objects.requireNonNull(valueCodec, "valueCodec");
+		DataOutputStream data = output(out);
+		writeHeader(data, map.groupSize(), map.capacity, map.size, map.tombstoneCount(), map.loadFactor);
+		map.writeCtrl(data);
+		long hashCheck = 0;
+		for (int i = 0; i < map.capacity; i++) {
+			if (map.ctrlAt(i) < 0) continue; // EMPTY or DELETED
+			K key = map.keyAt(i);
+			keyCodec.write(data, key);
+			writeValue(data, map.valueAt(i), valueCodec);
+			hashCheck = mixHash(hashCheck, Hashing.smearedHash(key));
+		}
+		data.writeLong(hashCheck);
+		data.flush();
+	}
+
+	/**
+	 * Restores a snapshot into a map from {@code factory}, sized by the snapshot's capacity and load factor.
+	 */
+	static <K, V, M extends AbstractSwissMap<K, V>> M read(InputStream in, Factory<M> factory,
+		Codec<? extends K> keyCodec, Codec<? extends V> valueCodec) throws IOException {
+		Objects.requireNonNull(keyCodec, "keyCodec");
+		Objects.requireNonNull(valueCodec, "valueCodec");
+		DataInputStream data = input(in);
+		Header header = readHeader(data);
+		M m = factory.create(header.capacity, header.loadFactor);
+		if (header.groupSize != m.groupSize()) {
+			skipCtrl(data, header.capacity);
+			for (int i = 0; i < header.size; i++) m.put(readKey(data, keyCodec), readValue(data, valueCodec));
+			data.readLong(); // entries were placed by their current hashes already
+			return m;
+		}
+
+		m.readCtrl(data);
+		int full = 0;
+		int deleted = 0;
+		long hashCheck = 0;
+		for (int i = 0; i < header.capacity; i++) {
+			byte c = m.ctrlAt(i);
+			if (c >= 0) {
+				K key = readKey(data, keyCodec);
+				m.restoreEntryAt(i, key, readValue(data, valueCodec));
+				hashCheck = mixHash(hashCheck, Hashing.smearedHash(key));
+				full++;
+			} else if (c == DELETED) {
+				deleted++;
+			} else if (c != EMPTY) {
+				throw corruptCtrl(c, i);
+			}
+		}
+		checkCounts(header, full, deleted);
+		m.restoreCounts(full, deleted, data.readLong() != hashCheck);
+		return m;
+	}
+
+	/**
+	 * Each step is a bijection of {@code acc}, so a single changed hash always changes the result, and the
+	 * rotate carries high bits of earlier hashes into the low bits that later multiplies spread.
+	 */
+	private static long mixHash(long acc, int hash) {
+		return Long.rotateLeft((acc ^ (hash & 0xFFFF_FFFFL)) * 0x9E37_79B9_7F4A_7C15L, 29);
+	}
+
+	private static final class Header {
+		final int groupSize;
+		final int capacity;
+		final int size;
+		final int tombstones;
+		final double loadFactor;
+
+		Header(int groupSize, int capacity, int size, int tombstones, double loadFactor) {
+			this.groupSize = groupSize;
+			this.capacity = capacity;
+			this.size = size;
+			this.tombstones = tombstones;
+			this.loadFactor = loadFactor;
+		}
+	}
+
+	private static DataOutputStream output(OutputStream out) {
+		return new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+	}
+
+	/**
+	 * Wraps {@code in} for reading; only adds a buffer (which may read past the snapshot) if the caller did not.
+	 */
+	private static DataInputStream input(InputStream in) {
+		if (in instanceof DataInputStream data) return data;
+		return new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in, BUFFER_SIZE));
+	}
+
+	private static void writeHeader(DataOutput out, int groupSize, int capacity, int size, int tombstones,
+		double loadFactor) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeInt(groupSize);
+		out.writeInt(capacity);
+		out.writeInt(size);
+		out.writeInt(tombstones);
+		out.writeDouble(loadFactor);
+	}
+
+	private static Header readHeader(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) throw new IOException("Not a hash-smith map snapshot");
+		int version = in.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported snapshot version " + version + " (expected " + FORMAT_VERSION + ")");
+		}
+		int groupSize = in.readInt();
+		int capacity = in.readInt();
+		int size = in.readInt();
+		int tombstones = in.readInt();
+		double loadFactor = in.readDouble();
+		if (groupSize <= 0 || Integer.bitCount(groupSize) != 1 || capacity < groupSize
+			|| Integer.bitCount(capacity) != 1) {
+			throw new IOException("Corrupt snapshot: groupSize=" + groupSize + ", capacity=" + capacity);
+		}
+		if (size < 0 || tombstones < 0 || (long) size + tombstones >= capacity) {
+			throw new IOException("Corrupt snapshot: size=" + size + ", tombstones=" + tombstones);
+		}
+		if (!(loadFactor > 0.0d && loadFactor < 1.0d)) {
+			throw new IOException("Corrupt snapshot: loadFactor=" + loadFactor);
+		}
+		return new Header(groupSize, capacity, size, tombstones, loadFactor);
+	}
+
+	private static void skipCtrl(DataInput in, int capacity) throws IOException {
+		byte[] scratch = new byte[Math.min(capacity, BUFFER_SIZE)];
+		for (int remaining = capacity; remaining > 0; remaining -= scratch.length) {
+			in.readFully(scratch, 0, Math.min(remaining, scratch.length));
+		}
+	}
+
+	private static <T> void writeValue(DataOutput out, T value, Codec<? super T> codec) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) codec.write(out, value);
+	}
+
+	private static <T> T readValue(DataInput in, Codec<? extends T> codec) throws IOException {
+		return in.readBoolean() ? codec.read(in) : null;
+	}
+
+	private static <K> K readKey(DataInput in, Codec<? extends K> codec) throws IOException {
+		K key = codec.read(in);
+		if (key == null) throw new IOException("Corrupt snapshot: key codec returned null");
+		return key;
+	}
+
+	private static void checkCounts(Header header, int full, int deleted) throws IOException {
+		if (full != header.size || deleted != header.tombstones) {
+			throw new IOException("Corrupt snapshot: ctrl has " + full + " entries / " + deleted
+				+ " tombstones, header says " + header.size + " / " + header.tombstones);
+		}
+	}
+
+	private static IOException corruptCtrl(byte c, int idx) {
+		return new IOException("Corrupt snapshot: control byte 0x" + Integer.toHexString(c & 0xFF) + " at slot " + idx);
+	}
+}
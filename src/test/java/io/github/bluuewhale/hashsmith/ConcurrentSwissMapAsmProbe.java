@@ -1,6 +1,5 @@
 package io.github.bluuewhale.hashsmith;
 
-import java.lang.reflect.Field;
 import java.util.concurrent.locks.StampedLock;
 
 /**
@@ -66,7 +65,7 @@ public final class ConcurrentSwissMapAsmProbe {
 	}
 
 	private static Thread startLockToggler(ConcurrentSwissMap<?, ?> map) {
-		StampedLock[] locks = reflectLocks(map);
+		StampedLock[] locks = shardLocks(map);
 		Thread t = new Thread(() -> {
 			while (!stopWriter) {
 				for (StampedLock l : locks) {
@@ -87,14 +86,8 @@ public final class ConcurrentSwissMapAsmProbe {
 		return t;
 	}
 
-	private static StampedLock[] reflectLocks(ConcurrentSwissMap<?, ?> map) {
-		try {
-			Field f = ConcurrentSwissMap.class.getDeclaredField("locks");
-			f.setAccessible(true);
-			return (StampedLock[]) f.get(map);
-		} catch (ReflectiveOperationException e) {
-			throw new RuntimeException("Failed to access ConcurrentSwissMap.locks via reflection", e);
-		}
+	private static StampedLock[] shardLocks(ConcurrentSwissMap<?, ?> map) {
+		return map.shards().stream().map(shard -> shard.lock).toArray(StampedLock[]::new);
 	}
 }
 
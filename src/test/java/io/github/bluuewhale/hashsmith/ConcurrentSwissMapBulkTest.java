@@ -0,0 +1,162 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.github.bluuewhale.hashsmith.ConcurrentSwissMap.ProbeEngine;
+
+class ConcurrentSwissMapBulkTest {
+
+	private static ConcurrentSwissMap<Integer, Long> filled(int n) {
+		var m = new ConcurrentSwissMap<Integer, Long>(64, 16, 0.875d);
+		for (int i = 0; i < n; i++) m.put(i, (long) i);
+		return m;
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1L, 1_000L, Long.MAX_VALUE })
+	void forEachVisitsEveryMappingOnce(long threshold) {
+		var m = filled(100_000);
+		var seen = ConcurrentHashMap.<Integer>newKeySet();
+		var sum = new LongAdder();
+		m.forEach(threshold, (k, v) -> {
+			assertTrue(seen.add(k), "visited twice: " + k);
+			sum.add(v);
+		});
+		assertEquals(100_000, seen.size());
+		assertEquals(100_000L * 99_999 / 2, sum.sum());
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1L, Long.MAX_VALUE })
+	void reduceSkipsNullResults(long threshold) {
+		var m = filled(100_000);
+		assertEquals(100_000L * 99_999 / 2, m.reduceValues(threshold, Long::sum));
+		assertEquals(99_999L, m.<Long>reduce(threshold, (k, v) -> v, Math::max));
+		assertEquals(50_000L, m.reduce(threshold, (k, v) -> (k & 1) == 0 ? 1L : null, Long::sum));
+		assertNull(m.reduce(threshold, (k, v) -> null, Long::sum));
+
+		m.put(-1, null);
+		assertEquals(100_000L * 99_999 / 2, m.reduceValues(threshold, Long::sum));
+		assertNull(new ConcurrentSwissMap<Integer, Long>().reduceValues(threshold, Long::sum));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1L, Long.MAX_VALUE })
+	void searchStopsAtFirstHit(long threshold) {
+		var m = filled(100_000);
+		assertEquals("found", m.search(threshold, (k, v) -> k == 77_777 ? "found" : null));
+		assertNull(m.search(threshold, (k, v) -> k < 0 ? k : null));
+
+		// Every mapping matches: far fewer than all of them should be visited before tasks notice the hit.
+		var calls = new AtomicInteger();
+		Integer hit = m.search(threshold, (k, v) -> {
+			calls.incrementAndGet();
+			return k;
+		});
+		assertNotNull(hit);
+		assertTrue(calls.get() < 100_000, "search did not terminate early: " + calls.get());
+	}
+
+	@Test
+	void rejectsNonPositiveThreshold() {
+		var m = filled(10);
+		assertThrows(IllegalArgumentException.class, () -> m.forEach(0L, (k, v) -> {}));
+		assertThrows(NullPointerException.class, () -> m.search(1L, null));
+	}
+
+	@Test
+	void getAllMatchesGet() {
+		var m = filled(10_000);
+		var split = new ConcurrentSwissMap<Integer, Long>(1, 16, 0.875d).withShardSplitting(64);
+		for (int i = 0; i < 10_000; i++) split.put(i, (long) i);
+
+		Object[] keys = new Object[2_000];
+		for (int i = 0; i < keys.length; i++) keys[i] = (i * 7919) % 15_000; // some absent, some repeated
+		for (var map : List.of(m, split)) {
+			Object[] out = new Object[keys.length + 1];
+			out[keys.length] = "untouched";
+			map.getAll(keys, out, keys.length);
+			for (int i = 0; i < keys.length; i++) assertEquals(map.get(keys[i]), out[i], "key " + keys[i]);
+			assertEquals("untouched", out[keys.length]);
+		}
+	}
+
+	@Test
+	void getAllRejectsNullKeysAndShortArrays() {
+		var m = filled(10);
+		assertThrows(NullPointerException.class, () -> m.getAll(new Object[] { 1, null }, new Object[2], 2));
+		assertThrows(IndexOutOfBoundsException.class, () -> m.getAll(new Object[] { 1, 2 }, new Object[1], 2));
+		m.getAll(new Object[0], new Object[0], 0);
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = { 1L, 1_000L, Long.MAX_VALUE })
+	void putAllLoadsEveryMapping(long threshold) {
+		var m = filled(5_000);
+		var src = new HashMap<Integer, Long>();
+		for (int i = 2_500; i < 200_000; i++) src.put(i, -(long) i);
+		var expected = new HashMap<Integer, Long>();
+		m.forEach(expected::put);
+		expected.putAll(src);
+
+		m.putAll(threshold, src);
+		assertEquals(expected.size(), m.size());
+		assertEquals(expected, new HashMap<>(m));
+		assertThrows(IllegalArgumentException.class, () -> m.putAll(0L, src));
+	}
+
+	@Test
+	void putAllRejectsNullKeyBeforeInserting() {
+		var m = filled(0);
+		var src = new HashMap<Integer, Long>();
+		for (int i = 0; i < 100; i++) src.put(i, (long) i);
+		src.put(null, 0L);
+		assertThrows(NullPointerException.class, () -> m.putAll(src));
+		assertTrue(m.isEmpty());
+	}
+
+	/** Counts hashCode calls, to show a load neither hashes twice nor rehashes while growing. */
+	private static final class CountingKey {
+		final int id;
+		final AtomicInteger hashes = new AtomicInteger();
+
+		CountingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			hashes.incrementAndGet();
+			return id * 0x9E3779B9;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CountingKey k && k.id == id;
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void putAllHashesEachKeyOnce(ProbeEngine engine) {
+		var m = new ConcurrentSwissMap<CountingKey, Integer>(4, 16, 0.875d, engine);
+		var src = new HashMap<CountingKey, Integer>();
+		for (int i = 0; i < 50_000; i++) src.put(new CountingKey(i), i);
+		src.keySet().forEach(k -> k.hashes.set(0));
+
+		m.putAll(src);
+		assertEquals(50_000, m.size());
+		for (CountingKey k : src.keySet()) assertEquals(1, k.hashes.get(), "hashCode calls for key " + k.id);
+	}
+}
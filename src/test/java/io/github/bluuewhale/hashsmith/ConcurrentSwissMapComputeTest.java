@@ -0,0 +1,93 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.StampedLock;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.github.bluuewhale.hashsmith.ConcurrentSwissMap.ProbeEngine;
+
+class ConcurrentSwissMapComputeTest {
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void readModifyWriteOpsMatchHashMap(ProbeEngine engine) {
+		// Few shards and a small key space: inserts, removals and tombstone rebuilds happen mid-operation.
+		var m = new ConcurrentSwissMap<Integer, Integer>(2, 16, 0.875d, engine);
+		var ref = new HashMap<Integer, Integer>();
+		var rnd = new SplittableRandom(11);
+		for (int op = 0; op < 400_000; op++) {
+			int k = rnd.nextInt(3_000);
+			int v = rnd.nextInt(8);
+			Integer nv = (v == 0) ? null : v;
+			switch (rnd.nextInt(11)) {
+				case 0 -> assertEquals(ref.put(k, nv), m.put(k, nv));
+				case 1 -> assertEquals(ref.remove(k), m.remove(k));
+				case 2 -> assertEquals(ref.putIfAbsent(k, nv), m.putIfAbsent(k, nv));
+				case 3 -> assertEquals(ref.remove(k, nv), m.remove(k, nv));
+				case 4 -> assertEquals(ref.replace(k, nv, v + 1), m.replace(k, nv, v + 1));
+				case 5 -> assertEquals(ref.replace(k, nv), m.replace(k, nv));
+				case 6 -> assertEquals(ref.computeIfAbsent(k, x -> nv), m.computeIfAbsent(k, x -> nv));
+				case 7 -> assertEquals(ref.computeIfPresent(k, (x, o) -> (o + v) % 5 == 0 ? null : o + v),
+					m.computeIfPresent(k, (x, o) -> (o + v) % 5 == 0 ? null : o + v));
+				case 8 -> assertEquals(ref.compute(k, (x, o) -> o == null ? nv : (o > 4 ? null : o + 1)),
+					m.compute(k, (x, o) -> o == null ? nv : (o > 4 ? null : o + 1)));
+				case 9 -> assertEquals(ref.merge(k, v + 1, (a, b) -> a + b > 9 ? null : a + b),
+					m.merge(k, v + 1, (a, b) -> a + b > 9 ? null : a + b));
+				default -> assertEquals(ref.containsKey(k), m.containsKey(k));
+			}
+		}
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+	}
+
+	@Test
+	void throwingFunctionLeavesMapUnchanged() {
+		var m = new ConcurrentSwissMap<Integer, Integer>(1, 16, 0.875d);
+		for (int i = 0; i < 13; i++) m.put(i, i); // next insert would trigger growth
+		assertThrows(IllegalStateException.class, () -> m.computeIfAbsent(100, k -> {
+			throw new IllegalStateException();
+		}));
+		assertThrows(IllegalStateException.class, () -> m.compute(5, (k, v) -> {
+			throw new IllegalStateException();
+		}));
+		assertEquals(13, m.size());
+		assertFalse(m.containsKey(100));
+		for (int i = 0; i < 13; i++) assertEquals(i, m.get(i));
+
+		assertEquals(-1, m.computeIfAbsent(100, k -> -1));
+		assertEquals(14, m.size());
+	}
+
+	@Test
+	void absentOpsHitWithoutWriteLock() {
+		var m = new ConcurrentSwissMap<Integer, Integer>(1, 16, 0.875d);
+		m.put(1, 10);
+		m.put(2, null);
+		StampedLock lock = m.shards().get(0).lock;
+
+		// A held read lock keeps optimistic stamps valid but would block any writeLock() forever.
+		long stamp = lock.readLock();
+		try {
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+				assertEquals(10, m.computeIfAbsent(1, k -> {
+					throw new AssertionError("must not be called for a present key");
+				}));
+				assertEquals(10, m.putIfAbsent(1, 20));
+			});
+		} finally {
+			lock.unlockRead(stamp);
+		}
+
+		// Misses and mapped-to-null still take the write path.
+		assertEquals(3, m.computeIfAbsent(3, k -> 3));
+		assertNull(m.putIfAbsent(2, 2));
+		assertEquals(2, m.get(2));
+	}
+}
@@ -16,13 +16,17 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.github.bluuewhale.hashsmith.ConcurrentSwissMap.ProbeEngine;
 
 class ConcurrentSwissMapConcurrencyTest {
-	@Test
-	void concurrentPuts_allWritesVisible_andSizeCorrect() throws Exception {
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentPuts_allWritesVisible_andSizeCorrect(ProbeEngine engine) throws Exception {
 		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
-			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d);
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
 
 			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
 			int keysPerThread = 10_000;
@@ -79,10 +83,11 @@ class ConcurrentSwissMapConcurrencyTest {
 		});
 	}
 
-	@Test
-	void concurrentPutAll_allWritesVisible_andSizeCorrect() throws Exception {
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentPutAll_allWritesVisible_andSizeCorrect(ProbeEngine engine) throws Exception {
 		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
-			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d);
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
 
 			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
 			int keysPerThread = 4_000;
@@ -134,11 +139,12 @@ class ConcurrentSwissMapConcurrencyTest {
 		});
 	}
 
-	@Test
-	void concurrentOverwritingPuts_sizeEqualsKeySpace_andValuesAreFromAnyWriter() throws Exception {
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentOverwritingPuts_sizeEqualsKeySpace_andValuesAreFromAnyWriter(ProbeEngine engine) throws Exception {
 		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
 			// Force resizes; overwrites stress the put path without growing size.
-			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d);
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
 
 			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
 			int keySpace = 10_000;
@@ -196,10 +202,11 @@ class ConcurrentSwissMapConcurrencyTest {
 		});
 	}
 
-	@Test
-	void concurrentPutRemoveOnFixedKeySpace_noExceptions_andEntrySetGetConsistentAfterStop() throws Exception {
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentPutRemoveOnFixedKeySpace_noExceptions_andEntrySetGetConsistentAfterStop(ProbeEngine engine) throws Exception {
 		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
-			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d);
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
 
 			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
 			int keySpace = 30_000;
@@ -266,10 +273,11 @@ class ConcurrentSwissMapConcurrencyTest {
 		});
 	}
 
-	@Test
-	void concurrentClearWithWriters_noExceptions_andEmptyAfterFinalClear() throws Exception {
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentClearWithWriters_noExceptions_andEmptyAfterFinalClear(ProbeEngine engine) throws Exception {
 		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
-			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d);
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
 
 			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
 			int writerThreads = Math.max(2, threads - 1);
@@ -337,10 +345,11 @@ class ConcurrentSwissMapConcurrencyTest {
 		});
 	}
 
-	@Test
-	void concurrentIterateAndSizeWhileWriting_noExceptions_andConsistentAfterStop() throws Exception {
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentIterateAndSizeWhileWriting_noExceptions_andConsistentAfterStop(ProbeEngine engine) throws Exception {
 		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
-			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d);
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
 
 			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
 			int writerThreads = Math.max(2, threads - 1);
@@ -418,6 +427,222 @@ class ConcurrentSwissMapConcurrencyTest {
 			assertEquals(count, m.size(), "size must match snapshot entry count after quiescence");
 		});
 	}
-}
 
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void concurrentMixedWrites_counterSizeMatchesContentsAfterStop(ProbeEngine engine) throws Exception {
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			var m = new ConcurrentSwissMap<Integer, Integer>(8, 16, 0.875d, engine);
+
+			int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+			int keySpace = 20_000;
+
+			ExecutorService pool = Executors.newFixedThreadPool(threads);
+			CountDownLatch start = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(threads);
+			AtomicBoolean stop = new AtomicBoolean(false);
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+
+			for (int t = 0; t < threads; t++) {
+				pool.execute(() -> {
+					try {
+						start.await();
+						ThreadLocalRandom r = ThreadLocalRandom.current();
+						while (!stop.get()) {
+							int k = r.nextInt(keySpace);
+							switch (r.nextInt(8)) {
+								case 0 -> m.put(k, k);
+								case 1 -> m.remove(k);
+								case 2 -> m.putIfAbsent(k, k);
+								case 3 -> m.computeIfAbsent(k, x -> x);
+								case 4 -> m.computeIfPresent(k, (x, v) -> (v & 1) == 0 ? null : v + 1);
+								case 5 -> m.compute(k, (x, v) -> v == null ? x : null);
+								case 6 -> m.merge(k, 1, (a, b) -> null);
+								default -> {
+									long c = m.mappingCount();
+									if (c < 0 || c > keySpace) throw new AssertionError("mappingCount out of range: " + c);
+								}
+							}
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+
+			start.countDown();
+			TimeUnit.MILLISECONDS.sleep(500);
+			stop.set(true);
+
+			assertTrue(done.await(6, TimeUnit.SECONDS), "threads did not finish in time");
+			pool.shutdownNow();
+			pool.awaitTermination(5, TimeUnit.SECONDS);
+
+			Throwable ex = failure.get();
+			if (ex != null) fail("unexpected exception during mixed writes: " + ex, ex);
+
+			int count = 0;
+			for (var ignored : m.keySet()) count++;
+			assertEquals(count, m.mappingCount(), "mappingCount must match contents after quiescence");
+			assertEquals(count, m.size(), "size must match contents after quiescence");
+			assertEquals(count == 0, m.isEmpty());
+
+			m.keySet().removeIf(k -> (k & 1) == 0);
+			count = 0;
+			for (var ignored : m.keySet()) count++;
+			assertEquals(count, m.size(), "size must track iterator removals");
+
+			m.clear();
+			assertEquals(0, m.mappingCount());
+			assertTrue(m.isEmpty());
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void iterationDuringChurn_seesEveryStableKeyExactlyOnce(ProbeEngine engine) throws Exception {
+		assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+			var m = new ConcurrentSwissMap<Integer, Integer>(16, 16, 0.875d, engine);
+			int stable = 20_000;
+			for (int i = 0; i < stable; i++) m.put(i, i);
+
+			int writerThreads = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+			ExecutorService pool = Executors.newFixedThreadPool(writerThreads);
+			CountDownLatch done = new CountDownLatch(writerThreads);
+			AtomicBoolean stop = new AtomicBoolean(false);
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+
+			// Writers churn a disjoint key range, forcing resizes and tombstone cleanups in every shard.
+			for (int t = 0; t < writerThreads; t++) {
+				pool.execute(() -> {
+					try {
+						ThreadLocalRandom r = ThreadLocalRandom.current();
+						while (!stop.get()) {
+							int k = stable + r.nextInt(200_000);
+							if (r.nextBoolean()) m.put(k, k);
+							else m.remove(k);
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+
+			try {
+				for (int round = 0; round < 20; round++) {
+					int[] seen = new int[stable];
+					for (var e : m.entrySet()) {
+						int k = e.getKey();
+						assertEquals(k, e.getValue());
+						if (k < stable) seen[k]++;
+					}
+					Object[] keys = new Object[stable];
+					Object[] values = new Object[stable];
+					for (int i = 0; i < stable; i++) keys[i] = i;
+					m.getAll(keys, values, stable);
+					assertArrayEquals(keys, values);
+					int[] seenByForEach = new int[stable];
+					m.forEach((k, v) -> {
+						if (k < stable) seenByForEach[k]++;
+					});
+					for (int i = 0; i < stable; i++) {
+						assertEquals(1, seen[i], "iterator must see stable key " + i + " exactly once");
+						assertEquals(1, seenByForEach[i], "forEach must see stable key " + i + " exactly once");
+					}
+				}
+			} finally {
+				stop.set(true);
+				assertTrue(done.await(6, TimeUnit.SECONDS), "threads did not finish in time");
+				pool.shutdownNow();
+			}
+			Throwable ex = failure.get();
+			if (ex != null) fail("unexpected exception during churn: " + ex, ex);
+		});
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void forEachActionMayWriteToTheMap(ProbeEngine engine) {
+		var m = new ConcurrentSwissMap<Integer, Integer>(4, 16, 0.875d, engine);
+		for (int i = 0; i < 1_000; i++) m.put(i, i);
+		// Runs without holding shard locks, so writing back (including to the shard being visited) cannot deadlock.
+		m.forEach((k, v) -> {
+			if ((k & 1) == 0) m.remove(k);
+			else m.put(k, v * 2);
+		});
+		assertEquals(500, m.size());
+		for (int i = 1; i < 1_000; i += 2) assertEquals(i * 2, m.get(i));
+
+		var it = m.values().iterator();
+		while (it.hasNext()) {
+			if (it.next() % 8 == 2) it.remove();
+		}
+		assertEquals(250, m.size());
+		assertThrows(java.util.NoSuchElementException.class, it::next);
+	}
+
+	/** Key whose hashCode blocks once armed, to hold a shard rehash (which rehashes every key) open. */
+	static final class GateKey {
+		final AtomicBoolean armed = new AtomicBoolean();
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
 
+		@Override
+		public int hashCode() {
+			if (armed.compareAndSet(true, false)) {
+				entered.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return 42;
+		}
+	}
+
+	private static AbstractSwissMap<?, ?> shardOf(ConcurrentSwissMap<?, ?> m) {
+		return m.shards().get(0).map;
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void readsDuringShardRehash_areServedFromTheOldTable(ProbeEngine engine) throws Exception {
+		var m = new ConcurrentSwissMap<Object, Integer>(1, 16, 0.875d, engine);
+		var gate = new GateKey();
+		m.put(gate, -1);
+		int maxLoad = shardOf(m).maxLoad;
+		int n = maxLoad - 1;
+		for (int i = 0; i < n; i++) m.put(i, i); // maxLoad entries: the next insert grows the shard
+
+		gate.armed.set(true);
+		Thread writer = new Thread(() -> m.put(1_000, 1_000));
+		writer.start();
+		try {
+			assertTrue(gate.entered.await(5, TimeUnit.SECONDS), "rehash did not start");
+			// The writer now holds the shard's write lock in the middle of the rebuild.
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+				for (int i = 0; i < n; i++) {
+					assertEquals(i, m.get(i));
+					assertTrue(m.containsKey(i));
+				}
+				assertNull(m.get(1_000));
+				assertEquals(maxLoad, m.keySet().stream().count());
+				Object[] keys = { 0, n - 1, 1_000, gate };
+				Object[] out = new Object[keys.length];
+				m.getAll(keys, out, keys.length);
+				assertArrayEquals(new Object[] { 0, n - 1, null, -1 }, out);
+			});
+		} finally {
+			gate.release.countDown();
+			writer.join();
+		}
+		assertEquals(1_000, m.get(1_000));
+		assertEquals(maxLoad + 1, m.size());
+		assertTrue(shardOf(m).capacity > maxLoad + 1);
+	}
+}
@@ -0,0 +1,242 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.github.bluuewhale.hashsmith.ConcurrentSwissMap.ProbeEngine;
+
+class ConcurrentSwissMapShardSplitTest {
+
+	private static void assertShardsTileHashSpace(ConcurrentSwissMap<?, ?> m) {
+		long expected = 0L;
+		for (var shard : m.shards()) {
+			assertFalse(shard.retired);
+			assertEquals(expected, (long) shard.prefix << (Integer.SIZE - shard.depth));
+			expected = shard.end();
+		}
+		assertEquals(1L << Integer.SIZE, expected);
+	}
+
+	/** Integer key whose smeared hash is {@code hash}: {@link Hashing#smear} run backwards. */
+	private static Integer keyWithSmearedHash(int hash) {
+		return Integer.rotateRight(hash * inverse(0x1b873593), 15) * inverse(0xcc9e2d51);
+	}
+
+	/** Multiplicative inverse of an odd {@code c} modulo 2^32 (Newton's iteration). */
+	private static int inverse(int c) {
+		int x = c;
+		for (int i = 0; i < 5; i++) x *= 2 - c * x;
+		return x;
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void growthSplitsShards_andKeepsEveryMapping(ProbeEngine engine) {
+		var m = new ConcurrentSwissMap<Integer, Integer>(1, 16, 0.875d, engine).withShardSplitting(256);
+		var ref = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 50_000; i++) {
+			assertEquals(ref.put(i, i), m.put(i, i));
+		}
+
+		var shards = m.shards();
+		assertTrue(shards.size() >= 50_000 / 256, "shards: " + shards.size());
+		for (var shard : shards) {
+			assertTrue(shard.map.size() <= 256, "shard of depth " + shard.depth + " holds " + shard.map.size());
+		}
+		assertShardsTileHashSpace(m);
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+		for (int i = 0; i < 50_000; i++) assertEquals(i, m.get(i));
+		assertEquals(50_000L, m.<Long>reduce(1L, (k, v) -> 1L, Long::sum));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void putAllSplitsEveryShardBelowTheThreshold(ProbeEngine engine) {
+		var m = new ConcurrentSwissMap<Integer, Integer>(1, 16, 0.875d, engine).withShardSplitting(256);
+		var ref = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 50_000; i++) ref.put(i, i);
+		m.putAll(ref); // one write section per shard run: the split must not stop at two halves
+
+		var shards = m.shards();
+		assertTrue(shards.size() >= 50_000 / 256, "shards: " + shards.size());
+		for (var shard : shards) {
+			assertTrue(shard.map.size() <= 256, "shard of depth " + shard.depth + " holds " + shard.map.size());
+		}
+		assertShardsTileHashSpace(m);
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+
+		// A second reload into the already split directory keeps the bound too.
+		var more = new HashMap<Integer, Integer>();
+		for (int i = 50_000; i < 100_000; i++) more.put(i, i);
+		m.putAll(more);
+		ref.putAll(more);
+		for (var shard : m.shards()) assertTrue(shard.map.size() <= 256);
+		assertShardsTileHashSpace(m);
+		assertEquals(ref, new HashMap<>(m));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void shardAtTheDepthCapStillSpreadsItsKeys(ProbeEngine engine) {
+		// Every key shares the top 16 hash bits, so all of them end up in one shard at the depth cap, and its
+		// table grows far past the 2^(25 - 16) = 512 groups the remaining bits above H2 can address.
+		var m = new ConcurrentSwissMap<Integer, Integer>(1, 16, 0.875d, engine).withShardSplitting(64);
+		int prefix = 0xC0DE << 16;
+		int n = 30_000;
+		var keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			int hash = prefix | (i * 0x9E37 & 0xFFFF); // odd multiplier: distinct low halves
+			keys[i] = keyWithSmearedHash(hash);
+			assertEquals(hash, Hashing.smearedHash(keys[i]));
+			m.put(keys[i], i);
+		}
+
+		var shard = m.shards().stream().filter(s -> s.owns(prefix)).findFirst().orElseThrow();
+		assertEquals(16, shard.depth);
+		assertEquals(n, shard.map.size());
+		long total = 0;
+		int max = 0;
+		for (int i = 0; i < n; i++) {
+			int probes = shard.map.probeLength(keys[i], Hashing.smearedHash(keys[i]));
+			assertTrue(probes >= 1);
+			total += probes;
+			max = Math.max(max, probes);
+			assertEquals(i, m.get(keys[i]));
+		}
+		double mean = (double) total / n;
+		assertTrue(mean < 1.5, "mean probe length " + mean);
+		assertTrue(max <= 16, "max probe length " + max);
+	}
+
+	@Test
+	void randomOpsMatchHashMap_whileSplitting() {
+		var m = new ConcurrentSwissMap<Integer, Integer>(2, 16, 0.875d).withShardSplitting(8);
+		var ref = new HashMap<Integer, Integer>();
+		var rnd = new SplittableRandom(18);
+		for (int op = 0; op < 200_000; op++) {
+			int k = rnd.nextInt(4_000);
+			int v = rnd.nextInt(16);
+			switch (rnd.nextInt(10)) {
+				case 0, 1, 2 -> assertEquals(ref.put(k, v), m.put(k, v));
+				case 3 -> assertEquals(ref.remove(k), m.remove(k));
+				case 4 -> assertEquals(ref.merge(k, v, Integer::sum), m.merge(k, v, Integer::sum));
+				case 5 -> assertEquals(ref.computeIfAbsent(k, x -> v), m.computeIfAbsent(k, x -> v));
+				case 6 -> assertEquals(ref.remove(k, v), m.remove(k, v));
+				case 7 -> {
+					var batch = new HashMap<Integer, Integer>();
+					for (int i = 0; i < 32; i++) batch.put(rnd.nextInt(4_000), i);
+					ref.putAll(batch);
+					m.putAll(batch);
+				}
+				case 8 -> assertEquals(ref.get(k), m.get(k));
+				default -> assertEquals(ref.containsKey(k), m.containsKey(k));
+			}
+		}
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+		assertShardsTileHashSpace(m);
+
+		m.replaceAll((k, v) -> v + 1);
+		ref.replaceAll((k, v) -> v + 1);
+		assertEquals(ref, m);
+		assertEquals(ref.containsValue(3), m.containsValue(3));
+		m.clear();
+		assertTrue(m.isEmpty());
+		assertEquals(0, m.shards().stream().mapToInt(shard -> shard.map.size()).sum());
+	}
+
+	@Test
+	void invalidThreshold_throws() {
+		var m = new ConcurrentSwissMap<Integer, Integer>();
+		assertThrows(IllegalArgumentException.class, () -> m.withShardSplitting(0));
+	}
+
+	@ParameterizedTest
+	@EnumSource(ProbeEngine.class)
+	void readersAndWritersProceedWhileShardsSplit(ProbeEngine engine) throws Exception {
+		assertTimeoutPreemptively(Duration.ofSeconds(20), () -> {
+			var m = new ConcurrentSwissMap<Integer, Integer>(1, 16, 0.875d, engine).withShardSplitting(512);
+			int stable = 5_000;
+			for (int i = 0; i < stable; i++) m.put(i, i);
+
+			int writerThreads = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+			int perWriter = 40_000;
+			ExecutorService pool = Executors.newFixedThreadPool(writerThreads);
+			CountDownLatch done = new CountDownLatch(writerThreads);
+			AtomicBoolean stop = new AtomicBoolean(false);
+			AtomicReference<Throwable> failure = new AtomicReference<>();
+
+			// Writers keep adding fresh keys (and dropping some of their own), so shards split under them.
+			for (int t = 0; t < writerThreads; t++) {
+				int base = stable + t * perWriter;
+				pool.execute(() -> {
+					try {
+						for (int i = 0; i < perWriter && !stop.get(); i++) {
+							int k = base + i;
+							m.put(k, k);
+							if ((i & 3) == 0) assertEquals(k, m.remove(k));
+							else assertEquals(k, m.get(k));
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+
+			try {
+				while (done.getCount() > 0 && failure.get() == null) {
+					for (int i = 0; i < stable; i++) {
+						assertEquals(i, m.get(i));
+						assertTrue(m.containsKey(i));
+					}
+					int[] seen = new int[stable];
+					for (var e : m.entrySet()) {
+						assertEquals(e.getKey(), e.getValue());
+						if (e.getKey() < stable) seen[e.getKey()]++;
+					}
+					for (int i = 0; i < stable; i++) {
+						assertEquals(1, seen[i], "iterator must see stable key " + i + " exactly once");
+					}
+				}
+			} finally {
+				stop.set(true);
+				assertTrue(done.await(10, TimeUnit.SECONDS), "threads did not finish in time");
+				pool.shutdownNow();
+			}
+			Throwable ex = failure.get();
+			if (ex != null) fail("unexpected exception while splitting: " + ex, ex);
+
+			assertTrue(m.shards().size() > 1);
+			assertShardsTileHashSpace(m);
+			int expected = stable;
+			for (int t = 0; t < writerThreads; t++) {
+				int base = stable + t * perWriter;
+				for (int i = 0; i < perWriter; i++) {
+					if ((i & 3) != 0) {
+						assertEquals(base + i, m.get(base + i));
+						expected++;
+					}
+				}
+			}
+			assertEquals(expected, m.size());
+			assertEquals(expected, m.entrySet().stream().count());
+		});
+	}
+}
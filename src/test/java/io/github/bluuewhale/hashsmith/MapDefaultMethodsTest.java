@@ -0,0 +1,150 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class MapDefaultMethodsTest {
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap", (IntFunction<Map<Object, Object>>) SwissMap::new),
+			Arguments.of("SwissMap (incremental resize)",
+				(IntFunction<Map<Object, Object>>) c -> new SwissMap<>(c).withIncrementalResize(1)),
+			Arguments.of("SwissSimdMap", (IntFunction<Map<Object, Object>>) SwissSimdMap::new),
+			Arguments.of("RobinHoodMap", (IntFunction<Map<Object, Object>>) RobinHoodMap::new)
+		);
+	}
+
+	/** Counts {@code hashCode} calls, so a test can tell how many times a method hashed it. */
+	private static final class CountingKey {
+		final int id;
+		int hashes;
+
+		CountingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			hashes++;
+			return id * 0x9E3779B9;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CountingKey k && k.id == id;
+		}
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void readModifyWriteOpsMatchHashMap(String name, IntFunction<Map<Object, Object>> factory) {
+		// Small initial capacity and key space: the methods run across growth, tombstone cleanup and migration.
+		var m = factory.apply(0);
+		var ref = new HashMap<Object, Object>();
+		var rnd = new SplittableRandom(22);
+		for (int op = 0; op < 400_000; op++) {
+			int k = rnd.nextInt(3_000);
+			int v = rnd.nextInt(8);
+			Integer nv = (v == 0) ? null : v;
+			switch (rnd.nextInt(13)) {
+				case 0 -> assertEquals(ref.put(k, nv), m.put(k, nv));
+				case 1 -> assertEquals(ref.remove(k), m.remove(k));
+				case 2 -> assertEquals(ref.putIfAbsent(k, nv), m.putIfAbsent(k, nv));
+				case 3 -> assertEquals(ref.remove(k, nv), m.remove(k, nv));
+				case 4 -> assertEquals(ref.replace(k, nv, v + 1), m.replace(k, nv, v + 1));
+				case 5 -> assertEquals(ref.replace(k, nv), m.replace(k, nv));
+				case 6 -> assertEquals(ref.computeIfAbsent(k, x -> nv), m.computeIfAbsent(k, x -> nv));
+				case 7 -> assertEquals(ref.computeIfPresent(k, (x, o) -> ((Integer) o + v) % 5 == 0 ? null : (Integer) o + v),
+					m.computeIfPresent(k, (x, o) -> ((Integer) o + v) % 5 == 0 ? null : (Integer) o + v));
+				case 8 -> assertEquals(ref.compute(k, (x, o) -> o == null ? nv : ((Integer) o > 4 ? null : (Integer) o + 1)),
+					m.compute(k, (x, o) -> o == null ? nv : ((Integer) o > 4 ? null : (Integer) o + 1)));
+				case 9 -> assertEquals(ref.merge(k, v + 1, (a, b) -> (Integer) a + (Integer) b > 9 ? null : (Integer) a + (Integer) b),
+					m.merge(k, v + 1, (a, b) -> (Integer) a + (Integer) b > 9 ? null : (Integer) a + (Integer) b));
+				case 10 -> assertEquals(ref.getOrDefault(k, -1), m.getOrDefault(k, -1));
+				default -> assertEquals(ref.containsKey(k), m.containsKey(k));
+			}
+		}
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void eachCallHashesTheKeyOnce(String name, IntFunction<Map<Object, Object>> factory) {
+		// Presized and padded, so neither growth nor tombstone cleanup re-hashes the keys.
+		var m = factory.apply(1 << 12);
+		for (int i = 0; i < 100; i++) m.put(i, i);
+		var present = new CountingKey(1);
+		var absent = new CountingKey(2);
+		m.put(present, 10);
+
+		for (var op : new Runnable[] {
+			() -> m.getOrDefault(absent, 0),
+			() -> m.putIfAbsent(present, 11),
+			() -> m.computeIfAbsent(present, k -> 12),
+			() -> m.computeIfPresent(present, (k, v) -> (Integer) v + 1),
+			() -> m.compute(present, (k, v) -> (Integer) v + 1),
+			() -> m.merge(present, 1, (a, b) -> (Integer) a + (Integer) b),
+			() -> m.replace(present, 20),
+			() -> m.replace(present, 20, 21),
+			() -> m.compute(absent, (k, v) -> 1),
+			() -> m.remove(absent, 1),
+			() -> m.merge(absent, 5, (a, b) -> b),
+		}) {
+			present.hashes = 0;
+			absent.hashes = 0;
+			op.run();
+			assertTrue(present.hashes + absent.hashes <= 1, "hashed " + (present.hashes + absent.hashes) + " times");
+		}
+		assertEquals(21, m.get(present));
+		assertEquals(5, m.get(absent));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void nullHandlingMatchesMapContract(String name, IntFunction<Map<Object, Object>> factory) {
+		var m = factory.apply(0);
+		m.put(1, null);
+		assertNull(m.getOrDefault(1, "default"));
+		assertEquals("default", m.getOrDefault(2, "default"));
+		assertNull(m.putIfAbsent(1, "a")); // a null value counts as absent
+		assertEquals("a", m.get(1));
+		assertNull(m.compute(1, (k, v) -> null));
+		assertFalse(m.containsKey(1));
+
+		assertThrows(NullPointerException.class, () -> m.computeIfAbsent(null, k -> 1));
+		assertThrows(NullPointerException.class, () -> m.merge(1, null, (a, b) -> a));
+		assertThrows(NullPointerException.class, () -> m.merge(1, 1, null));
+		assertThrows(NullPointerException.class, () -> m.compute(1, null));
+		assertTrue(m.isEmpty());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void functionThatModifiesTheMapThrows(String name, IntFunction<Map<Object, Object>> factory) {
+		var m = factory.apply(0);
+		m.put(1, 1);
+		assertThrows(ConcurrentModificationException.class, () -> m.computeIfAbsent(2, k -> m.put(3, 3)));
+		assertThrows(ConcurrentModificationException.class, () -> m.compute(1, (k, v) -> m.remove(1)));
+		m.put(1, 1);
+		assertThrows(ConcurrentModificationException.class, () -> m.merge(1, 1, (a, b) -> m.put(4, 4)));
+
+		// Value-only changes keep every slot in place.
+		assertEquals(5, m.computeIfPresent(1, (k, v) -> {
+			m.put(1, 4);
+			return 5;
+		}));
+		assertEquals(5, m.get(1));
+	}
+}
@@ -0,0 +1,127 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedSwissLongLongMapTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void reopenPreservesContentsAndSettings() throws IOException {
+		Path file = dir.resolve("table.bin");
+		var ref = new HashMap<Long, Long>();
+		try (var m = MappedSwissLongLongMap.open(file, 4, 0.75d, -1L)) {
+			for (long i = 0; i < 50_000; i++) {
+				long k = i * 0x9E3779B97F4A7C15L;
+				m.put(k, i);
+				ref.put(k, i);
+			}
+			for (long i = 0; i < 50_000; i += 3) {
+				long k = i * 0x9E3779B97F4A7C15L;
+				assertEquals((long) ref.remove(k), m.remove(k));
+			}
+		}
+		assertFalse(Files.exists(dir.resolve("table.bin.rehash")));
+
+		// creation arguments are ignored for an existing file
+		try (var m = MappedSwissLongLongMap.open(file, 1024, 0.5d, 0L)) {
+			assertEquals(-1L, m.noEntryValue());
+			assertEquals(ref.size(), m.size());
+			ref.forEach((k, v) -> assertEquals((long) v, m.get(k)));
+			assertEquals(-1L, m.get(12345L));
+
+			var seen = new HashMap<Long, Long>();
+			m.forEach((k, v) -> assertNull(seen.put(k, v)));
+			assertEquals(ref, seen);
+		}
+	}
+
+	@Test
+	void uncleanShutdownRecountsSize() throws IOException {
+		Path file = dir.resolve("dirty.bin");
+		var m = MappedSwissLongLongMap.open(file);
+		for (long i = 0; i < 1_000; i++) m.put(i, i * 2);
+		m.flush();
+		for (long i = 0; i < 100; i++) m.remove(i);
+		m.put(5_000L, 1L);
+		// simulate a crash: the mapped pages are written but close() never runs
+
+		try (var reopened = MappedSwissLongLongMap.open(file)) {
+			assertEquals(901, reopened.size());
+			assertEquals(1L, reopened.get(5_000L));
+			assertFalse(reopened.containsKey(50L));
+			assertEquals(1_998L, reopened.get(999L));
+		}
+	}
+
+	@Test
+	void failedRehashKeepsTheCurrentTable() throws IOException {
+		Path file = dir.resolve("grow.bin");
+		Path rehash = dir.resolve("grow.bin.rehash");
+		try (var m = MappedSwissLongLongMap.open(file)) {
+			int capacity = m.capacity();
+			Files.createDirectory(rehash); // the rehash target cannot be opened
+			long inserted = 0;
+			UncheckedIOException failure = null;
+			while (failure == null) {
+				try {
+					m.put(inserted, inserted * 2);
+					inserted++;
+				} catch (UncheckedIOException e) {
+					failure = e;
+				}
+			}
+			assertEquals(capacity, m.capacity());
+			assertEquals(inserted, m.size());
+			for (long i = 0; i < inserted; i++) assertEquals(i * 2, m.get(i));
+			assertFalse(m.containsKey(inserted));
+
+			Files.delete(rehash);
+			for (long i = inserted; i < 1_000; i++) m.put(i, i * 2);
+			assertTrue(m.capacity() > capacity);
+		}
+		assertFalse(Files.exists(rehash));
+		try (var reopened = MappedSwissLongLongMap.open(file)) {
+			assertEquals(1_000, reopened.size());
+			for (long i = 0; i < 1_000; i++) assertEquals(i * 2, reopened.get(i));
+		}
+	}
+
+	@Test
+	void rejectsForeignFiles() throws IOException {
+		Path file = dir.resolve("garbage.bin");
+		Files.write(file, new byte[128]);
+		assertThrows(IOException.class, () -> MappedSwissLongLongMap.open(file));
+
+		Path future = dir.resolve("future.bin");
+		try (var m = MappedSwissLongLongMap.open(future)) {
+			m.put(1L, 1L);
+		}
+		try (var ch = FileChannel.open(future, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			OffHeapLongArray.map(ch, MappedSwissLongLongMap.HEADER_WORDS).set(1, MappedSwissLongLongMap.FORMAT_VERSION + 1);
+		}
+		var e = assertThrows(IOException.class, () -> MappedSwissLongLongMap.open(future));
+		assertTrue(e.getMessage().contains("format version"));
+	}
+
+	@Test
+	void useAfterCloseFails() throws IOException {
+		var m = MappedSwissLongLongMap.open(dir.resolve("closed.bin"));
+		m.put(1L, 1L);
+		m.close();
+		m.close(); // idempotent
+		assertThrows(IllegalStateException.class, () -> m.get(1L));
+	}
+}
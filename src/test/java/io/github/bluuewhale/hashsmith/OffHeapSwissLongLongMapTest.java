@@ -0,0 +1,103 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapSwissLongLongMapTest {
+
+	@Test
+	void basicCrud() {
+		try (var m = new OffHeapSwissLongLongMap(16, 0.875d, -1L)) {
+			assertEquals(-1L, m.put(1L, 10L));
+			assertEquals(10L, m.put(1L, 20L));
+			assertEquals(20L, m.get(1L));
+			assertEquals(25L, m.addTo(1L, 5L));
+			assertEquals(-1L + 3L, m.addTo(2L, 3L));
+			assertEquals(2, m.size());
+
+			assertEquals(25L, m.remove(1L));
+			assertEquals(-1L, m.remove(1L));
+			assertFalse(m.containsKey(1L));
+			assertEquals(7L, m.getOrDefault(1L, 7L));
+		}
+	}
+
+	@Test
+	void growthAndTombstonesMatchHashMap() {
+		try (var m = new OffHeapSwissLongLongMap(4)) {
+			var ref = new HashMap<Long, Long>();
+			int n = 200_000;
+			for (long i = 0; i < n; i++) {
+				long k = i * 0x9E3779B97F4A7C15L;
+				m.put(k, i);
+				ref.put(k, i);
+			}
+			for (long i = 0; i < n; i += 2) {
+				long k = i * 0x9E3779B97F4A7C15L;
+				assertEquals((long) ref.remove(k), m.remove(k));
+			}
+			assertEquals(ref.size(), m.size());
+			ref.forEach((k, v) -> assertEquals((long) v, m.get(k)));
+
+			var seen = new HashMap<Long, Long>();
+			m.forEach((k, v) -> assertNull(seen.put(k, v)));
+			assertEquals(ref, seen);
+		}
+	}
+
+	@Test
+	void rehashAndCloseReleaseTheReplacedTable() {
+		List<OffHeapLongArray> replaced = new ArrayList<>();
+		var m = new OffHeapSwissLongLongMap(8) {
+			@Override
+			void tableReplaced(OffHeapLongArray old) {
+				super.tableReplaced(old);
+				replaced.add(old);
+			}
+		};
+		for (long i = 0; i < 10_000; i++) m.put(i, i);
+		for (long i = 0; i < 10_000; i += 3) m.remove(i); // tombstone cleanup rehashes at the same capacity
+		assertFalse(replaced.isEmpty());
+		for (var old : replaced) assertTrue(old.isReleased());
+
+		OffHeapLongArray table = m.table();
+		assertFalse(table.isReleased());
+		m.close();
+		assertTrue(table.isReleased());
+	}
+
+	@Test
+	void allocatedArrayStartsZeroed() {
+		var a = OffHeapLongArray.allocate(1_000);
+		for (long i = 0; i < a.length(); i++) assertEquals(0L, a.get(i));
+		a.fill(10, 20, -1L);
+		a.fill(15, 17, 0L);
+		for (long i = 0; i < a.length(); i++) {
+			assertEquals((i >= 10 && i < 20 && (i < 15 || i >= 17)) ? -1L : 0L, a.get(i));
+		}
+		a.release();
+		a.release(); // idempotent
+		assertTrue(a.isReleased());
+		assertThrows(NullPointerException.class, () -> a.get(0));
+		assertFalse(OffHeapLongArray.allocate(0).isReleased());
+	}
+
+	@Test
+	void clearAndClose() {
+		var m = new OffHeapSwissLongLongMap();
+		for (long i = 0; i < 100; i++) m.put(i, i);
+		m.clear();
+		assertTrue(m.isEmpty());
+		assertFalse(m.containsKey(1L));
+
+		m.close();
+		m.close(); // idempotent
+		assertThrows(IllegalStateException.class, () -> m.get(1L));
+		assertThrows(IllegalStateException.class, () -> m.put(1L, 1L));
+	}
+}
@@ -0,0 +1,61 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ParallelResizeTest {
+
+	private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+	@AfterAll
+	static void shutdown() {
+		POOL.shutdown();
+	}
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap",
+				(Function<ForkJoinPool, Map<Integer, Integer>>) p -> new SwissMap<Integer, Integer>().withParallelResize(p, 64)),
+			Arguments.of("SwissSimdMap",
+				(Function<ForkJoinPool, Map<Integer, Integer>>) p -> new SwissSimdMap<Integer, Integer>().withParallelResize(p, 64))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void growthMatchesHashMap(String name, Function<ForkJoinPool, Map<Integer, Integer>> factory) {
+		var m = factory.apply(POOL);
+		var ref = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 500_000; i++) {
+			int k = i * 0x9E3779B9;
+			assertEquals(ref.put(k, i), m.put(k, i));
+			if ((i % 5) == 0) assertEquals(ref.remove(k - 0x9E3779B9), m.remove(k - 0x9E3779B9));
+		}
+		assertEquals(ref.size(), m.size());
+		ref.forEach((k, v) -> assertEquals(v, m.get(k)));
+		assertEquals(ref, new HashMap<>(m));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void putAllPresizesInParallel(String name, Function<ForkJoinPool, Map<Integer, Integer>> factory) {
+		var m = factory.apply(POOL);
+		for (int i = 0; i < 1_000; i++) m.put(i, i);
+		var src = new HashMap<Integer, Integer>();
+		for (int i = 0; i < 100_000; i++) src.put(-i - 1, i);
+		m.putAll(src);
+		assertEquals(101_000, m.size());
+		for (int i = 0; i < 1_000; i++) assertEquals(i, m.get(i));
+		src.forEach((k, v) -> assertEquals(v, m.get(k)));
+	}
+}
@@ -0,0 +1,127 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SwissForEachTest {
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap", (Supplier<Map<Integer, Integer>>) SwissMap::new),
+			Arguments.of("SwissMap (incremental resize)",
+				(Supplier<Map<Integer, Integer>>) () -> new SwissMap<Integer, Integer>().withIncrementalResize(1)),
+			Arguments.of("SwissSimdMap", (Supplier<Map<Integer, Integer>>) SwissSimdMap::new)
+		);
+	}
+
+	/** Sparse table with tombstones: most groups are empty or partly deleted. */
+	private static Map<Integer, Integer> populate(Supplier<Map<Integer, Integer>> factory, HashMap<Integer, Integer> ref) {
+		var m = factory.get();
+		for (int i = 0; i < 20_000; i++) m.put(i, -i);
+		for (int i = 0; i < 20_000; i++) {
+			if (i % 7 != 0) m.remove(i);
+		}
+		for (int i = 0; i < 20_000; i += 7) ref.put(i, -i);
+		return m;
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void forEachVisitsEveryEntryOnce(String name, Supplier<Map<Integer, Integer>> factory) {
+		var ref = new HashMap<Integer, Integer>();
+		var m = populate(factory, ref);
+
+		var seen = new HashMap<Integer, Integer>();
+		m.forEach((k, v) -> assertNull(seen.put(k, v), "visited twice: " + k));
+		assertEquals(ref, seen);
+
+		var keys = new ArrayList<Integer>();
+		m.keySet().forEach(keys::add);
+		assertEquals(ref.size(), keys.size());
+		assertEquals(ref.keySet(), new HashSet<>(keys));
+
+		var values = new ArrayList<Integer>();
+		m.values().forEach(values::add);
+		assertEquals(ref.size(), values.size());
+		assertEquals(new HashSet<>(ref.values()), new HashSet<>(values));
+
+		var entries = new HashMap<Integer, Integer>();
+		m.entrySet().forEach(e -> entries.put(e.getKey(), e.getValue()));
+		assertEquals(ref, entries);
+
+		// Same order on every call, like the iterators.
+		var again = new ArrayList<Integer>();
+		m.forEach((k, v) -> again.add(k));
+		assertEquals(keys, again);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void replaceAllAndEntrySetValue(String name, Supplier<Map<Integer, Integer>> factory) {
+		var ref = new HashMap<Integer, Integer>();
+		var m = populate(factory, ref);
+
+		m.replaceAll((k, v) -> (k % 2 == 0) ? null : v * 2);
+		ref.replaceAll((k, v) -> (k % 2 == 0) ? null : v * 2);
+		assertEquals(ref, new HashMap<>(m));
+
+		m.entrySet().forEach(e -> e.setValue(e.getKey()));
+		for (var k : ref.keySet()) assertEquals(k, m.get(k));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void emptyMap(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = factory.get();
+		m.forEach((k, v) -> fail());
+		m.replaceAll((k, v) -> fail());
+		m.keySet().forEach(k -> fail());
+		m.values().forEach(v -> fail());
+		m.entrySet().forEach(e -> fail());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void structuralChangeDuringTraversalThrows(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = factory.get();
+		for (int i = 0; i < 100; i++) m.put(i, i);
+		assertThrows(ConcurrentModificationException.class, () -> m.forEach((k, v) -> m.put(k + 1_000, v)));
+		assertThrows(ConcurrentModificationException.class, () -> m.keySet().forEach(m::remove));
+		assertThrows(ConcurrentModificationException.class, () -> m.replaceAll((k, v) -> {
+			m.clear();
+			return v;
+		}));
+		assertThrows(NullPointerException.class, () -> m.forEach(null));
+	}
+
+	@Test
+	void swissSetForEach() {
+		var set = new SwissSet<Integer>();
+		for (int i = 0; i < 20_000; i++) set.add(i);
+		for (int i = 0; i < 20_000; i++) {
+			if (i % 5 != 0) set.remove(i);
+		}
+		set.add(null);
+
+		List<Integer> seen = new ArrayList<>();
+		set.forEach(seen::add);
+		assertEquals(set.size(), seen.size());
+		assertEquals(new HashSet<>(set), new HashSet<>(seen));
+
+		assertThrows(ConcurrentModificationException.class, () -> set.forEach(e -> set.add(-1)));
+		new SwissSet<Integer>().forEach(e -> fail());
+	}
+}
@@ -0,0 +1,51 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+class SwissIntIntMapTest {
+
+	@Test
+	void basicCrudWithNoEntryValue() {
+		var m = new SwissIntIntMap(16, 0.875d, Integer.MIN_VALUE);
+
+		assertEquals(Integer.MIN_VALUE, m.get(1));
+		assertEquals(Integer.MIN_VALUE, m.put(1, 10));
+		assertEquals(10, m.put(1, 20));
+		assertEquals(20, m.get(1));
+		assertEquals(1, m.size());
+
+		assertEquals(20, m.remove(1));
+		assertEquals(Integer.MIN_VALUE, m.remove(1));
+		assertFalse(m.containsKey(1));
+	}
+
+	@Test
+	void addToCountsFromNoEntryValue() {
+		var m = new SwissIntIntMap();
+		for (int i = 0; i < 10; i++) m.addTo(-42, 1);
+		assertEquals(10, m.get(-42));
+		assertEquals(12, m.addTo(-42, 2));
+	}
+
+	@Test
+	void largeInsertDeleteReinsert() {
+		var m = new SwissIntIntMap(4);
+		var ref = new HashMap<Integer, Integer>();
+		int n = 100_000;
+		for (int i = 0; i < n; i++) {
+			m.put(i * 31, i);
+			ref.put(i * 31, i);
+		}
+		for (int i = 0; i < n; i += 2) assertEquals((int) ref.remove(i * 31), m.remove(i * 31));
+		assertEquals(ref.size(), m.size());
+		ref.forEach((k, v) -> assertEquals((int) v, m.get(k)));
+
+		var seen = new HashMap<Integer, Integer>();
+		m.forEach((k, v) -> assertNull(seen.put(k, v)));
+		assertEquals(ref, seen);
+	}
+}
@@ -0,0 +1,43 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+class SwissIntSetTest {
+
+	@Test
+	void basicAddRemove() {
+		var s = new SwissIntSet();
+
+		assertTrue(s.add(-1));
+		assertFalse(s.add(-1));
+		assertTrue(s.contains(-1));
+		assertTrue(s.remove(-1));
+		assertFalse(s.contains(-1));
+		assertEquals(0, s.size());
+	}
+
+	@Test
+	void dedupMatchesHashSet() {
+		var s = new SwissIntSet(4);
+		var ref = new HashSet<Integer>();
+		for (int i = 0; i < 200_000; i++) {
+			int e = (i * 31) % 70_001;
+			assertEquals(ref.add(e), s.add(e));
+		}
+		for (int e = 0; e < 70_001; e += 2) assertEquals(ref.remove(e), s.remove(e));
+		assertEquals(ref.size(), s.size());
+		assertEquals(ref.size(), s.toArray().length);
+
+		var seen = new HashSet<Integer>();
+		s.forEach(e -> assertTrue(seen.add(e)));
+		assertEquals(ref, seen);
+
+		s.clear();
+		assertTrue(s.isEmpty());
+		assertFalse(s.contains(1));
+	}
+}
@@ -0,0 +1,97 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class SwissLongLongMapTest {
+
+	@Test
+	void basicCrudWithNoEntryValue() {
+		var m = new SwissLongLongMap(16, 0.875d, -1L);
+
+		assertEquals(-1L, m.get(1L));
+		assertEquals(-1L, m.put(1L, 10L));
+		assertEquals(10L, m.put(1L, 20L));
+		assertEquals(20L, m.get(1L));
+		assertEquals(1, m.size());
+
+		assertEquals(20L, m.remove(1L));
+		assertEquals(-1L, m.remove(1L));
+		assertFalse(m.containsKey(1L));
+		assertEquals(5L, m.getOrDefault(1L, 5L));
+	}
+
+	@Test
+	void addToCountsFromNoEntryValue() {
+		var m = new SwissLongLongMap();
+		for (int i = 0; i < 10; i++) m.addTo(42L, 1L);
+		assertEquals(10L, m.get(42L));
+		assertEquals(15L, m.addTo(42L, 5L));
+		assertEquals(-3L, m.addTo(7L, -3L));
+		assertEquals(2, m.size());
+	}
+
+	@Test
+	void largeInsertDeleteReinsert() {
+		var m = new SwissLongLongMap(4);
+		var ref = new HashMap<Long, Long>();
+		int n = 100_000;
+		for (long i = 0; i < n; i++) {
+			long k = i * 0x9E3779B97F4A7C15L;
+			m.put(k, i);
+			ref.put(k, i);
+		}
+		for (long i = 0; i < n; i += 3) {
+			long k = i * 0x9E3779B97F4A7C15L;
+			assertEquals((long) ref.remove(k), m.remove(k));
+		}
+		for (long i = 0; i < n; i += 6) {
+			long k = i * 0x9E3779B97F4A7C15L;
+			m.put(k, -i);
+			ref.put(k, -i);
+		}
+		assertEquals(ref.size(), m.size());
+		ref.forEach((k, v) -> assertEquals((long) v, m.get(k)));
+
+		var seen = new HashMap<Long, Long>();
+		m.forEach((k, v) -> assertNull(seen.put(k, v)));
+		assertEquals(ref, seen);
+	}
+
+	@Test
+	void churnReusesTombstonesWithoutGrowing() {
+		var m = new SwissLongLongMap(1_024);
+		var ref = new HashMap<Long, Long>();
+		var rnd = new SplittableRandom(2);
+		int capacity = m.capacity;
+		for (int op = 0; op < 200_000; op++) {
+			long k = rnd.nextInt(300);
+			if (rnd.nextBoolean()) {
+				assertEquals((long) ref.getOrDefault(k, 0L), m.put(k, op));
+				ref.put(k, (long) op);
+			} else {
+				assertEquals((long) ref.getOrDefault(k, 0L), m.remove(k));
+				ref.remove(k);
+			}
+		}
+		assertEquals(capacity, m.capacity); // claimed slots reuse tombstones; only cleanup rehashes ran
+		assertTrue(m.tombstones <= m.size / 2 + 1);
+		assertEquals(ref.size(), m.size());
+		ref.forEach((k, v) -> assertEquals((long) v, m.get(k)));
+	}
+
+	@Test
+	void clearResetsState() {
+		var m = new SwissLongLongMap();
+		for (long i = 0; i < 100; i++) m.put(i, i);
+		m.clear();
+		assertTrue(m.isEmpty());
+		assertFalse(m.containsKey(5L));
+		m.put(5L, 6L);
+		assertEquals(6L, m.get(5L));
+	}
+}
@@ -0,0 +1,89 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+class SwissLongObjectMapTest {
+
+	@Test
+	void basicCrud() {
+		var m = new SwissLongObjectMap<String>();
+
+		assertNull(m.put(1L, "a"));
+		assertEquals("a", m.put(1L, "b"));
+		assertEquals("b", m.get(1L));
+		assertTrue(m.containsKey(1L));
+		assertEquals(1, m.size());
+
+		assertEquals("b", m.remove(1L));
+		assertFalse(m.containsKey(1L));
+		assertNull(m.remove(1L));
+		assertTrue(m.isEmpty());
+	}
+
+	@Test
+	void nullValueAndDefault() {
+		var m = new SwissLongObjectMap<String>();
+		m.put(7L, null);
+
+		assertTrue(m.containsKey(7L));
+		assertTrue(m.containsValue(null));
+		assertNull(m.getOrDefault(7L, "x"));
+		assertEquals("x", m.getOrDefault(8L, "x"));
+	}
+
+	@Test
+	void extremeKeys() {
+		var m = new SwissLongObjectMap<Long>();
+		long[] keys = {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, (1L << 32) | 1L};
+		for (long k : keys) m.put(k, k);
+		for (long k : keys) assertEquals(k, m.get(k));
+		assertEquals(keys.length, m.size());
+	}
+
+	@Test
+	void tombstoneReuse() {
+		var m = new SwissLongObjectMap<String>();
+		m.put(1L, "a");
+		m.remove(1L);
+		m.put(1L, "b");
+		assertEquals("b", m.get(1L));
+		assertEquals(1, m.size());
+	}
+
+	@Test
+	void largeInsertDeleteReinsert() {
+		var m = new SwissLongObjectMap<Long>(4);
+		var ref = new HashMap<Long, Long>();
+		int n = 100_000;
+		for (long i = 0; i < n; i++) {
+			long k = i * 0x9E3779B97F4A7C15L;
+			m.put(k, i);
+			ref.put(k, i);
+		}
+		for (long i = 0; i < n; i += 2) {
+			long k = i * 0x9E3779B97F4A7C15L;
+			assertEquals(ref.remove(k), m.remove(k));
+		}
+		assertEquals(ref.size(), m.size());
+		ref.forEach((k, v) -> assertEquals(v, m.get(k)));
+
+		var seen = new HashMap<Long, Long>();
+		m.forEach((k, v) -> assertNull(seen.put(k, v)));
+		assertEquals(ref, seen);
+	}
+
+	@Test
+	void clearResetsState() {
+		var m = new SwissLongObjectMap<String>();
+		for (long i = 0; i < 100; i++) m.put(i, "v" + i);
+		m.clear();
+		assertEquals(0, m.size());
+		assertFalse(m.containsKey(5L));
+		m.put(5L, "x");
+		assertEquals("x", m.get(5L));
+	}
+}
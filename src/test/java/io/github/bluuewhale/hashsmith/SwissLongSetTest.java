@@ -0,0 +1,55 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+class SwissLongSetTest {
+
+	@Test
+	void basicAddRemove() {
+		var s = new SwissLongSet();
+
+		assertTrue(s.add(1L));
+		assertFalse(s.add(1L));
+		assertTrue(s.contains(1L));
+		assertEquals(1, s.size());
+
+		assertTrue(s.remove(1L));
+		assertFalse(s.contains(1L));
+		assertFalse(s.remove(1L));
+		assertTrue(s.isEmpty());
+	}
+
+	@Test
+	void extremeElements() {
+		var s = new SwissLongSet();
+		long[] elements = {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32};
+		for (long e : elements) assertTrue(s.add(e));
+		for (long e : elements) assertTrue(s.contains(e));
+		long[] out = s.toArray();
+		Arrays.sort(out);
+		long[] expected = elements.clone();
+		Arrays.sort(expected);
+		assertArrayEquals(expected, out);
+	}
+
+	@Test
+	void dedupMatchesHashSet() {
+		var s = new SwissLongSet(4);
+		var ref = new HashSet<Long>();
+		for (long i = 0; i < 200_000; i++) {
+			long e = (i * 0x9E3779B97F4A7C15L) % 50_000;
+			assertEquals(ref.add(e), s.add(e));
+		}
+		for (long e = 0; e < 50_000; e += 3) assertEquals(ref.remove(e), s.remove(e));
+		assertEquals(ref.size(), s.size());
+
+		var seen = new HashSet<Long>();
+		s.forEach(e -> assertTrue(seen.add(e)));
+		assertEquals(ref, seen);
+	}
+}
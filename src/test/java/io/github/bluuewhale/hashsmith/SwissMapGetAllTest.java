@@ -0,0 +1,127 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SwissMapGetAllTest {
+
+	/** Few distinct hash codes: first groups overflow, so lookups must continue past them. */
+	private record Colliding(int id) {
+		@Override
+		public int hashCode() {
+			return id % 5;
+		}
+	}
+
+	/** Colliding like {@link Colliding}, and counts {@code hashCode} calls. */
+	private static final class CountingKey {
+		final int id;
+		int hashes;
+
+		CountingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			hashes++;
+			return id % 5;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CountingKey k && k.id == id;
+		}
+	}
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap", new SwissMap<>()),
+			Arguments.of("SwissSimdMap", new SwissSimdMap<>())
+		);
+	}
+
+	private static void getAll(Map<Object, Object> m, Object[] keys, Object[] out, int n) {
+		if (m instanceof SwissMap<Object, Object> swiss) swiss.getAll(keys, out, n);
+		else ((SwissSimdMap<Object, Object>) m).getAll(keys, out, n);
+	}
+
+	private static void assertMatchesGet(Map<Object, Object> m, Object[] keys) {
+		Object[] out = new Object[keys.length + 1];
+		out[keys.length] = "untouched";
+		getAll(m, keys, out, keys.length);
+		for (int i = 0; i < keys.length; i++) assertEquals(m.get(keys[i]), out[i], "key " + keys[i]);
+		assertEquals("untouched", out[keys.length]);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void matchesGet_withHitsMissesAndTombstones(String name, Map<Object, Object> m) {
+		var rnd = new SplittableRandom(21);
+		for (int i = 0; i < 100_000; i++) m.put(i, "v" + i);
+		for (int i = 0; i < 100_000; i += 3) m.remove(i);
+		Object[] keys = new Object[1_001]; // not a multiple of the batch size
+		for (int i = 0; i < keys.length; i++) keys[i] = rnd.nextInt(150_000);
+		assertMatchesGet(m, keys);
+
+		m.clear();
+		assertMatchesGet(m, keys);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void matchesGet_whenFirstGroupsOverflow(String name, Map<Object, Object> m) {
+		for (int i = 0; i < 400; i++) m.put(new Colliding(i), i);
+		Object[] keys = new Object[600];
+		for (int i = 0; i < keys.length; i++) keys[i] = new Colliding(i);
+		assertMatchesGet(m, keys);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void hashesEachKeyOnce_evenWhenTheFirstGroupDoesNotSettleIt(String name, Map<Object, Object> m) {
+		var stored = new CountingKey[400];
+		for (int i = 0; i < stored.length; i++) {
+			stored[i] = new CountingKey(i);
+			m.put(stored[i], i);
+		}
+		var keys = new CountingKey[600];
+		for (int i = 0; i < keys.length; i++) keys[i] = new CountingKey(i);
+		Object[] out = new Object[keys.length];
+		getAll(m, keys, out, keys.length);
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i < stored.length ? i : null, out[i]);
+			assertEquals(1, keys[i].hashes, "key " + i);
+		}
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void rejectsNullKeysAndShortArrays(String name, Map<Object, Object> m) {
+		m.put(1, 1);
+		assertThrows(NullPointerException.class, () -> getAll(m, new Object[] { 1, null }, new Object[2], 2));
+		assertThrows(IndexOutOfBoundsException.class, () -> getAll(m, new Object[2], new Object[1], 2));
+		getAll(m, new Object[0], new Object[0], 0);
+	}
+
+	@Test
+	void swissMapDuringIncrementalResize() {
+		var m = new SwissMap<Object, Object>().withIncrementalResize(1);
+		Object[] keys = new Object[3_100];
+		for (int i = 0; i < keys.length; i++) keys[i] = i;
+		// Checked every few puts, so many of the checks land while entries are split between two tables.
+		for (int i = 0; i < 3_000; i++) {
+			m.put(i, i);
+			if (i % 97 == 0) assertMatchesGet(m, keys);
+		}
+		assertMatchesGet(m, keys);
+	}
+}
@@ -0,0 +1,129 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class SwissMapIncrementalResizeTest {
+
+	private static Object getField(Object target, String name) {
+		try {
+			Field f = SwissMap.class.getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+
+	private static boolean migrating(SwissMap<?, ?> m) {
+		return getField(m, "prevCtrl") != null;
+	}
+
+	@Test
+	void growthMigratesAcrossLaterOperations() {
+		var m = new SwissMap<Integer, Integer>(16).withIncrementalResize(1);
+		int maxLoad0 = m.maxLoad;
+		int cap0 = m.capacity;
+		for (int i = 0; i <= maxLoad0; i++) m.put(i, i);
+
+		// The triggering put only allocated the new table; old entries are still in the previous one.
+		assertEquals(cap0 * 2, m.capacity);
+		assertTrue(migrating(m));
+		for (int i = 0; i <= maxLoad0; i++) assertEquals(i, m.get(i), "lookup must consult both tables");
+		assertEquals(maxLoad0 + 1, m.size());
+
+		// Overwrite and remove keys that have not been migrated yet.
+		assertEquals(0, m.put(0, 100));
+		assertEquals(100, m.get(0));
+		assertEquals(1, m.remove(1));
+		assertNull(m.get(1));
+		assertEquals(maxLoad0, m.size());
+
+		for (int i = 1_000; m.capacity == cap0 * 2 && migrating(m); i++) m.put(i, i);
+		assertFalse(migrating(m));
+		assertEquals(100, m.get(0));
+		for (int i = 2; i <= maxLoad0; i++) assertEquals(i, m.get(i));
+	}
+
+	@Test
+	void randomOpsMatchHashMap() {
+		var m = new SwissMap<Integer, Integer>(4).withIncrementalResize(1);
+		var ref = new HashMap<Integer, Integer>();
+		var rnd = new SplittableRandom(42);
+		for (int op = 0; op < 300_000; op++) {
+			int k = rnd.nextInt(50_000);
+			switch (rnd.nextInt(4)) {
+				case 0, 1 -> assertEquals(ref.put(k, op), m.put(k, op));
+				case 2 -> assertEquals(ref.remove(k), m.remove(k));
+				default -> assertEquals(ref.get(k), m.get(k));
+			}
+		}
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+		assertTrue(m.containsValue(ref.values().iterator().next()));
+	}
+
+	@Test
+	void traversalsCoverBothTablesWithoutMigrating() {
+		var m = new SwissMap<Integer, Integer>(1 << 12).withIncrementalResize(1);
+		var ref = new HashMap<Integer, Integer>();
+		for (int i = 0; !migrating(m); i++) {
+			m.put(i, i);
+			ref.put(i, i);
+		}
+		int cursor = (int) getField(m, "migrateCursor");
+
+		var it = m.entrySet().iterator();
+		for (int i = 0; i < 10; i++) it.next().setValue(-1);
+		for (int k : ref.keySet()) assertNotNull(m.get(k));
+		assertEquals(cursor, getField(m, "migrateCursor"), "an open iterator must not drain the previous table");
+		assertTrue(m.containsValue(-1));
+		assertEquals(ref.keySet(), new HashSet<>(m.keySet()));
+		assertEquals(ref.size(), m.values().stream().count());
+		int[] visited = { 0 };
+		m.forEach((k, v) -> visited[0]++);
+		assertEquals(ref.size(), visited[0]);
+		assertTrue(migrating(m));
+		assertEquals(cursor, getField(m, "migrateCursor"));
+
+		// The next mutation migrates one step, not the rest of the table.
+		m.put(-1, -1);
+		ref.put(-1, -1);
+		assertEquals(cursor + 1, getField(m, "migrateCursor"));
+		assertTrue(migrating(m));
+
+		// Removal through an iterator reaches entries in either table.
+		for (var i = m.keySet().iterator(); i.hasNext(); ) {
+			if (i.next() % 2 == 0) i.remove();
+		}
+		ref.keySet().removeIf(k -> k % 2 == 0);
+		assertEquals(ref.keySet(), new HashSet<>(m.keySet()));
+		assertEquals(ref.size(), m.size());
+	}
+
+	@Test
+	void bulkOperationsFinishMigration() {
+		var m = new SwissMap<Integer, Integer>(16).withIncrementalResize(1);
+		for (int i = 0; !migrating(m); i++) m.put(i, i);
+		assertTrue(migrating(m));
+		m.replaceAll((k, v) -> v + 1);
+		assertFalse(migrating(m));
+		assertEquals(4, m.get(3));
+
+		var src = Map.of(-1, -1, -2, -2);
+		for (int i = 100; !migrating(m); i++) m.put(i, i);
+		m.putAll(src);
+		assertEquals(-1, m.get(-1));
+		m.clear();
+		assertFalse(migrating(m));
+		assertTrue(m.isEmpty());
+		assertNull(m.get(3));
+	}
+}
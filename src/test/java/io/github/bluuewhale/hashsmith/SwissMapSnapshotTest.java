@@ -0,0 +1,180 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class SwissMapSnapshotTest {
+
+	private static Map<String, Long> fill(Map<String, Long> m) {
+		for (long i = 0; i < 10_000; i++) m.put("k" + i, i);
+		for (long i = 0; i < 10_000; i += 7) m.remove("k" + i); // leave tombstones in the snapshot
+		m.put("nullValue", null);
+		return m;
+	}
+
+	@Test
+	void swissMapRoundTripKeepsLayout() throws IOException {
+		var src = (SwissMap<String, Long>) fill(new SwissMap<>());
+		var bytes = new ByteArrayOutputStream();
+		src.writeTo(bytes, Codec.STRING, Codec.LONG);
+
+		var copy = SwissMap.readFrom(new ByteArrayInputStream(bytes.toByteArray()), Codec.STRING, Codec.LONG);
+		assertEquals(new HashMap<>(src), new HashMap<>(copy));
+		assertEquals(src.capacity, copy.capacity);
+		assertTrue(copy.containsKey("nullValue"));
+		assertNull(copy.get("k0"));
+
+		copy.put("k0", -1L);
+		assertEquals(-1L, copy.get("k0"));
+	}
+
+	@Test
+	void swissSimdMapRoundTripOverChannel() throws IOException {
+		var src = (SwissSimdMap<String, Long>) fill(new SwissSimdMap<>());
+		var bytes = new ByteArrayOutputStream();
+		src.writeTo(Channels.newChannel(bytes), Codec.STRING, Codec.LONG);
+
+		var copy = SwissSimdMap.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+			Codec.STRING, Codec.LONG);
+		assertEquals(new HashMap<>(src), new HashMap<>(copy));
+		assertEquals(src.capacity, copy.capacity);
+	}
+
+	@Test
+	void crossImplementationRestoreReinserts() throws IOException {
+		var src = (SwissMap<String, Long>) fill(new SwissMap<>());
+		var bytes = new ByteArrayOutputStream();
+		src.writeTo(bytes, Codec.STRING, Codec.LONG);
+
+		var copy = SwissSimdMap.readFrom(new ByteArrayInputStream(bytes.toByteArray()), Codec.STRING, Codec.LONG);
+		assertEquals(new HashMap<>(src), new HashMap<>(copy));
+	}
+
+	/** Key whose hash code is not stable between "JVMs": restore must detect it and rehash. */
+	record Shifty(int id, int salt) {
+		@Override
+		public int hashCode() {
+			return id * 31 + salt;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Shifty s && s.id == id;
+		}
+	}
+
+	@Test
+	void unstableHashCodesAreRehashed() throws IOException {
+		var src = new SwissMap<Shifty, Integer>();
+		for (int i = 0; i < 1_000; i++) src.put(new Shifty(i, 0), i);
+		var bytes = new ByteArrayOutputStream();
+		src.writeTo(bytes, new Codec<>() {
+			@Override
+			public void write(DataOutput out, Shifty value) throws IOException {
+				out.writeInt(value.id());
+			}
+
+			@Override
+			public Shifty read(DataInput in) throws IOException {
+				return new Shifty(in.readInt(), 12345);
+			}
+		}, Codec.INTEGER);
+
+		var copy = SwissMap.readFrom(new ByteArrayInputStream(bytes.toByteArray()), new Codec<Shifty>() {
+			@Override
+			public void write(DataOutput out, Shifty value) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Shifty read(DataInput in) throws IOException {
+				return new Shifty(in.readInt(), 12345);
+			}
+		}, Codec.INTEGER);
+		assertEquals(1_000, copy.size());
+		for (int i = 0; i < 1_000; i++) assertEquals(i, copy.get(new Shifty(i, 12345)));
+	}
+
+	/** Key with an explicit hash code; equal by id only. */
+	record Tagged(int id, int hash) {
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Tagged t && t.id == id;
+		}
+	}
+
+	/** A hash code other than {@code id} whose smeared hash keeps the same 7-bit H2 tag. */
+	private static int sameTagHash(int id) {
+		int tag = Hashing.smear(id) & 0x7F;
+		for (int h = id + 0x1_0000; ; h += 0x1_0000) {
+			if ((Hashing.smear(h) & 0x7F) == tag) return h;
+		}
+	}
+
+	@Test
+	void changedHashCodesWithMatchingTagsAreRehashed() throws IOException {
+		var src = new SwissMap<Tagged, Integer>();
+		for (int i = 0; i < 1_000; i++) src.put(new Tagged(i, i), i);
+		var bytes = new ByteArrayOutputStream();
+		src.writeTo(bytes, new Codec<>() {
+			@Override
+			public void write(DataOutput out, Tagged value) throws IOException {
+				out.writeInt(value.id());
+			}
+
+			@Override
+			public Tagged read(DataInput in) {
+				throw new UnsupportedOperationException();
+			}
+		}, Codec.INTEGER);
+
+		var copy = SwissMap.readFrom(new ByteArrayInputStream(bytes.toByteArray()), new Codec<Tagged>() {
+			@Override
+			public void write(DataOutput out, Tagged value) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Tagged read(DataInput in) throws IOException {
+				int id = in.readInt();
+				return new Tagged(id, sameTagHash(id));
+			}
+		}, Codec.INTEGER);
+		assertEquals(1_000, copy.size());
+		for (int i = 0; i < 1_000; i++) assertEquals(i, copy.get(new Tagged(i, sameTagHash(i))));
+	}
+
+	@Test
+	void rejectsCorruptInput() throws IOException {
+		var src = new SwissMap<String, Long>();
+		src.put("a", 1L);
+		var bytes = new ByteArrayOutputStream();
+		src.writeTo(bytes, Codec.STRING, Codec.LONG);
+		byte[] raw = bytes.toByteArray();
+
+		byte[] badMagic = raw.clone();
+		badMagic[0] ^= 1;
+		assertThrows(IOException.class,
+			() -> SwissMap.readFrom(new ByteArrayInputStream(badMagic), Codec.STRING, Codec.LONG));
+
+		byte[] truncated = Arrays.copyOf(raw, raw.length - 3);
+		assertThrows(IOException.class,
+			() -> SwissMap.readFrom(new ByteArrayInputStream(truncated), Codec.STRING, Codec.LONG));
+	}
+}
@@ -0,0 +1,68 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+
+import org.junit.jupiter.api.Test;
+
+class SwissObjectLongMapTest {
+
+	@Test
+	void basicCrud() {
+		var m = new SwissObjectLongMap<String>();
+
+		assertEquals(0L, m.put("a", 3L));
+		assertEquals(3L, m.put("a", 4L));
+		assertEquals(4L, m.get("a"));
+		assertEquals(-1L, m.getOrDefault("b", -1L));
+		assertEquals(4L, m.remove("a"));
+		assertEquals(0L, m.remove("a"));
+		assertTrue(m.isEmpty());
+	}
+
+	@Test
+	void nullKeysRejected() {
+		var m = new SwissObjectLongMap<String>();
+		assertThrows(NullPointerException.class, () -> m.addTo(null, 1L));
+		assertThrows(NullPointerException.class, () -> m.get(null));
+		assertThrows(NullPointerException.class, () -> m.containsKey(null));
+	}
+
+	@Test
+	void countingMatchesMerge() {
+		var m = new SwissObjectLongMap<String>(4);
+		var ref = new HashMap<String, Long>();
+		for (int i = 0; i < 200_000; i++) {
+			String token = "t" + (i % 5_003);
+			long c = m.incrementAndGet(token);
+			assertEquals(ref.merge(token, 1L, Long::sum), c);
+		}
+		assertEquals(ref.size(), m.size());
+		ref.forEach((k, v) -> assertEquals((long) v, m.get(k)));
+
+		var seen = new HashMap<String, Long>();
+		m.forEach((k, v) -> assertNull(seen.put(k, v)));
+		assertEquals(ref, seen);
+	}
+
+	@Test
+	void addToStartsFromNoEntryValue() {
+		var m = new SwissObjectLongMap<String>(16, 0.875d, 100L);
+		assertEquals(100L, m.get("x"));
+		assertEquals(105L, m.addTo("x", 5L));
+		assertEquals(106L, m.incrementAndGet("x"));
+	}
+
+	@Test
+	void highCollisionWithTombstones() {
+		record Collide(int v) { @Override public int hashCode() { return 0; } }
+		var m = new SwissObjectLongMap<Collide>();
+		for (int i = 0; i < 1_000; i++) m.addTo(new Collide(i), i);
+		for (int i = 0; i < 1_000; i += 2) assertEquals(i, m.remove(new Collide(i)));
+		for (int i = 0; i < 1_000; i++) {
+			assertEquals(i % 2 == 0 ? 0L : i, m.get(new Collide(i)));
+		}
+		assertEquals(500, m.size());
+	}
+}
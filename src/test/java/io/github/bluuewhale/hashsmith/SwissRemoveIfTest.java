@@ -0,0 +1,206 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SwissRemoveIfTest {
+
+	/** Few distinct hash codes: groups fill up and probe sequences run across many groups. */
+	private record Colliding(int id) {
+		@Override
+		public int hashCode() {
+			return id % 97;
+		}
+	}
+
+	private static Object getField(Object target, String name) {
+		try {
+			Field f = target.getClass().getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap", (Supplier<Map<Object, Integer>>) SwissMap::new),
+			Arguments.of("SwissMap (incremental resize)",
+				(Supplier<Map<Object, Integer>>) () -> new SwissMap<Object, Integer>().withIncrementalResize(1)),
+			Arguments.of("SwissSimdMap", (Supplier<Map<Object, Integer>>) SwissSimdMap::new)
+		);
+	}
+
+	private static boolean removeIf(Map<Object, Integer> m, java.util.function.BiPredicate<Object, Integer> filter) {
+		if (m instanceof SwissMap<Object, Integer> swiss) return swiss.removeIf(filter);
+		return ((SwissSimdMap<Object, Integer>) m).removeIf(filter);
+	}
+
+	private static void assertSameMappings(Map<Object, Integer> ref, Map<Object, Integer> m, List<Object> universe) {
+		assertEquals(ref.size(), m.size());
+		assertEquals(ref, new HashMap<>(m));
+		for (Object k : universe) assertEquals(ref.get(k), m.get(k), "key " + k);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void sweepsMatchHashMap_acrossChurn(String name, Supplier<Map<Object, Integer>> factory) {
+		var m = factory.get();
+		var ref = new HashMap<Object, Integer>();
+		var rnd = new SplittableRandom(25);
+		var universe = new java.util.ArrayList<Object>();
+		for (int i = 0; i < 3_000; i++) universe.add((i & 1) == 0 ? i : new Colliding(i));
+
+		for (int round = 0; round < 60; round++) {
+			for (int i = 0; i < 1_500; i++) {
+				Object k = universe.get(rnd.nextInt(universe.size()));
+				int v = rnd.nextInt(100);
+				if (rnd.nextInt(4) == 0) assertEquals(ref.remove(k), m.remove(k));
+				else assertEquals(ref.put(k, v), m.put(k, v));
+			}
+			int cut = rnd.nextInt(100);
+			assertEquals(ref.values().removeIf(v -> v < cut), removeIf(m, (k, v) -> v < cut));
+			assertSameMappings(ref, m, universe);
+		}
+		assertFalse(removeIf(m, (k, v) -> false));
+		assertTrue(removeIf(m, (k, v) -> true) || ref.isEmpty());
+		assertTrue(m.isEmpty());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void groupsWithEmptySlots_keepNoTombstones(String name, Supplier<Map<Object, Integer>> factory) {
+		var m = factory.get();
+		var rnd = new SplittableRandom(25);
+		var keys = new Long[10_000]; // random keys: sequential ones can cluster into full groups
+		for (int i = 0; i < keys.length; i++) keys[i] = rnd.nextLong();
+		for (int i = 0; i < 40_000; i++) m.put(i, i);
+		m.clear(); // keeps the grown capacity
+		for (int i = 0; i < keys.length; i++) m.put(keys[i], i);
+		for (int i = 0; i < keys.length; i += 50) m.remove(keys[i]); // older tombstones
+		assertEquals(200, (int) getField(m, "tombstones"));
+		Object ctrl = getField(m, "ctrl");
+
+		assertTrue(removeIf(m, (k, v) -> v % 10 < 3));
+		// At this low load almost every group has an EMPTY slot, so its hits and older tombstones become EMPTY
+		// and nothing is rebuilt.
+		assertTrue((int) getField(m, "tombstones") < 20);
+		assertSame(ctrl, getField(m, "ctrl"));
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals((i % 50 == 0 || i % 10 < 3) ? null : i, m.get(keys[i]));
+		}
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void fullGroups_tombstonedThenCompactedOnce(String name, Supplier<Map<Object, Integer>> factory) {
+		var m = factory.get();
+		var ref = new HashMap<Object, Integer>();
+		var universe = new java.util.ArrayList<Object>();
+		for (int i = 0; i < 5_000; i++) universe.add(new Colliding(i)); // clustered: most groups are full
+		for (Object k : universe) {
+			m.put(k, ((Colliding) k).id());
+			ref.put(k, ((Colliding) k).id());
+		}
+
+		assertTrue(removeIf(m, (k, v) -> v % 10 < 8));
+		ref.values().removeIf(v -> v % 10 < 8);
+		assertTrue((int) getField(m, "tombstones") <= m.size() / 2);
+		assertSameMappings(ref, m, universe);
+
+		// Probe chains across the surviving groups still work for inserts.
+		for (Object k : universe) {
+			assertEquals(ref.put(k, -1), m.put(k, -1));
+		}
+		assertSameMappings(ref, m, universe);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void viewBulkRemovalsMatchHashMap(String name, Supplier<Map<Object, Integer>> factory) {
+		var m = factory.get();
+		var ref = new HashMap<Object, Integer>();
+		for (int i = 0; i < 20_000; i++) {
+			m.put(i, i % 1_000);
+			ref.put(i, i % 1_000);
+		}
+		var universe = List.<Object>copyOf(ref.keySet());
+
+		assertEquals(ref.keySet().removeIf(k -> (Integer) k % 7 == 0), m.keySet().removeIf(k -> (Integer) k % 7 == 0));
+		assertEquals(ref.values().removeIf(v -> v % 5 == 0), m.values().removeIf(v -> v % 5 == 0));
+		assertEquals(ref.entrySet().removeIf(e -> (Integer) e.getKey() + e.getValue() < 5_000),
+			m.entrySet().removeIf(e -> (Integer) e.getKey() + e.getValue() < 5_000));
+		assertSameMappings(ref, m, universe);
+
+		var values = List.of(1, 2, 3, 500, 999);
+		assertEquals(ref.values().removeAll(values), m.values().removeAll(values));
+		var keep = new java.util.HashSet<Object>();
+		for (int i = 0; i < 20_000; i += 3) keep.add(i);
+		assertEquals(ref.keySet().retainAll(keep), m.keySet().retainAll(keep));
+		assertSameMappings(ref, m, universe);
+
+		var keepValues = new java.util.HashSet<Integer>();
+		for (int i = 0; i < 1_000; i += 2) keepValues.add(i);
+		assertEquals(ref.values().retainAll(keepValues), m.values().retainAll(keepValues));
+		var keepEntries = new java.util.HashSet<>(new HashMap<>(ref).entrySet());
+		keepEntries.removeIf(e -> (Integer) e.getKey() % 4 == 0);
+		assertEquals(ref.entrySet().retainAll(keepEntries), m.entrySet().retainAll(keepEntries));
+		assertSameMappings(ref, m, universe);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void entryFilterCanUpdateKeptValues(String name, Supplier<Map<Object, Integer>> factory) {
+		var m = factory.get();
+		var ref = new HashMap<Object, Integer>();
+		for (int i = 0; i < 5_000; i++) {
+			m.put(i, i);
+			ref.put(i, i);
+		}
+		var universe = List.<Object>copyOf(ref.keySet());
+		java.util.function.Predicate<Map.Entry<Object, Integer>> filter = e -> {
+			if (e.getValue() % 3 == 0) return true;
+			e.setValue(-e.getValue());
+			return false;
+		};
+		assertEquals(ref.entrySet().removeIf(filter), m.entrySet().removeIf(filter));
+		assertSameMappings(ref, m, universe);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void throwingFilterLeavesMapConsistent(String name, Supplier<Map<Object, Integer>> factory) {
+		var m = factory.get();
+		for (int i = 0; i < 5_000; i++) m.put(i, i);
+		int[] calls = { 0 };
+		assertThrows(IllegalStateException.class, () -> removeIf(m, (k, v) -> {
+			if (++calls[0] == 2_500) throw new IllegalStateException();
+			return v % 2 == 0;
+		}));
+
+		int count = 0;
+		for (var e : m.entrySet()) {
+			assertEquals(e.getKey(), e.getValue());
+			assertEquals(e.getValue(), m.get(e.getKey()));
+			count++;
+		}
+		assertEquals(m.size(), count);
+		for (int i = 1; i < 5_000; i += 2) assertEquals(i, m.get(i)); // odd keys were never removed
+
+		assertThrows(ConcurrentModificationException.class, () -> removeIf(m, (k, v) -> m.remove(k) == null));
+		assertThrows(NullPointerException.class, () -> removeIf(m, null));
+	}
+}
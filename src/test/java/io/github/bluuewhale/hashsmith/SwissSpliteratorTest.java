@@ -0,0 +1,142 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class SwissSpliteratorTest {
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap", (Supplier<Map<Integer, Integer>>) SwissMap::new),
+			Arguments.of("SwissMap (incremental resize)",
+				(Supplier<Map<Integer, Integer>>) () -> new SwissMap<Integer, Integer>().withIncrementalResize(1)),
+			Arguments.of("SwissSimdMap", (Supplier<Map<Integer, Integer>>) SwissSimdMap::new)
+		);
+	}
+
+	private static Map<Integer, Integer> populate(Supplier<Map<Integer, Integer>> factory, int n) {
+		var m = factory.get();
+		for (int i = 0; i < n; i++) m.put(i, i % 100);
+		for (int i = 0; i < n; i += 3) m.remove(i); // tombstones and partly empty groups
+		return m;
+	}
+
+	/** Splits down to leaves and drains each one, so every element is seen through some leaf. */
+	private static <T> List<T> drainAllSplits(Spliterator<T> s) {
+		var out = new ArrayList<T>();
+		var work = new ArrayList<Spliterator<T>>(List.of(s));
+		while (!work.isEmpty()) {
+			var cur = work.remove(work.size() - 1);
+			var prefix = cur.trySplit();
+			if (prefix != null) {
+				assertEquals(0, prefix.characteristics() & Spliterator.SIZED);
+				work.add(prefix);
+				work.add(cur);
+			} else {
+				cur.forEachRemaining(out::add);
+			}
+		}
+		return out;
+	}
+
+	private static <T> void assertSplitsCoverExactly(Collection<T> view, Collection<T> expected) {
+		var all = drainAllSplits(view.spliterator());
+		assertEquals(expected.size(), all.size());
+		assertEquals(new HashSet<>(expected), new HashSet<>(all));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void splitsCoverEveryElementOnce(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = populate(factory, 30_000);
+		var ref = new HashMap<>(m);
+
+		assertSplitsCoverExactly(m.keySet(), ref.keySet());
+		assertSplitsCoverExactly(m.values(), ref.values());
+		var entries = drainAllSplits(m.entrySet().spliterator());
+		assertEquals(ref.size(), entries.size());
+		assertEquals(ref, entries.stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void characteristicsAndSize(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = populate(factory, 5_000);
+		var keys = m.keySet().spliterator();
+		assertTrue(keys.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.NONNULL));
+		assertEquals(m.size(), keys.getExactSizeIfKnown());
+		var values = m.values().spliterator();
+		assertTrue(values.hasCharacteristics(Spliterator.SIZED));
+		assertFalse(values.hasCharacteristics(Spliterator.DISTINCT));
+		assertTrue(m.entrySet().spliterator().hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+
+		assertNotNull(keys.trySplit());
+		assertEquals(-1, keys.getExactSizeIfKnown()); // only an estimate once split
+		assertTrue(keys.estimateSize() <= m.size());
+
+		var empty = factory.get();
+		assertEquals(0, empty.keySet().spliterator().getExactSizeIfKnown());
+		assertEquals(0, empty.entrySet().stream().count());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void parallelStreamsMatchSequential(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = populate(factory, 200_000);
+		var ref = new HashMap<>(m);
+		assertEquals(ref.keySet().stream().mapToLong(Integer::longValue).sum(),
+			m.keySet().parallelStream().mapToLong(Integer::longValue).sum());
+		assertEquals(ref.values().stream().mapToLong(Integer::longValue).sum(),
+			m.values().parallelStream().mapToLong(Integer::longValue).sum());
+		assertEquals(ref, m.entrySet().parallelStream()
+			.collect(Collectors.toConcurrentMap(Map.Entry::getKey, Map.Entry::getValue)));
+
+		// Sequential streams follow forEach order.
+		var order = new ArrayList<Integer>();
+		m.keySet().forEach(order::add);
+		assertEquals(order, m.keySet().stream().toList());
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void structuralChangeDuringTraversalThrows(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = populate(factory, 100);
+		assertThrows(ConcurrentModificationException.class, () -> m.keySet().spliterator().forEachRemaining(m::remove));
+		var s = m.values().spliterator();
+		m.put(-1, -1);
+		assertThrows(ConcurrentModificationException.class, () -> s.tryAdvance(v -> {}));
+	}
+
+	@Test
+	void swissSet() {
+		var set = new SwissSet<Integer>();
+		for (int i = 0; i < 100_000; i++) set.add(i);
+		for (int i = 0; i < 100_000; i += 4) set.remove(i);
+		set.add(null);
+		var ref = new HashSet<>(set);
+
+		var root = set.spliterator();
+		assertTrue(root.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+		assertEquals(set.size(), root.getExactSizeIfKnown());
+		assertSplitsCoverExactly(set, ref);
+		assertEquals(ref.stream().filter(e -> e != null).mapToLong(Integer::longValue).sum(),
+			set.parallelStream().filter(e -> e != null).mapToLong(Integer::longValue).sum());
+		assertThrows(ConcurrentModificationException.class, () -> set.spliterator().forEachRemaining(e -> set.add(-1)));
+	}
+}
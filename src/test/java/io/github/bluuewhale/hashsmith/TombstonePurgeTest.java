@@ -0,0 +1,69 @@
+package io.github.bluuewhale.hashsmith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class TombstonePurgeTest {
+
+	private static Object getField(Object target, String name) {
+		try {
+			Field f = target.getClass().getDeclaredField(name);
+			f.setAccessible(true);
+			return f.get(target);
+		} catch (ReflectiveOperationException e) {
+			throw new AssertionError("Failed to read field: " + name, e);
+		}
+	}
+
+	static Stream<Arguments> maps() {
+		return Stream.of(
+			Arguments.of("SwissMap", (Supplier<Map<Integer, Integer>>) () -> new SwissMap<>(1024)),
+			Arguments.of("SwissSimdMap", (Supplier<Map<Integer, Integer>>) () -> new SwissSimdMap<>(1024))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void purgeReusesArrays(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = factory.get();
+		for (int i = 0; i < 600; i++) m.put(i, i);
+		Object ctrl = getField(m, "ctrl");
+		Object keys = getField(m, "keys");
+
+		// Delete enough to trigger the tombstone cleanup without ever exceeding max load.
+		for (int i = 0; i < 500; i++) assertEquals(i, m.remove(i));
+
+		// Cleanups ran along the way (500 tombstones would be far above size / 2 otherwise).
+		assertTrue((int) getField(m, "tombstones") <= m.size() / 2);
+		assertSame(ctrl, getField(m, "ctrl"), "cleanup must not reallocate ctrl");
+		assertSame(keys, getField(m, "keys"), "cleanup must not reallocate keys");
+		assertEquals(100, m.size());
+		for (int i = 0; i < 500; i++) assertNull(m.get(i));
+		for (int i = 500; i < 600; i++) assertEquals(i, m.get(i));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("maps")
+	void churnMatchesHashMap(String name, Supplier<Map<Integer, Integer>> factory) {
+		var m = factory.get();
+		var ref = new HashMap<Integer, Integer>();
+		var rnd = new SplittableRandom(7);
+		for (int op = 0; op < 200_000; op++) {
+			int k = rnd.nextInt(800);
+			if (rnd.nextBoolean()) assertEquals(ref.put(k, op), m.put(k, op));
+			else assertEquals(ref.remove(k), m.remove(k));
+		}
+		assertEquals(ref, new HashMap<>(m));
+		for (int k = 0; k < 800; k++) assertEquals(ref.get(k), m.get(k));
+	}
+}